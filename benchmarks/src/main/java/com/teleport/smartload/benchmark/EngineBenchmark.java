@@ -0,0 +1,101 @@
+package com.teleport.smartload.benchmark;
+
+import com.teleport.smartload.model.Order;
+import com.teleport.smartload.solver.BranchAndBoundEngine;
+import com.teleport.smartload.solver.CompatibilityRule;
+import com.teleport.smartload.solver.DynamicProgrammingEngine;
+import com.teleport.smartload.solver.LocalSearchEngine;
+import com.teleport.smartload.solver.MeetInTheMiddleEngine;
+import com.teleport.smartload.solver.OrderPool;
+import com.teleport.smartload.solver.ParallelBranchAndBoundEngine;
+import com.teleport.smartload.solver.SolveBudget;
+import com.teleport.smartload.solver.SolveStats;
+import com.teleport.smartload.solver.SolverEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Each engine on its own over a single compatibility class, bypassing the selector.
+ * New engines get a case in {@link #engine(String)}. The local-search heuristic
+ * is meant for classes far beyond exact search, so it always gets
+ * {@link #LOCAL_SEARCH_ORDERS} orders.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EngineBenchmark {
+
+    @Param({BranchAndBoundEngine.NAME, ParallelBranchAndBoundEngine.NAME, MeetInTheMiddleEngine.NAME,
+            DynamicProgrammingEngine.NAME, LocalSearchEngine.NAME})
+    public String engineName;
+
+    static final int LOCAL_SEARCH_ORDERS = 5000;
+
+    @Param({"30"})
+    public int orders;
+
+    @Param({"UNCORRELATED", "WEAKLY_CORRELATED", "STRONGLY_CORRELATED"})
+    public Instances.Correlation correlation;
+
+    @Param({"TIGHT", "LOOSE"})
+    public Instances.Capacity capacity;
+
+    private SolverEngine engine;
+    private OrderPool pool;
+    private LocalSearchEngine localSearch;
+    private List<Order> largeClass;
+
+    @Setup
+    public void setUp() {
+        if (LocalSearchEngine.NAME.equals(engineName)) {
+            localSearch = new LocalSearchEngine();
+            largeClass = Instances.request(42, LOCAL_SEARCH_ORDERS, correlation, capacity, 1, 0.0).getOrders();
+            return;
+        }
+        engine = engine(engineName);
+        List<Order> class0 = new ArrayList<>(
+                Instances.request(42, orders, correlation, capacity, 1, 0.0).getOrders());
+        // the service hands engines a density-sorted pool, do the same here
+        class0.sort(Comparator.comparingDouble(o -> -o.getPayoutCents()
+                / ((double) o.getWeightLbs() / Instances.MAX_WEIGHT + (double) o.getVolumeCuft() / Instances.MAX_VOLUME)));
+        pool = OrderPool.of(class0);
+    }
+
+    private static SolverEngine engine(String name) {
+        return switch (name) {
+            case BranchAndBoundEngine.NAME -> new BranchAndBoundEngine();
+            case ParallelBranchAndBoundEngine.NAME -> new ParallelBranchAndBoundEngine(ForkJoinPool.commonPool());
+            case MeetInTheMiddleEngine.NAME -> new MeetInTheMiddleEngine();
+            // irregular sizes don't reduce by GCD, so exact DP would refuse most of these grids
+            case DynamicProgrammingEngine.NAME -> new DynamicProgrammingEngine(1L << 22, true);
+            default -> throw new IllegalArgumentException("Unknown engine: " + name);
+        };
+    }
+
+    @Benchmark
+    public Object solve() {
+        if (localSearch != null) {
+            return localSearch.solve(largeClass, CompatibilityRule.LANE_AND_HAZMAT, Instances.MAX_WEIGHT,
+                    Instances.MAX_VOLUME, SolveBudget.UNLIMITED, new SolveStats());
+        }
+        return engine.solve(pool, Instances.MAX_WEIGHT, Instances.MAX_VOLUME);
+    }
+}
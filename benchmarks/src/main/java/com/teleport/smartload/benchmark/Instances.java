@@ -0,0 +1,69 @@
+package com.teleport.smartload.benchmark;
+
+import com.teleport.smartload.dto.OptimizeRequest;
+import com.teleport.smartload.model.Order;
+import com.teleport.smartload.model.Truck;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeded optimize requests in the shapes that stress a knapsack solver.
+ * Payout correlation follows the usual knapsack literature: the closer payout
+ * tracks size, the flatter the density ordering and the weaker every bound.
+ */
+public final class Instances {
+
+    static final int MAX_WEIGHT = 44000;
+    static final int MAX_VOLUME = 3000;
+
+    private static final LocalDate PICKUP = LocalDate.of(2025, 12, 1);
+
+    public enum Correlation {
+        UNCORRELATED,
+        WEAKLY_CORRELATED,
+        STRONGLY_CORRELATED
+    }
+
+    public enum Capacity {
+        // about four orders fit on the truck
+        TIGHT,
+        // about half of a lane fits on the truck
+        LOOSE
+    }
+
+    private Instances() {
+    }
+
+    static OptimizeRequest request(long seed, int size, Correlation correlation, Capacity capacity,
+            int lanes, double hazmatShare) {
+        Random random = new Random(seed);
+        int perLane = Math.max(1, size / lanes);
+        int fitting = capacity == Capacity.TIGHT ? 4 : Math.max(2, perLane / 2);
+        // order sizes average capacity / fitting, spread uniformly from 10% to 190% of that
+        int meanWeight = MAX_WEIGHT / fitting;
+        int meanVolume = MAX_VOLUME / fitting;
+
+        List<Order> orders = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int weight = spread(random, meanWeight);
+            int volume = spread(random, meanVolume);
+            // surrogate size in cents: a full truck is worth about 1,000,000
+            long surrogate = Math.round(500_000.0 * ((double) weight / MAX_WEIGHT + (double) volume / MAX_VOLUME));
+            long payout = switch (correlation) {
+                case UNCORRELATED -> 1_000 + random.nextInt(500_000);
+                case WEAKLY_CORRELATED -> Math.max(1_000, surrogate + random.nextInt(100_001) - 50_000);
+                case STRONGLY_CORRELATED -> surrogate + 50_000;
+            };
+            orders.add(new Order("ord-" + i, payout, weight, volume, "Los Angeles", "City-" + (i % lanes),
+                    PICKUP, PICKUP.plusDays(1 + random.nextInt(5)), random.nextDouble() < hazmatShare));
+        }
+        return new OptimizeRequest(new Truck("truck-" + seed, MAX_WEIGHT, MAX_VOLUME), orders);
+    }
+
+    private static int spread(Random random, int mean) {
+        return Math.max(1, mean / 10 + random.nextInt(Math.max(1, mean * 9 / 5)));
+    }
+}
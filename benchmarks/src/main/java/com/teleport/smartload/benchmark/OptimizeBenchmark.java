@@ -0,0 +1,60 @@
+package com.teleport.smartload.benchmark;
+
+import com.teleport.smartload.dto.OptimizeRequest;
+import com.teleport.smartload.dto.OptimizeResponse;
+import com.teleport.smartload.service.LoadOptimizerServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end {@link LoadOptimizerServiceImpl#optimize} over the generated instance grid.
+ * Run with {@code -prof gc} to get the allocation rate next to the timings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OptimizeBenchmark {
+
+    @Param({"22", "45"})
+    public int orders;
+
+    @Param({"UNCORRELATED", "WEAKLY_CORRELATED", "STRONGLY_CORRELATED"})
+    public Instances.Correlation correlation;
+
+    @Param({"TIGHT", "LOOSE"})
+    public Instances.Capacity capacity;
+
+    @Param({"1", "8"})
+    public int lanes;
+
+    @Param({"0.0", "0.5"})
+    public double hazmatShare;
+
+    private LoadOptimizerServiceImpl service;
+    private OptimizeRequest request;
+
+    @Setup
+    public void setUp() {
+        service = new LoadOptimizerServiceImpl();
+        request = Instances.request(42, orders, correlation, capacity, lanes, hazmatShare);
+    }
+
+    @Benchmark
+    public OptimizeResponse optimize() {
+        return service.optimize(request);
+    }
+}
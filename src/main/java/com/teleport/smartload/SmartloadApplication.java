@@ -1,13 +1,58 @@
 package com.teleport.smartload;
 
+import com.teleport.smartload.service.BatchOptimizeService;
+import org.springframework.boot.Banner;
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class SmartloadApplication {
 
-	public static void main(String[] args) {
+	static final String BULK_COMMAND = "bulk";
+
+	public static void main(String[] args) throws IOException {
+		if (args.length >= 2 && BULK_COMMAND.equals(args[0])) {
+			runBulk(args);
+			return;
+		}
 		SpringApplication.run(SmartloadApplication.class, args);
 	}
 
+	/**
+	 * Optimizes an NDJSON file without starting the web server:
+	 * {@code bulk <requests.jsonl> [results.jsonl] [--spring.options]}, "-" means stdin/stdout
+	 */
+	private static void runBulk(String[] args) throws IOException {
+		String input = args[1];
+		boolean hasOutput = args.length > 2 && !args[2].startsWith("--");
+		String output = hasOutput ? args[2] : "-";
+		String[] springArgs = Arrays.copyOfRange(args, hasOutput ? 3 : 2, args.length);
+
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SmartloadApplication.class)
+				.web(WebApplicationType.NONE)
+				.bannerMode(Banner.Mode.OFF)
+				.logStartupInfo(false)
+				// results may go to stdout, keep the log quiet
+				.properties("logging.level.root=WARN")
+				.run(springArgs);
+				InputStream in = "-".equals(input) ? System.in : Files.newInputStream(Path.of(input));
+				OutputStream out = new BufferedOutputStream(
+						"-".equals(output) ? System.out : Files.newOutputStream(Path.of(output)))) {
+			context.getBean(BatchOptimizeService.class).optimizeStream(in, out);
+		}
+	}
+
 }
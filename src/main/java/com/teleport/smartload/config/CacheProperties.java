@@ -0,0 +1,48 @@
+package com.teleport.smartload.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Result cache settings, bound from {@code smartload.cache.*}
+ */
+@ConfigurationProperties(prefix = "smartload.cache")
+public class CacheProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Entries kept before the least valuable ones are evicted (Caffeine's W-TinyLFU)
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * How long a result stays valid after it was computed
+     */
+    private Duration ttl = Duration.ofMinutes(5);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+}
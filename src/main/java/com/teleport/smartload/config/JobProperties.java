@@ -0,0 +1,80 @@
+package com.teleport.smartload.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Async optimization job settings, bound from {@code smartload.jobs.*}
+ */
+@ConfigurationProperties(prefix = "smartload.jobs")
+public class JobProperties {
+
+    /**
+     * Threads running jobs, apart from the pool serving synchronous requests
+     */
+    private int workers = 2;
+
+    /**
+     * Jobs allowed to wait for a worker; past that submissions get 429
+     */
+    private int maxQueued = 1000;
+
+    /**
+     * How long a finished job's result can still be fetched
+     */
+    private Duration resultTtl = Duration.ofMinutes(15);
+
+    /**
+     * Connect and read timeout for callback requests
+     */
+    private Duration callbackTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Hosts callback URLs may point at, matched exactly and ignoring case. Empty
+     * means no callbacks: the server shouldn't POST to whatever host a caller names.
+     */
+    private List<String> callbackAllowedHosts = new ArrayList<>();
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    public int getMaxQueued() {
+        return maxQueued;
+    }
+
+    public void setMaxQueued(int maxQueued) {
+        this.maxQueued = maxQueued;
+    }
+
+    public Duration getResultTtl() {
+        return resultTtl;
+    }
+
+    public void setResultTtl(Duration resultTtl) {
+        this.resultTtl = resultTtl;
+    }
+
+    public Duration getCallbackTimeout() {
+        return callbackTimeout;
+    }
+
+    public void setCallbackTimeout(Duration callbackTimeout) {
+        this.callbackTimeout = callbackTimeout;
+    }
+
+    public List<String> getCallbackAllowedHosts() {
+        return callbackAllowedHosts;
+    }
+
+    public void setCallbackAllowedHosts(List<String> callbackAllowedHosts) {
+        this.callbackAllowedHosts = callbackAllowedHosts;
+    }
+}
@@ -0,0 +1,39 @@
+package com.teleport.smartload.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+/**
+ * Order board settings, bound from {@code smartload.orderbook.*}
+ */
+@ConfigurationProperties(prefix = "smartload.orderbook")
+public class OrderBookProperties {
+
+    /**
+     * Where the board's journal and snapshot live; unset keeps the board in memory only
+     */
+    private Path journalDir;
+
+    /**
+     * Log size mapped into memory, the board is snapshotted when it fills up
+     */
+    private DataSize journalSize = DataSize.ofMegabytes(64);
+
+    public Path getJournalDir() {
+        return journalDir;
+    }
+
+    public void setJournalDir(Path journalDir) {
+        this.journalDir = journalDir;
+    }
+
+    public DataSize getJournalSize() {
+        return journalSize;
+    }
+
+    public void setJournalSize(DataSize journalSize) {
+        this.journalSize = journalSize;
+    }
+}
@@ -0,0 +1,38 @@
+package com.teleport.smartload.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Optimization session settings, bound from {@code smartload.session.*}
+ */
+@ConfigurationProperties(prefix = "smartload.session")
+public class SessionProperties {
+
+    /**
+     * Sessions held in memory before the least valuable ones are evicted
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * A session nobody has read or changed for this long is dropped
+     */
+    private Duration idleTimeout = Duration.ofMinutes(15);
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+}
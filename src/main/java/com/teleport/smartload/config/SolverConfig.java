@@ -0,0 +1,82 @@
+package com.teleport.smartload.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class SolverConfig {
+
+    /**
+     * Work-stealing pool for the parallel branch and bound. Kept apart from the
+     * common pool so solver tasks don't compete with parallel streams elsewhere.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool solverForkJoinPool(SolverProperties properties) {
+        return new ForkJoinPool(properties.resolveParallelism());
+    }
+
+    /**
+     * One thread per core for whole optimize requests, so fanned-out work like
+     * batches can't oversubscribe the CPU. The queue is bounded and a full queue
+     * rejects new work instead of letting latency grow for everyone.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor solverExecutor(SolverProperties properties) {
+        int threads = properties.resolveParallelism();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()), namedThreads("solver-"));
+    }
+
+    /**
+     * Workers for async optimization jobs, highest priority first. Submissions
+     * must be the comparable jobs themselves ({@code execute}, not {@code submit}),
+     * and the queue is capped by the job service rather than here.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor jobExecutor(JobProperties properties) {
+        int workers = Math.max(1, properties.getWorkers());
+        return new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(), namedThreads("job-"));
+    }
+
+    /**
+     * Sends job callbacks, so a slow receiver holds up neither the job workers
+     * nor the jobs queued behind them. A callback that finds the queue full is
+     * dropped, the client can still poll.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor callbackExecutor(JobProperties properties) {
+        int workers = Math.max(1, properties.getWorkers());
+        return new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getMaxQueued())), namedThreads("callback-"));
+    }
+
+    /**
+     * Runs batch and stream requests off the request threads. They only parse,
+     * write and wait for their items on the solver pool, so a thread each is cheap.
+     */
+    @Bean
+    public SimpleAsyncTaskExecutor batchExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("batch-");
+        executor.setDaemon(true);
+        return executor;
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
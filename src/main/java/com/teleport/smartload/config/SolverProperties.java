@@ -0,0 +1,113 @@
+package com.teleport.smartload.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Tuning knobs for the optimizer, bound from {@code smartload.solver.*}
+ */
+@ConfigurationProperties(prefix = "smartload.solver")
+public class SolverProperties {
+
+    /**
+     * Largest (weight x volume) table the DP engine may allocate, two longs per cell
+     */
+    private long dpMaxCells = 1L << 20;
+
+    /**
+     * Lets the DP engine round order sizes onto a coarser grid when that is cheaper
+     * than any exact engine. Results always fit the truck but may not be optimal.
+     */
+    private boolean dpRounding = false;
+
+    /**
+     * Worker threads for the parallel branch and bound, 0 means one per core
+     */
+    private int parallelism = 0;
+
+    /**
+     * Requests allowed to wait for a solver thread; past that callers get 429
+     */
+    private int queueCapacity = 64;
+
+    /**
+     * Retry-After sent with a 429
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    /**
+     * Lets an /optimize request identical to one still solving wait for that
+     * one's result instead of solving again
+     */
+    private boolean coalesce = true;
+
+    /**
+     * Longest an optimize request, or a whole batch or stream, may wait for its
+     * solves before they are cancelled and it is answered with 503
+     */
+    private Duration maxSolveTime = Duration.ofSeconds(60);
+
+    public long getDpMaxCells() {
+        return dpMaxCells;
+    }
+
+    public void setDpMaxCells(long dpMaxCells) {
+        this.dpMaxCells = dpMaxCells;
+    }
+
+    public boolean isDpRounding() {
+        return dpRounding;
+    }
+
+    public void setDpRounding(boolean dpRounding) {
+        this.dpRounding = dpRounding;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public void setRetryAfter(Duration retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+
+    public boolean isCoalesce() {
+        return coalesce;
+    }
+
+    public void setCoalesce(boolean coalesce) {
+        this.coalesce = coalesce;
+    }
+
+    public Duration getMaxSolveTime() {
+        return maxSolveTime;
+    }
+
+    public void setMaxSolveTime(Duration maxSolveTime) {
+        this.maxSolveTime = maxSolveTime;
+    }
+
+    /**
+     * Configured parallelism with 0 resolved to the number of cores
+     */
+    public int resolveParallelism() {
+        return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -0,0 +1,83 @@
+package com.teleport.smartload.controller;
+
+import com.teleport.smartload.config.SolverProperties;
+import com.teleport.smartload.dto.BatchItemResponse;
+import com.teleport.smartload.dto.OptimizeRequest;
+import com.teleport.smartload.exception.SolveTimeoutException;
+import com.teleport.smartload.service.BatchOptimizeService;
+import com.teleport.smartload.solver.CancellationToken;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+@RestController
+@RequestMapping("/api/v1/load-optimizer")
+public class BatchOptimizerController {
+
+    private final BatchOptimizeService batchService;
+    private final AsyncTaskExecutor batchExecutor;
+    private final Duration maxSolveTime;
+
+    public BatchOptimizerController(BatchOptimizeService batchService,
+            @Qualifier("batchExecutor") AsyncTaskExecutor batchExecutor, SolverProperties properties) {
+        this.batchService = batchService;
+        this.batchExecutor = batchExecutor;
+        this.maxSolveTime = properties.getMaxSolveTime();
+    }
+
+    /**
+     * Items are validated one by one so a bad item only fails itself, not the batch
+     */
+    @PostMapping("/optimize/batch")
+    public WebAsyncTask<ResponseEntity<List<BatchItemResponse>>> optimizeBatch(
+            @RequestBody List<OptimizeRequest> requests) {
+        CancellationToken token = new CancellationToken();
+        return cancellable(token, () -> ResponseEntity.ok(batchService.optimizeAll(requests, token)), () -> {
+            throw new SolveTimeoutException(maxSolveTime);
+        });
+    }
+
+    /**
+     * One request per line in, one result per line out, written while the rest are still solving.
+     * Results are already on the wire, so past the time limit the response just ends.
+     */
+    @PostMapping(value = "/optimize/stream", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public WebAsyncTask<Void> optimizeStream(HttpServletRequest request, HttpServletResponse response) {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        CancellationToken token = new CancellationToken();
+        return cancellable(token, () -> {
+            batchService.optimizeStream(request.getInputStream(), response.getOutputStream(), token);
+            return null;
+        }, () -> null);
+    }
+
+    /**
+     * Runs the work on the batch executor, the request thread goes back to the
+     * container. The batch's token is cancelled when it outlives
+     * {@code smartload.solver.max-solve-time}, answered with {@code timedOut},
+     * or the request ends any other way, so its remaining items never start.
+     */
+    private <T> WebAsyncTask<T> cancellable(CancellationToken token, Callable<T> work, Supplier<T> timedOut) {
+        WebAsyncTask<T> task = new WebAsyncTask<>(maxSolveTime.toMillis(), batchExecutor, work);
+        task.onTimeout(() -> {
+            token.cancel();
+            return timedOut.get();
+        });
+        // runs after errors and timeouts too, cancelling a finished batch does nothing
+        task.onCompletion(token::cancel);
+        return task;
+    }
+}
@@ -0,0 +1,48 @@
+package com.teleport.smartload.controller;
+
+import com.teleport.smartload.exception.SolveTimeoutException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Answers a request when its solve does, without holding the request thread.
+ * The solve is cancelled when it outlives {@code smartload.solver.max-solve-time}
+ * (the request gets 503) or the container ends the request first. Tomcat doesn't
+ * report an HTTP/1.1 client hanging up mid-solve, so there the time limit is
+ * what stops it.
+ */
+final class DeferredSolve {
+
+    private DeferredSolve() {
+    }
+
+    static <T> DeferredResult<ResponseEntity<T>> respond(CompletableFuture<T> solve, Duration maxSolveTime) {
+        return respond(solve, maxSolveTime, ResponseEntity::ok);
+    }
+
+    static <T> DeferredResult<ResponseEntity<T>> respond(CompletableFuture<T> solve, Duration maxSolveTime,
+            Function<T, ResponseEntity<T>> toResponse) {
+        DeferredResult<ResponseEntity<T>> result = new DeferredResult<>(maxSolveTime.toMillis());
+        result.onTimeout(() -> {
+            solve.cancel(false);
+            result.setErrorResult(new SolveTimeoutException(maxSolveTime));
+        });
+        // runs after errors and timeouts too, cancelling a finished solve does nothing
+        result.onCompletion(() -> solve.cancel(false));
+        solve.whenComplete((response, ex) -> {
+            if (ex == null) {
+                result.setResult(toResponse.apply(response));
+            } else if (!solve.isCancelled()) {
+                result.setErrorResult(ex instanceof CompletionException && ex.getCause() != null
+                        ? ex.getCause()
+                        : ex);
+            }
+        });
+        return result;
+    }
+}
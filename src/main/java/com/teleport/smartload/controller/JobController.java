@@ -0,0 +1,46 @@
+package com.teleport.smartload.controller;
+
+import com.teleport.smartload.dto.JobResponse;
+import com.teleport.smartload.dto.JobSubmitRequest;
+import com.teleport.smartload.service.OptimizationJobService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/v1/load-optimizer/jobs")
+public class JobController {
+
+    private final OptimizationJobService jobService;
+
+    public JobController(OptimizationJobService jobService) {
+        this.jobService = jobService;
+    }
+
+    // answers before the solve starts, the job pool has its own queue (see OptimizationJobService)
+    @PostMapping
+    public ResponseEntity<JobResponse> submit(@Valid @RequestBody JobSubmitRequest request) {
+        JobResponse job = jobService.submit(request);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/load-optimizer/jobs/" + job.getJobId()))
+                .body(job);
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<JobResponse> get(@PathVariable String jobId) {
+        return ResponseEntity.ok(jobService.get(jobId));
+    }
+
+    @DeleteMapping("/{jobId}")
+    public ResponseEntity<JobResponse> cancel(@PathVariable String jobId) {
+        return ResponseEntity.ok(jobService.cancel(jobId));
+    }
+}
@@ -1,28 +1,73 @@
 package com.teleport.smartload.controller;
 
+import com.teleport.smartload.config.SolverProperties;
+import com.teleport.smartload.dto.FleetOptimizeRequest;
+import com.teleport.smartload.dto.FleetOptimizeResponse;
+import com.teleport.smartload.dto.LargePoolOptimizeRequest;
 import com.teleport.smartload.dto.OptimizeRequest;
 import com.teleport.smartload.dto.OptimizeResponse;
 import com.teleport.smartload.service.LoadOptimizerService;
+import com.teleport.smartload.service.RequestFingerprint;
+import com.teleport.smartload.service.SolverAdmission;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
 
 @RestController
 @RequestMapping("/api/v1/load-optimizer")
 public class LoadOptimizerController {
 
     private final LoadOptimizerService optimizerService;
+    private final SolverAdmission admission;
+    private final Duration maxSolveTime;
 
-    public LoadOptimizerController(LoadOptimizerService optimizerService) {
+    public LoadOptimizerController(LoadOptimizerService optimizerService, SolverAdmission admission,
+            SolverProperties properties) {
         this.optimizerService = optimizerService;
+        this.admission = admission;
+        this.maxSolveTime = properties.getMaxSolveTime();
+    }
+
+    /**
+     * What an optimize response depends on. The fingerprint leaves out the truck
+     * ID and the search options, so they're added: a coalesced call gets the very
+     * same response.
+     */
+    private record InFlightKey(RequestFingerprint fingerprint, String truckId, Long timeBudgetMs, Integer topK) {
+
+        static InFlightKey of(OptimizeRequest request) {
+            return new InFlightKey(RequestFingerprint.of(request), request.getTruck().getId(),
+                    request.getTimeBudgetMs(), request.getTopK());
+        }
     }
 
+    // solving runs on the solver pool, a full pool answers 429 (see GlobalExceptionHandler)
+    // and a solve past the time limit 503 (see DeferredSolve);
+    // retries of a request still solving share its result (see SolverAdmission);
+    // the body is validated while it is read (see OptimizeRequestConverter)
     @PostMapping("/optimize")
-    public ResponseEntity<OptimizeResponse> optimize(@Valid @RequestBody OptimizeRequest request) {
-        OptimizeResponse response = optimizerService.optimize(request);
-        return ResponseEntity.ok(response);
+    public DeferredResult<ResponseEntity<OptimizeResponse>> optimize(@RequestBody OptimizeRequest request) {
+        return DeferredSolve.respond(
+                admission.submit(InFlightKey.of(request), () -> optimizerService.optimize(request)), maxSolveTime);
+    }
+
+    @PostMapping("/optimize/fleet")
+    public DeferredResult<ResponseEntity<FleetOptimizeResponse>> optimizeFleet(
+            @Valid @RequestBody FleetOptimizeRequest request) {
+        return DeferredSolve.respond(
+                admission.submit(null, () -> optimizerService.optimizeFleet(request)), maxSolveTime);
+    }
+
+    @PostMapping("/optimize/large-pool")
+    public DeferredResult<ResponseEntity<OptimizeResponse>> optimizeLargePool(
+            @Valid @RequestBody LargePoolOptimizeRequest request) {
+        return DeferredSolve.respond(
+                admission.submit(null, () -> optimizerService.optimizeLargePool(request)), maxSolveTime);
     }
 }
@@ -0,0 +1,424 @@
+package com.teleport.smartload.controller;
+
+import com.teleport.smartload.dto.OptimizeRequest;
+import com.teleport.smartload.model.Order;
+import com.teleport.smartload.model.Truck;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.json.JacksonJsonHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads {@link OptimizeRequest} bodies straight off the parser tokens, skipping
+ * databind's bean introspection and the {@code LocalDate} deserializer, and
+ * checks the bean constraints in the same pass instead of running the
+ * reflective validator afterwards.
+ * <p>
+ * Only the plain shape is handled here: known fields, exact token types,
+ * {@code yyyy-MM-dd} dates, every primitive field present and no duplicate
+ * keys. Anything else, malformed JSON included, is handed to the regular
+ * Jackson converter and then validated, so the outcome is the same as without
+ * this converter. A body that breaks a constraint is re-checked by the
+ * {@link Validator}, which builds the violations {@code GlobalExceptionHandler}
+ * reports.
+ */
+@Component
+public class OptimizeRequestConverter extends AbstractHttpMessageConverter<OptimizeRequest> {
+
+    private static final ResolvableType TYPE = ResolvableType.forClass(OptimizeRequest.class);
+
+    private final JacksonJsonHttpMessageConverter fallback;
+    private final JsonMapper jsonMapper;
+    private final Validator validator;
+
+    public OptimizeRequestConverter(JsonMapper jsonMapper, Validator validator) {
+        super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+        this.fallback = new JacksonJsonHttpMessageConverter(jsonMapper);
+        this.jsonMapper = jsonMapper;
+        this.validator = validator;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return OptimizeRequest.class == clazz;
+    }
+
+    // requests are only ever read, responses go through the Jackson converter
+    @Override
+    protected boolean canWrite(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected OptimizeRequest readInternal(Class<? extends OptimizeRequest> clazz, HttpInputMessage inputMessage)
+            throws IOException {
+        byte[] body = inputMessage.getBody().readAllBytes();
+        OptimizeRequest request = null;
+        if (isUtf8(inputMessage.getHeaders().getContentType())) {
+            request = parse(body);
+        }
+        if (request == null) {
+            request = (OptimizeRequest) fallback.read(TYPE, new Replay(inputMessage.getHeaders(), body), null);
+            validate(request, validator.validate(request));
+        }
+        return request;
+    }
+
+    @Override
+    protected void writeInternal(OptimizeRequest request, HttpOutputMessage outputMessage) {
+        throw new UnsupportedOperationException();
+    }
+
+    private static boolean isUtf8(MediaType contentType) {
+        Charset charset = contentType == null ? null : contentType.getCharset();
+        return charset == null || StandardCharsets.UTF_8.equals(charset);
+    }
+
+    private static void validate(OptimizeRequest request, Set<ConstraintViolation<OptimizeRequest>> violations) {
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+    }
+
+    /**
+     * The validated request, or null when the body needs the regular converter
+     */
+    OptimizeRequest parse(byte[] body) {
+        Reader reader;
+        try (JsonParser parser = jsonMapper.createParser(body)) {
+            reader = new Reader(parser);
+            if (!reader.readRequest() || parser.nextToken() != null) {
+                return null;
+            }
+        } catch (JacksonException | DateTimeException e) {
+            return null;
+        }
+
+        OptimizeRequest request = reader.request;
+        if (!reader.valid) {
+            validate(request, validator.validate(request));
+        } else if (request.getOrders().size() > OptimizeRequest.MAX_ORDERS_PER_CLASS) {
+            // the per-class limit needs the rule's classes, too rare to be worth inlining
+            validate(request, validator.validateProperty(request, "orders"));
+        }
+        return request;
+    }
+
+    /**
+     * One pass over the tokens. Every read method returns false as soon as the
+     * body leaves the shape handled here, {@link #valid} turns false on the first
+     * broken constraint.
+     */
+    private static final class Reader {
+        // databind refuses a missing primitive rather than defaulting it, so those are its call
+        private static final int PRIMITIVE_TRUCK_FIELDS = 2 | 4;
+        private static final int PRIMITIVE_ORDER_FIELDS = 2 | 4 | 8 | 256;
+
+        private final JsonParser parser;
+        final OptimizeRequest request = new OptimizeRequest();
+        boolean valid = true;
+
+        Reader(JsonParser parser) {
+            this.parser = parser;
+        }
+
+        boolean readRequest() {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return false;
+            }
+            int seen = 0;
+            for (String name = parser.nextName(); name != null; name = parser.nextName()) {
+                int field = switch (name) {
+                    case "truck" -> 1;
+                    case "orders" -> 2;
+                    case "time_budget_ms" -> 4;
+                    case "top_k" -> 8;
+                    default -> 0;
+                };
+                if (field == 0 || (seen & field) != 0) {
+                    return false;
+                }
+                seen |= field;
+                JsonToken token = parser.nextToken();
+                boolean read = switch (field) {
+                    case 1 -> readTruck(token);
+                    case 2 -> readOrders(token);
+                    case 4 -> readTimeBudget(token);
+                    default -> readTopK(token);
+                };
+                if (!read) {
+                    return false;
+                }
+            }
+            check(request.getTruck() != null && request.getOrders() != null);
+            return true;
+        }
+
+        private boolean readTruck(JsonToken token) {
+            if (token == JsonToken.VALUE_NULL) {
+                return true;
+            }
+            if (token != JsonToken.START_OBJECT) {
+                return false;
+            }
+            Truck truck = new Truck();
+            int seen = 0;
+            for (String name = parser.nextName(); name != null; name = parser.nextName()) {
+                JsonToken value = parser.nextToken();
+                switch (name) {
+                    case "id" -> {
+                        if ((seen & 1) != 0 || !isString(value)) {
+                            return false;
+                        }
+                        truck.setId(parser.getString());
+                        seen |= 1;
+                    }
+                    case "max_weight_lbs" -> {
+                        if ((seen & 2) != 0 || !isInt(value)) {
+                            return false;
+                        }
+                        truck.setMaxWeightLbs(parser.getIntValue());
+                        seen |= 2;
+                    }
+                    case "max_volume_cuft" -> {
+                        if ((seen & 4) != 0 || !isInt(value)) {
+                            return false;
+                        }
+                        truck.setMaxVolumeCuft(parser.getIntValue());
+                        seen |= 4;
+                    }
+                    default -> {
+                        return false;
+                    }
+                }
+            }
+            if ((seen & PRIMITIVE_TRUCK_FIELDS) != PRIMITIVE_TRUCK_FIELDS) {
+                return false;
+            }
+            check(!isBlank(truck.getId()) && truck.getMaxWeightLbs() > 0 && truck.getMaxVolumeCuft() > 0);
+            request.setTruck(truck);
+            return true;
+        }
+
+        private boolean readOrders(JsonToken token) {
+            if (token == JsonToken.VALUE_NULL) {
+                return true;
+            }
+            if (token != JsonToken.START_ARRAY) {
+                return false;
+            }
+            List<Order> orders = new ArrayList<>();
+            for (token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                Order order = token == JsonToken.START_OBJECT ? readOrder() : null;
+                if (order == null) {
+                    return false;
+                }
+                orders.add(order);
+            }
+            request.setOrders(orders);
+            return true;
+        }
+
+        private Order readOrder() {
+            Order order = new Order();
+            int seen = 0;
+            for (String name = parser.nextName(); name != null; name = parser.nextName()) {
+                JsonToken value = parser.nextToken();
+                int field;
+                switch (name) {
+                    case "id" -> {
+                        field = 1;
+                        if (!isString(value)) {
+                            return null;
+                        }
+                        order.setId(parser.getString());
+                    }
+                    case "payout_cents" -> {
+                        field = 2;
+                        if (!isLong(value)) {
+                            return null;
+                        }
+                        order.setPayoutCents(parser.getLongValue());
+                    }
+                    case "weight_lbs" -> {
+                        field = 4;
+                        if (!isInt(value)) {
+                            return null;
+                        }
+                        order.setWeightLbs(parser.getIntValue());
+                    }
+                    case "volume_cuft" -> {
+                        field = 8;
+                        if (!isInt(value)) {
+                            return null;
+                        }
+                        order.setVolumeCuft(parser.getIntValue());
+                    }
+                    case "origin" -> {
+                        field = 16;
+                        if (!isString(value)) {
+                            return null;
+                        }
+                        order.setOrigin(parser.getString());
+                    }
+                    case "destination" -> {
+                        field = 32;
+                        if (!isString(value)) {
+                            return null;
+                        }
+                        order.setDestination(parser.getString());
+                    }
+                    case "pickup_date" -> {
+                        field = 64;
+                        if (!isDate(value)) {
+                            return null;
+                        }
+                        order.setPickupDate(readDate());
+                    }
+                    case "delivery_date" -> {
+                        field = 128;
+                        if (!isDate(value)) {
+                            return null;
+                        }
+                        order.setDeliveryDate(readDate());
+                    }
+                    case "is_hazmat" -> {
+                        field = 256;
+                        if (value != JsonToken.VALUE_TRUE && value != JsonToken.VALUE_FALSE) {
+                            return null;
+                        }
+                        order.setHazmat(value == JsonToken.VALUE_TRUE);
+                    }
+                    default -> {
+                        return null;
+                    }
+                }
+                if ((seen & field) != 0) {
+                    return null;
+                }
+                seen |= field;
+            }
+            if ((seen & PRIMITIVE_ORDER_FIELDS) != PRIMITIVE_ORDER_FIELDS) {
+                return null;
+            }
+            check(!isBlank(order.getId()) && order.getPayoutCents() >= 0
+                    && order.getWeightLbs() > 0 && order.getVolumeCuft() > 0
+                    && !isBlank(order.getOrigin()) && !isBlank(order.getDestination())
+                    && order.getPickupDate() != null && order.getDeliveryDate() != null);
+            return order;
+        }
+
+        private boolean readTimeBudget(JsonToken token) {
+            if (token == JsonToken.VALUE_NULL) {
+                return true;
+            }
+            if (!isLong(token)) {
+                return false;
+            }
+            request.setTimeBudgetMs(parser.getLongValue());
+            check(request.getTimeBudgetMs() > 0);
+            return true;
+        }
+
+        private boolean readTopK(JsonToken token) {
+            if (token == JsonToken.VALUE_NULL) {
+                return true;
+            }
+            if (!isInt(token)) {
+                return false;
+            }
+            request.setTopK(parser.getIntValue());
+            check(request.getTopK() >= 1 && request.getTopK() <= OptimizeRequest.MAX_TOP_K);
+            return true;
+        }
+
+        private boolean isString(JsonToken token) {
+            return token == JsonToken.VALUE_STRING || token == JsonToken.VALUE_NULL;
+        }
+
+        private boolean isInt(JsonToken token) {
+            return token == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() == JsonParser.NumberType.INT;
+        }
+
+        private boolean isLong(JsonToken token) {
+            return token == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() != JsonParser.NumberType.BIG_INTEGER;
+        }
+
+        // other date spellings the LocalDate deserializer accepts are left to it
+        private boolean isDate(JsonToken token) {
+            return token == JsonToken.VALUE_NULL
+                    || token == JsonToken.VALUE_STRING && parser.getStringLength() == 10;
+        }
+
+        /**
+         * {@code yyyy-MM-dd} without a formatter, throws for anything else
+         */
+        private LocalDate readDate() {
+            if (parser.currentToken() == JsonToken.VALUE_NULL) {
+                return null;
+            }
+            char[] text = parser.getStringCharacters();
+            int at = parser.getStringOffset();
+            if (text[at + 4] != '-' || text[at + 7] != '-') {
+                throw new DateTimeException("Not an ISO date");
+            }
+            return LocalDate.of(digits(text, at, 4), digits(text, at + 5, 2), digits(text, at + 8, 2));
+        }
+
+        private static int digits(char[] text, int from, int count) {
+            int value = 0;
+            for (int i = from; i < from + count; i++) {
+                int digit = text[i] - '0';
+                if (digit < 0 || digit > 9) {
+                    throw new DateTimeException("Not an ISO date");
+                }
+                value = value * 10 + digit;
+            }
+            return value;
+        }
+
+        // same test as @NotBlank
+        private static boolean isBlank(String value) {
+            return value == null || value.trim().isEmpty();
+        }
+
+        private void check(boolean ok) {
+            valid &= ok;
+        }
+    }
+
+    private record Replay(HttpHeaders headers, byte[] body) implements HttpInputMessage {
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
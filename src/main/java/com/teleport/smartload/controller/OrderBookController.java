@@ -0,0 +1,64 @@
+package com.teleport.smartload.controller;
+
+import com.teleport.smartload.config.SolverProperties;
+import com.teleport.smartload.dto.OptimizeResponse;
+import com.teleport.smartload.dto.OrderBookResponse;
+import com.teleport.smartload.dto.OrderBookUpsertRequest;
+import com.teleport.smartload.dto.TruckOptimizeRequest;
+import com.teleport.smartload.service.OrderBookService;
+import com.teleport.smartload.service.SolverAdmission;
+import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/v1/load-optimizer")
+public class OrderBookController {
+
+    private final OrderBookService orderBook;
+    private final SolverAdmission admission;
+    private final Duration maxSolveTime;
+
+    public OrderBookController(OrderBookService orderBook, SolverAdmission admission, SolverProperties properties) {
+        this.orderBook = orderBook;
+        this.admission = admission;
+        this.maxSolveTime = properties.getMaxSolveTime();
+    }
+
+    @PutMapping("/orders")
+    public ResponseEntity<OrderBookResponse> upsert(@Valid @RequestBody OrderBookUpsertRequest request) {
+        return ResponseEntity.ok(orderBook.upsert(request));
+    }
+
+    @DeleteMapping("/orders/{orderId}")
+    public ResponseEntity<Void> remove(@PathVariable String orderId) {
+        orderBook.remove(orderId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/orders/expire")
+    public ResponseEntity<OrderBookResponse> expire(
+            @RequestParam("pickup_before") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate pickupBefore) {
+        return ResponseEntity.ok(orderBook.expire(pickupBefore));
+    }
+
+    // candidates come from the board, the solve itself is admitted, timed out and
+    // cancelled like any optimize; not coalesced, the board may change in between
+    @PostMapping("/optimize/by-truck")
+    public DeferredResult<ResponseEntity<OptimizeResponse>> optimizeTruck(
+            @Valid @RequestBody TruckOptimizeRequest request) {
+        return DeferredSolve.respond(admission.submit(null, () -> orderBook.optimizeTruck(request)), maxSolveTime);
+    }
+}
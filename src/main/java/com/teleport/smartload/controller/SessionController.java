@@ -0,0 +1,67 @@
+package com.teleport.smartload.controller;
+
+import com.teleport.smartload.config.SolverProperties;
+import com.teleport.smartload.dto.OptimizeRequest;
+import com.teleport.smartload.dto.SessionResponse;
+import com.teleport.smartload.dto.SessionUpdateRequest;
+import com.teleport.smartload.service.OptimizationSessionService;
+import com.teleport.smartload.service.SolverAdmission;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/api/v1/load-optimizer/sessions")
+public class SessionController {
+
+    private final OptimizationSessionService sessionService;
+    private final SolverAdmission admission;
+    private final Duration maxSolveTime;
+
+    public SessionController(OptimizationSessionService sessionService, SolverAdmission admission,
+            SolverProperties properties) {
+        this.sessionService = sessionService;
+        this.admission = admission;
+        this.maxSolveTime = properties.getMaxSolveTime();
+    }
+
+    // validated while it is read (see OptimizeRequestConverter); every create is a
+    // new session, so nothing is coalesced here
+    @PostMapping
+    public DeferredResult<ResponseEntity<SessionResponse>> create(@RequestBody OptimizeRequest request) {
+        return DeferredSolve.respond(admission.submit(null, () -> sessionService.create(request)), maxSolveTime,
+                response -> ResponseEntity.status(HttpStatus.CREATED).body(response));
+    }
+
+    @GetMapping("/{sessionId}")
+    public ResponseEntity<SessionResponse> get(@PathVariable String sessionId) {
+        return ResponseEntity.ok(sessionService.get(sessionId));
+    }
+
+    // re-solves on the solver pool like a fresh optimize, only with a warm start; a
+    // cancelled re-solve keeps the best load it found, reported with its gap; a
+    // change sent while the last one is still solving answers 409
+    @PatchMapping("/{sessionId}")
+    public DeferredResult<ResponseEntity<SessionResponse>> update(@PathVariable String sessionId,
+            @Valid @RequestBody SessionUpdateRequest update) {
+        return DeferredSolve.respond(
+                sessionService.update(sessionId, update, task -> admission.submit(null, task)), maxSolveTime);
+    }
+
+    @DeleteMapping("/{sessionId}")
+    public ResponseEntity<Void> delete(@PathVariable String sessionId) {
+        sessionService.delete(sessionId);
+        return ResponseEntity.noContent().build();
+    }
+}
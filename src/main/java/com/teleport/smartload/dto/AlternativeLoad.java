@@ -0,0 +1,65 @@
+package com.teleport.smartload.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+
+/**
+ * One of the best loads for a truck, see {@code top_k} on the optimize request
+ */
+public class AlternativeLoad {
+
+    @JsonProperty("selected_order_ids")
+    private List<String> selectedOrderIds;
+
+    @JsonProperty("total_payout_cents")
+    private long totalPayoutCents;
+
+    @JsonProperty("total_weight_lbs")
+    private int totalWeightLbs;
+
+    @JsonProperty("total_volume_cuft")
+    private int totalVolumeCuft;
+
+    public AlternativeLoad() {
+    }
+
+    public AlternativeLoad(List<String> selectedOrderIds, long totalPayoutCents, int totalWeightLbs,
+            int totalVolumeCuft) {
+        this.selectedOrderIds = selectedOrderIds;
+        this.totalPayoutCents = totalPayoutCents;
+        this.totalWeightLbs = totalWeightLbs;
+        this.totalVolumeCuft = totalVolumeCuft;
+    }
+
+    public List<String> getSelectedOrderIds() {
+        return selectedOrderIds;
+    }
+
+    public void setSelectedOrderIds(List<String> selectedOrderIds) {
+        this.selectedOrderIds = selectedOrderIds;
+    }
+
+    public long getTotalPayoutCents() {
+        return totalPayoutCents;
+    }
+
+    public void setTotalPayoutCents(long totalPayoutCents) {
+        this.totalPayoutCents = totalPayoutCents;
+    }
+
+    public int getTotalWeightLbs() {
+        return totalWeightLbs;
+    }
+
+    public void setTotalWeightLbs(int totalWeightLbs) {
+        this.totalWeightLbs = totalWeightLbs;
+    }
+
+    public int getTotalVolumeCuft() {
+        return totalVolumeCuft;
+    }
+
+    public void setTotalVolumeCuft(int totalVolumeCuft) {
+        this.totalVolumeCuft = totalVolumeCuft;
+    }
+}
@@ -0,0 +1,126 @@
+package com.teleport.smartload.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.Map;
+
+/**
+ * Outcome of one request in a batch. Successful items carry the optimizer
+ * response, failed ones the same error fields the single endpoint would return.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResponse {
+
+    @JsonProperty("index")
+    private int index;
+
+    @JsonProperty("status")
+    private int status;
+
+    @JsonProperty("result")
+    private OptimizeResponse result;
+
+    @JsonProperty("error")
+    private String error;
+
+    @JsonProperty("message")
+    private String message;
+
+    @JsonProperty("details")
+    private Map<String, String> details;
+
+    public BatchItemResponse() {
+    }
+
+    public static BatchItemResponse success(int index, OptimizeResponse result) {
+        BatchItemResponse item = new BatchItemResponse();
+        item.index = index;
+        item.status = 200;
+        item.result = result;
+        return item;
+    }
+
+    public static BatchItemResponse invalid(int index, Map<String, String> details) {
+        BatchItemResponse item = new BatchItemResponse();
+        item.index = index;
+        item.status = 400;
+        item.error = "Validation failed";
+        item.details = details;
+        return item;
+    }
+
+    public static BatchItemResponse failed(int index, String message) {
+        BatchItemResponse item = new BatchItemResponse();
+        item.index = index;
+        item.status = 500;
+        item.error = "Internal server error";
+        item.message = message;
+        return item;
+    }
+
+    public static BatchItemResponse rejected(int index, String message) {
+        BatchItemResponse item = new BatchItemResponse();
+        item.index = index;
+        item.status = 429;
+        item.error = "Too many requests";
+        item.message = message;
+        return item;
+    }
+
+    public static BatchItemResponse cancelled(int index, String message) {
+        BatchItemResponse item = new BatchItemResponse();
+        item.index = index;
+        item.status = 503;
+        item.error = "Service unavailable";
+        item.message = message;
+        return item;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public OptimizeResponse getResult() {
+        return result;
+    }
+
+    public void setResult(OptimizeResponse result) {
+        this.result = result;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public Map<String, String> getDetails() {
+        return details;
+    }
+
+    public void setDetails(Map<String, String> details) {
+        this.details = details;
+    }
+}
@@ -0,0 +1,45 @@
+package com.teleport.smartload.dto;
+
+import com.teleport.smartload.model.Order;
+import com.teleport.smartload.model.Truck;
+import com.teleport.smartload.validation.MaxOrdersPerClass;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+
+public class FleetOptimizeRequest {
+
+    @NotEmpty(message = "At least one truck is required")
+    @Valid
+    private List<Truck> trucks;
+
+    @NotNull(message = "Orders list is required")
+    @MaxOrdersPerClass(value = 45, message = "Maximum 45 orders allowed per lane and hazmat class")
+    @Valid
+    private List<Order> orders;
+
+    public FleetOptimizeRequest() {
+    }
+
+    public FleetOptimizeRequest(List<Truck> trucks, List<Order> orders) {
+        this.trucks = trucks;
+        this.orders = orders;
+    }
+
+    public List<Truck> getTrucks() {
+        return trucks;
+    }
+
+    public void setTrucks(List<Truck> trucks) {
+        this.trucks = trucks;
+    }
+
+    public List<Order> getOrders() {
+        return orders;
+    }
+
+    public void setOrders(List<Order> orders) {
+        this.orders = orders;
+    }
+}
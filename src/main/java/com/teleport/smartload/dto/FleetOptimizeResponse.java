@@ -0,0 +1,50 @@
+package com.teleport.smartload.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+
+public class FleetOptimizeResponse {
+
+    @JsonProperty("assignments")
+    private List<OptimizeResponse> assignments;
+
+    @JsonProperty("total_payout_cents")
+    private long totalPayoutCents;
+
+    @JsonProperty("unassigned_order_ids")
+    private List<String> unassignedOrderIds;
+
+    public FleetOptimizeResponse() {
+    }
+
+    public FleetOptimizeResponse(List<OptimizeResponse> assignments, long totalPayoutCents,
+            List<String> unassignedOrderIds) {
+        this.assignments = assignments;
+        this.totalPayoutCents = totalPayoutCents;
+        this.unassignedOrderIds = unassignedOrderIds;
+    }
+
+    public List<OptimizeResponse> getAssignments() {
+        return assignments;
+    }
+
+    public void setAssignments(List<OptimizeResponse> assignments) {
+        this.assignments = assignments;
+    }
+
+    public long getTotalPayoutCents() {
+        return totalPayoutCents;
+    }
+
+    public void setTotalPayoutCents(long totalPayoutCents) {
+        this.totalPayoutCents = totalPayoutCents;
+    }
+
+    public List<String> getUnassignedOrderIds() {
+        return unassignedOrderIds;
+    }
+
+    public void setUnassignedOrderIds(List<String> unassignedOrderIds) {
+        this.unassignedOrderIds = unassignedOrderIds;
+    }
+}
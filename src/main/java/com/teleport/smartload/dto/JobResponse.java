@@ -0,0 +1,111 @@
+package com.teleport.smartload.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.time.Instant;
+
+/**
+ * A job's state. Finished jobs carry the result of the request they ran, the
+ * fleet result for fleet jobs, or the error message when it failed.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class JobResponse {
+
+    @JsonProperty("job_id")
+    private String jobId;
+
+    @JsonProperty("status")
+    private JobStatus status;
+
+    @JsonProperty("priority")
+    private int priority;
+
+    @JsonProperty("submitted_at")
+    private Instant submittedAt;
+
+    @JsonProperty("finished_at")
+    private Instant finishedAt;
+
+    @JsonProperty("result")
+    private OptimizeResponse result;
+
+    @JsonProperty("fleet_result")
+    private FleetOptimizeResponse fleetResult;
+
+    @JsonProperty("message")
+    private String message;
+
+    public JobResponse() {
+    }
+
+    public JobResponse(String jobId, JobStatus status, int priority, Instant submittedAt) {
+        this.jobId = jobId;
+        this.status = status;
+        this.priority = priority;
+        this.submittedAt = submittedAt;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public JobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(JobStatus status) {
+        this.status = status;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public void setPriority(int priority) {
+        this.priority = priority;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(Instant submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public OptimizeResponse getResult() {
+        return result;
+    }
+
+    public void setResult(OptimizeResponse result) {
+        this.result = result;
+    }
+
+    public FleetOptimizeResponse getFleetResult() {
+        return fleetResult;
+    }
+
+    public void setFleetResult(FleetOptimizeResponse fleetResult) {
+        this.fleetResult = fleetResult;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
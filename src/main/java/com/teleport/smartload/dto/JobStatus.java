@@ -0,0 +1,18 @@
+package com.teleport.smartload.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Where an optimization job is; the last three are final
+ */
+public enum JobStatus {
+    @JsonProperty("queued") QUEUED,
+    @JsonProperty("running") RUNNING,
+    @JsonProperty("succeeded") SUCCEEDED,
+    @JsonProperty("failed") FAILED,
+    @JsonProperty("cancelled") CANCELLED;
+
+    public boolean isFinished() {
+        return this == SUCCEEDED || this == FAILED || this == CANCELLED;
+    }
+}
@@ -0,0 +1,110 @@
+package com.teleport.smartload.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+
+/**
+ * One optimize, fleet or large-pool request to run in the background. Exactly
+ * one of them is set, with the same body its synchronous endpoint takes.
+ */
+public class JobSubmitRequest {
+
+    @Valid
+    @JsonProperty("optimize")
+    private OptimizeRequest optimize;
+
+    @Valid
+    @JsonProperty("fleet")
+    private FleetOptimizeRequest fleet;
+
+    @Valid
+    @JsonProperty("large_pool")
+    private LargePoolOptimizeRequest largePool;
+
+    /**
+     * Optional, 0 to 9; higher runs first, equal priorities in submission order
+     */
+    @Min(value = 0, message = "Priority must be between 0 and 9")
+    @Max(value = 9, message = "Priority must be between 0 and 9")
+    @JsonProperty("priority")
+    private Integer priority;
+
+    /**
+     * Optional URL the finished job is POSTed to
+     */
+    @Pattern(regexp = "https?://\\S+", message = "Callback URL must be an http or https URL")
+    @JsonProperty("callback_url")
+    private String callbackUrl;
+
+    public JobSubmitRequest() {
+    }
+
+    public static JobSubmitRequest of(OptimizeRequest optimize) {
+        JobSubmitRequest request = new JobSubmitRequest();
+        request.optimize = optimize;
+        return request;
+    }
+
+    public static JobSubmitRequest of(FleetOptimizeRequest fleet) {
+        JobSubmitRequest request = new JobSubmitRequest();
+        request.fleet = fleet;
+        return request;
+    }
+
+    public static JobSubmitRequest of(LargePoolOptimizeRequest largePool) {
+        JobSubmitRequest request = new JobSubmitRequest();
+        request.largePool = largePool;
+        return request;
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "Exactly one of optimize, fleet or large_pool is required")
+    public boolean isSingleProblem() {
+        return (optimize != null ? 1 : 0) + (fleet != null ? 1 : 0) + (largePool != null ? 1 : 0) == 1;
+    }
+
+    public OptimizeRequest getOptimize() {
+        return optimize;
+    }
+
+    public void setOptimize(OptimizeRequest optimize) {
+        this.optimize = optimize;
+    }
+
+    public FleetOptimizeRequest getFleet() {
+        return fleet;
+    }
+
+    public void setFleet(FleetOptimizeRequest fleet) {
+        this.fleet = fleet;
+    }
+
+    public LargePoolOptimizeRequest getLargePool() {
+        return largePool;
+    }
+
+    public void setLargePool(LargePoolOptimizeRequest largePool) {
+        this.largePool = largePool;
+    }
+
+    public Integer getPriority() {
+        return priority;
+    }
+
+    public void setPriority(Integer priority) {
+        this.priority = priority;
+    }
+
+    public String getCallbackUrl() {
+        return callbackUrl;
+    }
+
+    public void setCallbackUrl(String callbackUrl) {
+        this.callbackUrl = callbackUrl;
+    }
+}
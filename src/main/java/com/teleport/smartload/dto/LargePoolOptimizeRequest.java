@@ -0,0 +1,65 @@
+package com.teleport.smartload.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.teleport.smartload.model.Order;
+import com.teleport.smartload.model.Truck;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * A whole order board for one truck. There is no per-class limit, big classes
+ * are solved heuristically (see {@code optimizeLargePool}).
+ */
+public class LargePoolOptimizeRequest {
+
+    @NotNull(message = "Truck is required")
+    @Valid
+    private Truck truck;
+
+    @NotNull(message = "Orders list is required")
+    @Size(max = 10_000, message = "Maximum 10000 orders allowed")
+    @Valid
+    private List<Order> orders;
+
+    /**
+     * Optional wall-clock limit; past it the best load found so far is returned
+     */
+    @Positive(message = "Time budget must be positive")
+    @JsonProperty("time_budget_ms")
+    private Long timeBudgetMs;
+
+    public LargePoolOptimizeRequest() {
+    }
+
+    public LargePoolOptimizeRequest(Truck truck, List<Order> orders) {
+        this.truck = truck;
+        this.orders = orders;
+    }
+
+    public Truck getTruck() {
+        return truck;
+    }
+
+    public void setTruck(Truck truck) {
+        this.truck = truck;
+    }
+
+    public List<Order> getOrders() {
+        return orders;
+    }
+
+    public void setOrders(List<Order> orders) {
+        this.orders = orders;
+    }
+
+    public Long getTimeBudgetMs() {
+        return timeBudgetMs;
+    }
+
+    public void setTimeBudgetMs(Long timeBudgetMs) {
+        this.timeBudgetMs = timeBudgetMs;
+    }
+}
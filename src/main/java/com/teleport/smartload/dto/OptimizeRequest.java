@@ -1,23 +1,45 @@
 package com.teleport.smartload.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.teleport.smartload.model.Order;
 import com.teleport.smartload.model.Truck;
+import com.teleport.smartload.validation.MaxOrdersPerClass;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Size;
+import jakarta.validation.constraints.Positive;
 import java.util.List;
 
 public class OptimizeRequest {
 
+    public static final int MAX_ORDERS_PER_CLASS = 45;
+    public static final int MAX_TOP_K = 20;
+
     @NotNull(message = "Truck is required")
     @Valid
     private Truck truck;
 
     @NotNull(message = "Orders list is required")
-    @Size(max = 22, message = "Maximum 22 orders allowed")
+    @MaxOrdersPerClass(value = MAX_ORDERS_PER_CLASS, message = "Maximum 45 orders allowed per lane and hazmat class")
     @Valid
     private List<Order> orders;
 
+    /**
+     * Optional wall-clock limit; past it the best load found so far is returned
+     */
+    @Positive(message = "Time budget must be positive")
+    @JsonProperty("time_budget_ms")
+    private Long timeBudgetMs;
+
+    /**
+     * Optional number of best loads to return as alternatives, best first
+     */
+    @Min(value = 1, message = "top_k must be at least 1")
+    @Max(value = MAX_TOP_K, message = "top_k can be at most 20")
+    @JsonProperty("top_k")
+    private Integer topK;
+
     public OptimizeRequest() {
     }
 
@@ -41,4 +63,20 @@ public class OptimizeRequest {
     public void setOrders(List<Order> orders) {
         this.orders = orders;
     }
+
+    public Long getTimeBudgetMs() {
+        return timeBudgetMs;
+    }
+
+    public void setTimeBudgetMs(Long timeBudgetMs) {
+        this.timeBudgetMs = timeBudgetMs;
+    }
+
+    public Integer getTopK() {
+        return topK;
+    }
+
+    public void setTopK(Integer topK) {
+        this.topK = topK;
+    }
 }
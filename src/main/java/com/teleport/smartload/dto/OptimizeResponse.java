@@ -1,5 +1,6 @@
 package com.teleport.smartload.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.List;
 
@@ -26,6 +27,20 @@ public class OptimizeResponse {
     @JsonProperty("utilization_volume_percent")
     private double utilizationVolumePercent;
 
+    // false when the time budget ran out before the load was proven best
+    private boolean optimal = true;
+
+    @JsonProperty("upper_bound_cents")
+    private long upperBoundCents;
+
+    @JsonProperty("gap_percent")
+    private double gapPercent;
+
+    // only filled in when the request asked for top_k
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonProperty("alternatives")
+    private List<AlternativeLoad> alternatives;
+
     public OptimizeResponse() {
     }
 
@@ -39,6 +54,18 @@ public class OptimizeResponse {
         this.totalVolumeCuft = totalVolumeCuft;
         this.utilizationWeightPercent = utilizationWeightPercent;
         this.utilizationVolumePercent = utilizationVolumePercent;
+        this.upperBoundCents = totalPayoutCents;
+    }
+
+    public OptimizeResponse(String truckId, List<String> selectedOrderIds,
+            long totalPayoutCents, int totalWeightLbs, int totalVolumeCuft,
+            double utilizationWeightPercent, double utilizationVolumePercent,
+            boolean optimal, long upperBoundCents, double gapPercent) {
+        this(truckId, selectedOrderIds, totalPayoutCents, totalWeightLbs, totalVolumeCuft,
+                utilizationWeightPercent, utilizationVolumePercent);
+        this.optimal = optimal;
+        this.upperBoundCents = upperBoundCents;
+        this.gapPercent = gapPercent;
     }
 
     public String getTruckId() {
@@ -96,4 +123,36 @@ public class OptimizeResponse {
     public void setUtilizationVolumePercent(double utilizationVolumePercent) {
         this.utilizationVolumePercent = utilizationVolumePercent;
     }
+
+    public boolean isOptimal() {
+        return optimal;
+    }
+
+    public void setOptimal(boolean optimal) {
+        this.optimal = optimal;
+    }
+
+    public long getUpperBoundCents() {
+        return upperBoundCents;
+    }
+
+    public void setUpperBoundCents(long upperBoundCents) {
+        this.upperBoundCents = upperBoundCents;
+    }
+
+    public double getGapPercent() {
+        return gapPercent;
+    }
+
+    public void setGapPercent(double gapPercent) {
+        this.gapPercent = gapPercent;
+    }
+
+    public List<AlternativeLoad> getAlternatives() {
+        return alternatives;
+    }
+
+    public void setAlternatives(List<AlternativeLoad> alternatives) {
+        this.alternatives = alternatives;
+    }
 }
@@ -0,0 +1,39 @@
+package com.teleport.smartload.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * How many orders a board change added or removed and how many the board holds now
+ */
+public class OrderBookResponse {
+
+    @JsonProperty("changed")
+    private int changed;
+
+    @JsonProperty("order_count")
+    private int orderCount;
+
+    public OrderBookResponse() {
+    }
+
+    public OrderBookResponse(int changed, int orderCount) {
+        this.changed = changed;
+        this.orderCount = orderCount;
+    }
+
+    public int getChanged() {
+        return changed;
+    }
+
+    public void setChanged(int changed) {
+        this.changed = changed;
+    }
+
+    public int getOrderCount() {
+        return orderCount;
+    }
+
+    public void setOrderCount(int orderCount) {
+        this.orderCount = orderCount;
+    }
+}
@@ -0,0 +1,33 @@
+package com.teleport.smartload.dto;
+
+import com.teleport.smartload.model.Order;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * Orders posted to the board. An order replaces any order with the same ID.
+ */
+public class OrderBookUpsertRequest {
+
+    @NotNull(message = "Orders list is required")
+    @Size(max = 10_000, message = "Maximum 10000 orders allowed")
+    @Valid
+    private List<Order> orders;
+
+    public OrderBookUpsertRequest() {
+    }
+
+    public OrderBookUpsertRequest(List<Order> orders) {
+        this.orders = orders;
+    }
+
+    public List<Order> getOrders() {
+        return orders;
+    }
+
+    public void setOrders(List<Order> orders) {
+        this.orders = orders;
+    }
+}
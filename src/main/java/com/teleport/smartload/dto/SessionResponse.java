@@ -0,0 +1,51 @@
+package com.teleport.smartload.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * A session's current pool size and the load optimized for it
+ */
+public class SessionResponse {
+
+    @JsonProperty("session_id")
+    private String sessionId;
+
+    @JsonProperty("order_count")
+    private int orderCount;
+
+    @JsonProperty("result")
+    private OptimizeResponse result;
+
+    public SessionResponse() {
+    }
+
+    public SessionResponse(String sessionId, int orderCount, OptimizeResponse result) {
+        this.sessionId = sessionId;
+        this.orderCount = orderCount;
+        this.result = result;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public void setSessionId(String sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    public int getOrderCount() {
+        return orderCount;
+    }
+
+    public void setOrderCount(int orderCount) {
+        this.orderCount = orderCount;
+    }
+
+    public OptimizeResponse getResult() {
+        return result;
+    }
+
+    public void setResult(OptimizeResponse result) {
+        this.result = result;
+    }
+}
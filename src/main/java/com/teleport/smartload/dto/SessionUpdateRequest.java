@@ -0,0 +1,57 @@
+package com.teleport.smartload.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.teleport.smartload.model.Order;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import java.util.List;
+
+/**
+ * Orders posted to or cancelled from a session's pool. Removals are applied
+ * first, and an added order replaces any order with the same ID.
+ */
+public class SessionUpdateRequest {
+
+    @Valid
+    @JsonProperty("add_orders")
+    private List<Order> addOrders;
+
+    @JsonProperty("remove_order_ids")
+    private List<String> removeOrderIds;
+
+    @Positive(message = "Time budget must be positive")
+    @JsonProperty("time_budget_ms")
+    private Long timeBudgetMs;
+
+    public SessionUpdateRequest() {
+    }
+
+    public SessionUpdateRequest(List<Order> addOrders, List<String> removeOrderIds) {
+        this.addOrders = addOrders;
+        this.removeOrderIds = removeOrderIds;
+    }
+
+    public List<Order> getAddOrders() {
+        return addOrders;
+    }
+
+    public void setAddOrders(List<Order> addOrders) {
+        this.addOrders = addOrders;
+    }
+
+    public List<String> getRemoveOrderIds() {
+        return removeOrderIds;
+    }
+
+    public void setRemoveOrderIds(List<String> removeOrderIds) {
+        this.removeOrderIds = removeOrderIds;
+    }
+
+    public Long getTimeBudgetMs() {
+        return timeBudgetMs;
+    }
+
+    public void setTimeBudgetMs(Long timeBudgetMs) {
+        this.timeBudgetMs = timeBudgetMs;
+    }
+}
@@ -0,0 +1,132 @@
+package com.teleport.smartload.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.teleport.smartload.model.Truck;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.time.LocalDate;
+
+/**
+ * A truck on one lane, optimized against the orders already on the board
+ * instead of orders sent along
+ */
+public class TruckOptimizeRequest {
+
+    @NotNull(message = "Truck is required")
+    @Valid
+    private Truck truck;
+
+    @NotBlank(message = "Origin is required")
+    private String origin;
+
+    @NotBlank(message = "Destination is required")
+    private String destination;
+
+    /**
+     * Only orders with this hazmat flag; both when absent
+     */
+    @JsonProperty("is_hazmat")
+    private Boolean hazmat;
+
+    /**
+     * Optional first pickup day to consider, inclusive
+     */
+    @JsonProperty("pickup_from")
+    private LocalDate pickupFrom;
+
+    /**
+     * Optional last pickup day to consider, inclusive
+     */
+    @JsonProperty("pickup_to")
+    private LocalDate pickupTo;
+
+    @Positive(message = "Time budget must be positive")
+    @JsonProperty("time_budget_ms")
+    private Long timeBudgetMs;
+
+    /**
+     * Optional number of best loads to return as alternatives, for lanes
+     * within the per-class limit of {@link OptimizeRequest}
+     */
+    @Min(value = 1, message = "top_k must be at least 1")
+    @Max(value = OptimizeRequest.MAX_TOP_K, message = "top_k can be at most 20")
+    @JsonProperty("top_k")
+    private Integer topK;
+
+    public TruckOptimizeRequest() {
+    }
+
+    public TruckOptimizeRequest(Truck truck, String origin, String destination) {
+        this.truck = truck;
+        this.origin = origin;
+        this.destination = destination;
+    }
+
+    public Truck getTruck() {
+        return truck;
+    }
+
+    public void setTruck(Truck truck) {
+        this.truck = truck;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public void setOrigin(String origin) {
+        this.origin = origin;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    public void setDestination(String destination) {
+        this.destination = destination;
+    }
+
+    public Boolean getHazmat() {
+        return hazmat;
+    }
+
+    public void setHazmat(Boolean hazmat) {
+        this.hazmat = hazmat;
+    }
+
+    public LocalDate getPickupFrom() {
+        return pickupFrom;
+    }
+
+    public void setPickupFrom(LocalDate pickupFrom) {
+        this.pickupFrom = pickupFrom;
+    }
+
+    public LocalDate getPickupTo() {
+        return pickupTo;
+    }
+
+    public void setPickupTo(LocalDate pickupTo) {
+        this.pickupTo = pickupTo;
+    }
+
+    public Long getTimeBudgetMs() {
+        return timeBudgetMs;
+    }
+
+    public void setTimeBudgetMs(Long timeBudgetMs) {
+        this.timeBudgetMs = timeBudgetMs;
+    }
+
+    public Integer getTopK() {
+        return topK;
+    }
+
+    public void setTopK(Integer topK) {
+        this.topK = topK;
+    }
+}
@@ -0,0 +1,11 @@
+package com.teleport.smartload.exception;
+
+/**
+ * A job's callback URL names a host outside {@code smartload.jobs.callback-allowed-hosts}
+ */
+public class CallbackNotAllowedException extends RuntimeException {
+
+    public CallbackNotAllowedException(String url) {
+        super("Callback URL " + url + " is not on an allowed host");
+    }
+}
@@ -0,0 +1,12 @@
+package com.teleport.smartload.exception;
+
+/**
+ * The compatibility rule put more orders in one class than exact search can
+ * hold. Validation normally refuses far smaller classes first.
+ */
+public class ClassTooLargeException extends RuntimeException {
+
+    public ClassTooLargeException(int size, int max) {
+        super("A compatibility class has " + size + " orders, exact search takes at most " + max);
+    }
+}
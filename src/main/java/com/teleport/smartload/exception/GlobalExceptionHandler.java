@@ -1,5 +1,8 @@
 package com.teleport.smartload.exception;
 
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -26,6 +29,85 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
     }
 
+    // constraints checked outside argument binding: /optimize bodies read by the
+    // request converter, and whole-pool rules after a session change is applied
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<Map<String, Object>> handleConstraintViolations(ConstraintViolationException ex) {
+        Map<String, Object> errors = new HashMap<>();
+        errors.put("error", "Validation failed");
+        errors.put("status", 400);
+
+        Map<String, String> fieldErrors = new HashMap<>();
+        for (ConstraintViolation<?> violation : ex.getConstraintViolations()) {
+            fieldErrors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        errors.put("details", fieldErrors);
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
+    }
+
+    @ExceptionHandler(CallbackNotAllowedException.class)
+    public ResponseEntity<Map<String, Object>> handleCallbackNotAllowed(CallbackNotAllowedException ex) {
+        Map<String, Object> errors = new HashMap<>();
+        errors.put("error", "Validation failed");
+        errors.put("status", 400);
+        errors.put("details", Map.of("callback_url", ex.getMessage()));
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
+    }
+
+    @ExceptionHandler(ClassTooLargeException.class)
+    public ResponseEntity<Map<String, Object>> handleClassTooLarge(ClassTooLargeException ex) {
+        Map<String, Object> errors = new HashMap<>();
+        errors.put("error", "Validation failed");
+        errors.put("status", 400);
+        errors.put("details", Map.of("orders", ex.getMessage()));
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
+    }
+
+    @ExceptionHandler({SessionNotFoundException.class, OrderNotFoundException.class, JobNotFoundException.class})
+    public ResponseEntity<Map<String, Object>> handleNotFound(RuntimeException ex) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("error", "Not found");
+        error.put("status", 404);
+        error.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+
+    @ExceptionHandler(SessionBusyException.class)
+    public ResponseEntity<Map<String, Object>> handleSessionBusy(SessionBusyException ex) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("error", "Conflict");
+        error.put("status", 409);
+        error.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    @ExceptionHandler(SolverOverloadedException.class)
+    public ResponseEntity<Map<String, Object>> handleOverloaded(SolverOverloadedException ex) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("error", "Too many requests");
+        error.put("status", 429);
+        error.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(error);
+    }
+
+    @ExceptionHandler(SolveTimeoutException.class)
+    public ResponseEntity<Map<String, Object>> handleSolveTimeout(SolveTimeoutException ex) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("error", "Service unavailable");
+        error.put("status", 503);
+        error.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleGenericError(Exception ex) {
         Map<String, Object> error = new HashMap<>();
@@ -0,0 +1,11 @@
+package com.teleport.smartload.exception;
+
+/**
+ * No job with this ID, it never existed or its result was dropped after the retention period
+ */
+public class JobNotFoundException extends RuntimeException {
+
+    public JobNotFoundException(String jobId) {
+        super("Job " + jobId + " not found");
+    }
+}
@@ -0,0 +1,11 @@
+package com.teleport.smartload.exception;
+
+/**
+ * No order with this ID on the board, it was never posted or already expired
+ */
+public class OrderNotFoundException extends RuntimeException {
+
+    public OrderNotFoundException(String orderId) {
+        super("Order " + orderId + " not found");
+    }
+}
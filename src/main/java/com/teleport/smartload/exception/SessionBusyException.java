@@ -0,0 +1,11 @@
+package com.teleport.smartload.exception;
+
+/**
+ * The session is still applying an earlier change
+ */
+public class SessionBusyException extends RuntimeException {
+
+    public SessionBusyException(String sessionId) {
+        super("Session " + sessionId + " is still applying an earlier change, retry when it has answered");
+    }
+}
@@ -0,0 +1,11 @@
+package com.teleport.smartload.exception;
+
+/**
+ * No session with this ID, it never existed or was evicted after going idle
+ */
+public class SessionNotFoundException extends RuntimeException {
+
+    public SessionNotFoundException(String sessionId) {
+        super("Session " + sessionId + " not found");
+    }
+}
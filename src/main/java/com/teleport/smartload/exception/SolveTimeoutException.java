@@ -0,0 +1,14 @@
+package com.teleport.smartload.exception;
+
+import java.time.Duration;
+
+/**
+ * A solve ran past the server's limit and was cancelled
+ */
+public class SolveTimeoutException extends RuntimeException {
+
+    public SolveTimeoutException(Duration limit) {
+        super("Solve took longer than " + limit.toMillis() + "ms and was cancelled, "
+                + "set time_budget_ms to get the best load found within a budget");
+    }
+}
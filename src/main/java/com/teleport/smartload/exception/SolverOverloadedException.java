@@ -0,0 +1,18 @@
+package com.teleport.smartload.exception;
+
+/**
+ * Every solver thread is busy and the wait queue is full
+ */
+public class SolverOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public SolverOverloadedException(long retryAfterSeconds) {
+        super("Solver is at capacity, retry in " + retryAfterSeconds + "s");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,229 @@
+package com.teleport.smartload.service;
+
+import com.teleport.smartload.dto.BatchItemResponse;
+import com.teleport.smartload.dto.OptimizeRequest;
+import com.teleport.smartload.solver.CancellationToken;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Solves many independent optimize requests in one call.
+ * Items are validated and solved on the shared solver pool, and each item gets
+ * its own result or error so one bad request doesn't fail the batch. When the
+ * pool is full of the call's own items the next one waits for them, only items
+ * that other callers leave no room for come back as 429, the rest still run.
+ * <p>
+ * NDJSON streams go through the same path one line at a time. At most
+ * {@code maxInFlight} lines are parsed and unwritten at once, so memory stays
+ * flat however long the stream is.
+ * <p>
+ * All items of one call share a {@link CancellationToken}. Once it is cancelled
+ * no more items start, running ones stop at their next budget check, and items
+ * that didn't finish come back as 503.
+ */
+@Service
+public class BatchOptimizeService {
+
+    private static final String REJECTED_MESSAGE = "Solver is at capacity, retry this item later";
+    private static final String CANCELLED_MESSAGE = "The batch was cancelled before this item finished";
+
+    private final LoadOptimizerService optimizerService;
+    private final Validator validator;
+    private final ObjectReader requestReader;
+    private final ObjectWriter resultWriter;
+    private final ThreadPoolExecutor solverExecutor;
+    private final int maxInFlight;
+
+    public BatchOptimizeService(LoadOptimizerService optimizerService, Validator validator, JsonMapper jsonMapper,
+            @Qualifier("solverExecutor") ThreadPoolExecutor solverExecutor) {
+        this.optimizerService = optimizerService;
+        this.validator = validator;
+        this.requestReader = jsonMapper.readerFor(OptimizeRequest.class);
+        this.resultWriter = jsonMapper.writerFor(BatchItemResponse.class);
+        this.solverExecutor = solverExecutor;
+        // keep every worker busy without parking a whole batch in the queue, and
+        // never hold more than the pool and its queue can take at once
+        int threads = solverExecutor.getMaximumPoolSize();
+        long queueCapacity = (long) solverExecutor.getQueue().size() + solverExecutor.getQueue().remainingCapacity();
+        this.maxInFlight = (int) Math.min(2L * threads, threads + queueCapacity);
+    }
+
+    /**
+     * Returns one result per request, in request order
+     */
+    public List<BatchItemResponse> optimizeAll(List<OptimizeRequest> requests) {
+        return optimizeAll(requests, new CancellationToken());
+    }
+
+    /**
+     * Returns one result per request, in request order. Items not started when
+     * {@code token} is cancelled never are.
+     */
+    public List<BatchItemResponse> optimizeAll(List<OptimizeRequest> requests, CancellationToken token) {
+        BatchItemResponse[] results = new BatchItemResponse[requests.size()];
+        Semaphore window = new Semaphore(maxInFlight);
+        List<CompletableFuture<Void>> pending = new ArrayList<>(requests.size());
+
+        for (int i = 0; i < requests.size(); i++) {
+            int index = i;
+            OptimizeRequest request = requests.get(i);
+            window.acquireUninterruptibly();
+            if (token.isCancelled()) {
+                window.release();
+                results[index] = BatchItemResponse.cancelled(index, CANCELLED_MESSAGE);
+                continue;
+            }
+            while (true) {
+                try {
+                    pending.add(CompletableFuture
+                            .runAsync(() -> results[index] = run(index, request, token), solverExecutor)
+                            .whenComplete((ignored, error) -> window.release()));
+                    break;
+                } catch (RejectedExecutionException ex) {
+                    CompletableFuture<?>[] running = pending.stream()
+                            .filter(future -> !future.isDone())
+                            .toArray(CompletableFuture[]::new);
+                    if (running.length == 0) {
+                        window.release();
+                        results[index] = BatchItemResponse.rejected(index, REJECTED_MESSAGE);
+                        break;
+                    }
+                    // the pool is busy with this batch's own items, wait for one instead of refusing
+                    CompletableFuture.anyOf(running).handle((ignored, error) -> null).join();
+                }
+            }
+        }
+        CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).join();
+
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Reads one optimize request per line and writes one result per line, in
+     * input order. A result is written as soon as it and every line before it
+     * are done. Blank lines are skipped and don't get an index.
+     */
+    public void optimizeStream(InputStream input, OutputStream output) throws IOException {
+        optimizeStream(input, output, new CancellationToken());
+    }
+
+    /**
+     * Same as {@link #optimizeStream(InputStream, OutputStream)}, but stops
+     * reading lines once {@code token} is cancelled. A failed read or write
+     * cancels it too, nobody is left to take the rest of the results.
+     */
+    public void optimizeStream(InputStream input, OutputStream output, CancellationToken token) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        Deque<CompletableFuture<BatchItemResponse>> window = new ArrayDeque<>(maxInFlight);
+        int index = 0;
+        String line;
+
+        try {
+            while (!token.isCancelled() && (line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (window.size() == maxInFlight) {
+                    write(window.poll().join(), output);
+                }
+                window.add(submit(index++, line, token, window, output));
+                // flush whatever finished in order, the rest waits for its turn
+                while (!window.isEmpty() && window.peek().isDone()) {
+                    write(window.poll().join(), output);
+                }
+                output.flush();
+            }
+            while (!window.isEmpty()) {
+                write(window.poll().join(), output);
+            }
+            output.flush();
+        } catch (IOException | RuntimeException ex) {
+            token.cancel();
+            throw ex;
+        }
+    }
+
+    /**
+     * Starts one line. When the pool has no room, earlier lines still in the
+     * window are written out first to make some; a line is only refused when
+     * none of this stream's own lines is left to wait for.
+     */
+    private CompletableFuture<BatchItemResponse> submit(int index, String line, CancellationToken token,
+            Deque<CompletableFuture<BatchItemResponse>> window, OutputStream output) throws IOException {
+        OptimizeRequest request;
+        try {
+            request = requestReader.readValue(line);
+        } catch (JacksonException ex) {
+            return CompletableFuture.completedFuture(
+                    BatchItemResponse.invalid(index, Map.of("request", "Malformed JSON")));
+        }
+        while (true) {
+            try {
+                return CompletableFuture.supplyAsync(() -> run(index, request, token), solverExecutor);
+            } catch (RejectedExecutionException ex) {
+                if (window.isEmpty()) {
+                    return CompletableFuture.completedFuture(BatchItemResponse.rejected(index, REJECTED_MESSAGE));
+                }
+                write(window.poll().join(), output);
+            }
+        }
+    }
+
+    private void write(BatchItemResponse result, OutputStream output) throws IOException {
+        output.write(resultWriter.writeValueAsBytes(result));
+        output.write('\n');
+    }
+
+    private BatchItemResponse run(int index, OptimizeRequest request, CancellationToken token) {
+        if (token.isCancelled()) {
+            return BatchItemResponse.cancelled(index, CANCELLED_MESSAGE);
+        }
+        BatchItemResponse result = CancellationToken.callWith(token, () -> solve(index, request));
+        // a solve cut short only has its best load so far, which isn't what was asked for
+        return token.isCancelled() ? BatchItemResponse.cancelled(index, CANCELLED_MESSAGE) : result;
+    }
+
+    private BatchItemResponse solve(int index, OptimizeRequest request) {
+        if (request == null) {
+            return BatchItemResponse.invalid(index, Map.of("request", "Request is required"));
+        }
+
+        Map<String, String> fieldErrors = new HashMap<>();
+        for (ConstraintViolation<OptimizeRequest> violation : validator.validate(request)) {
+            fieldErrors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        if (!fieldErrors.isEmpty()) {
+            return BatchItemResponse.invalid(index, fieldErrors);
+        }
+
+        try {
+            return BatchItemResponse.success(index, optimizerService.optimize(request));
+        } catch (RuntimeException ex) {
+            return BatchItemResponse.failed(index, ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.teleport.smartload.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.teleport.smartload.config.CacheProperties;
+import com.teleport.smartload.dto.FleetOptimizeRequest;
+import com.teleport.smartload.dto.FleetOptimizeResponse;
+import com.teleport.smartload.dto.LargePoolOptimizeRequest;
+import com.teleport.smartload.dto.OptimizeRequest;
+import com.teleport.smartload.dto.OptimizeResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+
+/**
+ * Serves repeated optimize requests from memory.
+ * Results are keyed by {@link RequestFingerprint}, so the same truck capacity and
+ * order set hit the cache however the orders are listed and whatever the truck
+ * is called. Hits, misses and evictions are published as {@code cache.*} metrics
+ * under {@code cache=optimize-results}.
+ * <p>
+ * Only proven-optimal results are stored. A load cut short by its time budget
+ * is returned as is, and a later request with more time gets to improve on it.
+ */
+@Service
+@Primary
+public class CachingLoadOptimizerService implements LoadOptimizerService {
+
+    static final String CACHE_NAME = "optimize-results";
+
+    private final LoadOptimizerService delegate;
+    private final Cache<RequestFingerprint, OptimizeResponse> cache;
+
+    public CachingLoadOptimizerService(LoadOptimizerServiceImpl delegate, CacheProperties properties,
+            MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.cache = properties.isEnabled()
+                ? Caffeine.newBuilder()
+                        .maximumSize(properties.getMaximumSize())
+                        .expireAfterWrite(properties.getTtl())
+                        .recordStats()
+                        .build()
+                : null;
+        if (cache != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        }
+    }
+
+    @Override
+    public OptimizeResponse optimize(OptimizeRequest request) {
+        // alternatives aren't part of the fingerprint, so top-k requests always solve
+        if (cache == null || request.getTopK() != null) {
+            return delegate.optimize(request);
+        }
+        RequestFingerprint fingerprint = RequestFingerprint.of(request);
+        OptimizeResponse cached = cache.getIfPresent(fingerprint);
+        if (cached == null) {
+            OptimizeResponse response = delegate.optimize(request);
+            if (!response.isOptimal()) {
+                return response;
+            }
+            cache.put(fingerprint, response);
+            cached = response;
+        }
+        return forTruck(cached, request.getTruck().getId());
+    }
+
+    @Override
+    public FleetOptimizeResponse optimizeFleet(FleetOptimizeRequest request) {
+        return delegate.optimizeFleet(request);
+    }
+
+    @Override
+    public OptimizeResponse optimizeLargePool(LargePoolOptimizeRequest request) {
+        return delegate.optimizeLargePool(request);
+    }
+
+    /**
+     * Copy of a cached result for the truck that asked, so callers never share
+     * (or mutate) the cached instance
+     */
+    private static OptimizeResponse forTruck(OptimizeResponse cached, String truckId) {
+        return new OptimizeResponse(
+                truckId,
+                new ArrayList<>(cached.getSelectedOrderIds()),
+                cached.getTotalPayoutCents(),
+                cached.getTotalWeightLbs(),
+                cached.getTotalVolumeCuft(),
+                cached.getUtilizationWeightPercent(),
+                cached.getUtilizationVolumePercent(),
+                cached.isOptimal(),
+                cached.getUpperBoundCents(),
+                cached.getGapPercent());
+    }
+}
@@ -0,0 +1,71 @@
+package com.teleport.smartload.service;
+
+import com.teleport.smartload.config.JobProperties;
+import com.teleport.smartload.dto.JobResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * POSTs the finished job as JSON, once, from the callback executor rather than
+ * the job worker. A client that misses it can still poll, so failures and
+ * callbacks dropped for a full queue are only counted, as
+ * {@code smartload.jobs.callbacks{outcome=failed}}.
+ */
+@Component
+public class HttpJobCallback implements JobCallback {
+
+    private final RestClient restClient;
+    private final Executor callbackExecutor;
+    private final Counter delivered;
+    private final Counter failed;
+
+    public HttpJobCallback(JobProperties properties, @Qualifier("callbackExecutor") Executor callbackExecutor,
+            MeterRegistry meterRegistry) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(properties.getCallbackTimeout());
+        requestFactory.setReadTimeout(properties.getCallbackTimeout());
+        this.restClient = RestClient.builder().requestFactory(requestFactory).build();
+        this.callbackExecutor = callbackExecutor;
+        this.delivered = callbacks(meterRegistry, "delivered");
+        this.failed = callbacks(meterRegistry, "failed");
+    }
+
+    private static Counter callbacks(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("smartload.jobs.callbacks")
+                .description("Job callbacks sent")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void deliver(String url, JobResponse job) {
+        try {
+            callbackExecutor.execute(() -> post(url, job));
+        } catch (RejectedExecutionException ex) {
+            failed.increment();
+        }
+    }
+
+    private void post(String url, JobResponse job) {
+        try {
+            restClient.post()
+                    .uri(url)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(job)
+                    .retrieve()
+                    .toBodilessEntity();
+            delivered.increment();
+        } catch (RestClientException | IllegalArgumentException ex) {
+            failed.increment();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.teleport.smartload.service;
+
+import com.teleport.smartload.dto.JobResponse;
+
+/**
+ * Tells a client its job is finished. The application's bean posts the job to
+ * the callback URL (see {@link HttpJobCallback}); tests can plug in a stub.
+ */
+@FunctionalInterface
+public interface JobCallback {
+
+    /**
+     * Called once per finished job that has a callback URL, on a job worker, so
+     * it shouldn't wait for the receiver. Failures are the callback's to handle,
+     * the job stays available for polling.
+     */
+    void deliver(String url, JobResponse job);
+}
@@ -1,9 +1,16 @@
 package com.teleport.smartload.service;
 
+import com.teleport.smartload.dto.FleetOptimizeRequest;
+import com.teleport.smartload.dto.FleetOptimizeResponse;
+import com.teleport.smartload.dto.LargePoolOptimizeRequest;
 import com.teleport.smartload.dto.OptimizeRequest;
 import com.teleport.smartload.dto.OptimizeResponse;
 
 public interface LoadOptimizerService {
 
     OptimizeResponse optimize(OptimizeRequest request);
+
+    FleetOptimizeResponse optimizeFleet(FleetOptimizeRequest request);
+
+    OptimizeResponse optimizeLargePool(LargePoolOptimizeRequest request);
 }
@@ -1,170 +1,589 @@
 package com.teleport.smartload.service;
 
+import com.teleport.smartload.config.SolverProperties;
+import com.teleport.smartload.dto.AlternativeLoad;
+import com.teleport.smartload.dto.FleetOptimizeRequest;
+import com.teleport.smartload.dto.FleetOptimizeResponse;
+import com.teleport.smartload.dto.LargePoolOptimizeRequest;
 import com.teleport.smartload.dto.OptimizeRequest;
 import com.teleport.smartload.dto.OptimizeResponse;
+import com.teleport.smartload.exception.ClassTooLargeException;
 import com.teleport.smartload.model.Order;
 import com.teleport.smartload.model.Truck;
+import com.teleport.smartload.solver.BranchAndBoundEngine;
+import com.teleport.smartload.solver.CancellationToken;
+import com.teleport.smartload.solver.CompatibilityRule;
+import com.teleport.smartload.solver.Dominance;
+import com.teleport.smartload.solver.DynamicProgrammingEngine;
+import com.teleport.smartload.solver.EngineSelector;
+import com.teleport.smartload.solver.LocalSearchEngine;
+import com.teleport.smartload.solver.MeetInTheMiddleEngine;
+import com.teleport.smartload.solver.OrderPool;
+import com.teleport.smartload.solver.ParallelBranchAndBoundEngine;
+import com.teleport.smartload.solver.Relaxation;
+import com.teleport.smartload.solver.SolveBudget;
+import com.teleport.smartload.solver.SolveStats;
+import com.teleport.smartload.solver.Solution;
+import com.teleport.smartload.solver.SolverEngine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 
 @Service
 public class LoadOptimizerServiceImpl implements LoadOptimizerService {
 
     /**
-     * Thread-safe holder for tracking best result during backtracking
+     * Below this many valid orders the classes are solved on the calling thread,
+     * the fork/join overhead isn't worth it for tiny searches
      */
-    private static class Result {
-        long bestPayout = 0;
-        List<Order> bestCombination = new ArrayList<>();
+    private static final int PARALLEL_THRESHOLD = 32;
+
+    /**
+     * Best selection of one compatibility class, still in pool coordinates
+     */
+    private record Result(OrderPool pool, Solution solution) {
+
+        static final Result EMPTY = new Result(OrderPool.EMPTY, Solution.EMPTY);
+
+        long payout() {
+            return solution.payout();
+        }
+    }
+
+    /**
+     * Large-pool classes up to this size are still solved exactly. Meet-in-the-middle
+     * needs two halves of at most 2^12 subsets and bounded backtracking rarely gets
+     * near its 2^24 leaves, so a class takes milliseconds and a board full of them
+     * still answers well inside the request's latency budget.
+     */
+    private static final int LARGE_POOL_EXACT_CLASS_SIZE = 24;
+
+    /**
+     * Load of one class from the large-pool path, exact or heuristic
+     */
+    private record Load(List<Order> orders, long payout, long upperBound) {
+
+        static final Load EMPTY = new Load(List.of(), 0, 0);
+    }
+
+    private final BranchAndBoundEngine branchAndBound = new BranchAndBoundEngine();
+    private final LocalSearchEngine localSearch = new LocalSearchEngine();
+    private final EngineSelector engineSelector;
+    private final SolverMetrics metrics;
+    private final CompatibilityRule compatibilityRule;
+
+    public LoadOptimizerServiceImpl() {
+        // an empty composite registry drops every measurement
+        this(new SolverProperties(), ForkJoinPool.commonPool(), new CompositeMeterRegistry(),
+                CompatibilityRule.LANE_AND_HAZMAT);
+    }
+
+    /**
+     * Uses the application's {@link CompatibilityRule} bean if it defines one, lane and hazmat otherwise
+     */
+    @Autowired
+    public LoadOptimizerServiceImpl(SolverProperties properties, ForkJoinPool solverForkJoinPool,
+            MeterRegistry meterRegistry, ObjectProvider<CompatibilityRule> compatibilityRules) {
+        this(properties, solverForkJoinPool, meterRegistry,
+                compatibilityRules.getIfAvailable(() -> CompatibilityRule.LANE_AND_HAZMAT));
+    }
+
+    public LoadOptimizerServiceImpl(SolverProperties properties, ForkJoinPool solverForkJoinPool,
+            MeterRegistry meterRegistry, CompatibilityRule compatibilityRule) {
+        this.metrics = new SolverMetrics(meterRegistry);
+        this.compatibilityRule = compatibilityRule;
+        this.engineSelector = new EngineSelector(
+                branchAndBound,
+                new ParallelBranchAndBoundEngine(solverForkJoinPool),
+                new MeetInTheMiddleEngine(),
+                new DynamicProgrammingEngine(properties.getDpMaxCells(), properties.isDpRounding()));
     }
 
     @Override
     public OptimizeResponse optimize(OptimizeRequest request) {
+        return optimize(request, null);
+    }
+
+    /**
+     * Optimizes a request that changed a little since the last one of the same
+     * session. Each class starts from whatever of its previous load is still
+     * there, and a class that only lost orders it wasn't loading keeps its proven
+     * optimum without a search. {@code warmStart} is updated for the next call.
+     */
+    OptimizeResponse optimize(OptimizeRequest request, WarmStart warmStart) {
         Truck truck = request.getTruck();
         List<Order> orders = request.getOrders();
 
+        if (request.getTopK() != null) {
+            return optimizeRanked(truck, orders == null ? List.of() : orders, budgetOf(request.getTimeBudgetMs()),
+                    request.getTopK());
+        }
+
         if (orders == null || orders.isEmpty()) {
-            return buildResponse(truck, new ArrayList<>());
+            if (warmStart != null) {
+                warmStart.retain(List.of());
+            }
+            return buildResponse(truck, Result.EMPTY, 0L);
         }
 
+        long filterStart = System.nanoTime();
         List<Order> validOrders = filterValidOrders(orders, truck);
+        metrics.recordFilter(orders.size(), System.nanoTime() - filterStart);
 
         if (validOrders.isEmpty()) {
-            return buildResponse(truck, new ArrayList<>());
+            if (warmStart != null) {
+                warmStart.retain(List.of());
+            }
+            return buildResponse(truck, Result.EMPTY, 0L);
         }
 
-        // Sort by payout density (payout per unit of capacity used) for better pruning
-        validOrders.sort(Comparator.comparingDouble(
-                o -> -((double) o.getPayoutCents() / (o.getWeightLbs() + o.getVolumeCuft()))));
+        SolveBudget budget = budgetOf(request.getTimeBudgetMs());
+
+        // Orders in different rule groups (lane and hazmat by default) can never
+        // share a load, so each group is searched on its own and the best one wins
+        Map<Object, List<Order>> classes = partitionForExactSearch(validOrders);
+        Stream<Map.Entry<Object, List<Order>>> stream =
+                classes.size() > 1 && validOrders.size() >= PARALLEL_THRESHOLD
+                        ? classes.entrySet().parallelStream()
+                        : classes.entrySet().stream();
+
+        List<Result> results = stream
+                .map(group -> solveClass(group.getKey(), group.getValue(), truck, budget, warmStart))
+                .toList();
+        if (warmStart != null) {
+            warmStart.retain(classes.keySet());
+        }
 
-        // Precompute suffix sums for pruning - max possible payout from index i onwards
-        long[] suffixPayouts = new long[validOrders.size() + 1];
-        for (int i = validOrders.size() - 1; i >= 0; i--) {
-            suffixPayouts[i] = suffixPayouts[i + 1] + validOrders.get(i).getPayoutCents();
+        // the earlier class wins ties so the answer doesn't depend on scheduling
+        Result best = Result.EMPTY;
+        long upperBound = 0;
+        for (Result result : results) {
+            if (result.payout() > best.payout()) {
+                best = result;
+            }
+            upperBound = Math.max(upperBound, result.solution().upperBound());
         }
+        return buildResponse(truck, best, upperBound);
+    }
+
+    // one deadline for the whole request, shared by every class and worker,
+    // and cancelled along with the caller's token (see SolverAdmission)
+    private static SolveBudget budgetOf(Long timeBudgetMs) {
+        CancellationToken token = CancellationToken.current();
+        return timeBudgetMs == null
+                ? SolveBudget.until(token)
+                : SolveBudget.ofMillis(timeBudgetMs, token);
+    }
 
-        Result result = new Result();
-        backtrack(validOrders, truck, 0, new ArrayList<>(), 0, 0, 0, result, suffixPayouts);
+    /**
+     * Returns the k best loads instead of just the best one. Each class gets a
+     * ranked backtracking search, the only engine that keeps runner-up loads, and
+     * the per-class lists are merged by payout with earlier classes first on ties.
+     * The response's own fields describe the first alternative.
+     */
+    private OptimizeResponse optimizeRanked(Truck truck, List<Order> orders, SolveBudget budget, int k) {
+        long filterStart = System.nanoTime();
+        List<Order> validOrders = filterValidOrders(orders, truck);
+        metrics.recordFilter(orders.size(), System.nanoTime() - filterStart);
+
+        Collection<List<Order>> classes = partitionForExactSearch(validOrders).values();
+        Stream<List<Order>> stream = classes.size() > 1 && validOrders.size() >= PARALLEL_THRESHOLD
+                ? classes.parallelStream()
+                : classes.stream();
+        List<List<Result>> ranked = stream
+                .map(group -> solveClassRanked(group, truck, budget, k))
+                .toList();
+
+        List<Result> loads = new ArrayList<>();
+        long upperBound = 0;
+        for (List<Result> classLoads : ranked) {
+            loads.addAll(classLoads);
+            upperBound = Math.max(upperBound, classLoads.get(0).solution().upperBound());
+        }
+        // stable, so equal payouts keep class and search order
+        loads.sort(Comparator.comparingLong(Result::payout).reversed());
+        if (loads.size() > k) {
+            loads = loads.subList(0, k);
+        }
 
-        return buildResponse(truck, result.bestCombination);
+        OptimizeResponse response = buildResponse(truck, loads.isEmpty() ? Result.EMPTY : loads.get(0), upperBound);
+        List<AlternativeLoad> alternatives = new ArrayList<>(loads.size());
+        for (Result load : loads) {
+            alternatives.add(toAlternative(load));
+        }
+        response.setAlternatives(alternatives);
+        return response;
     }
 
     /**
-     * Filters out orders that don't make sense - like if pickup is after delivery
-     * or if the order is too big for the truck
+     * Optimizes a pool far too big for exact search, thousands of orders for one
+     * truck. Classes of up to {@link #LARGE_POOL_EXACT_CLASS_SIZE} orders are
+     * still solved exactly, bigger ones get the {@link LocalSearchEngine}
+     * heuristic. The upper bound and gap say how far from optimal the load might be.
      */
-    private List<Order> filterValidOrders(List<Order> orders, Truck truck) {
-        List<Order> valid = new ArrayList<>();
-        for (Order order : orders) {
-            // skip if pickup date is after delivery - that's not valid
-            if (order.getPickupDate() != null && order.getDeliveryDate() != null
-                    && order.getPickupDate().isAfter(order.getDeliveryDate())) {
-                continue;
+    @Override
+    public OptimizeResponse optimizeLargePool(LargePoolOptimizeRequest request) {
+        Truck truck = request.getTruck();
+        List<Order> orders = request.getOrders() == null ? List.of() : request.getOrders();
+
+        long filterStart = System.nanoTime();
+        List<Order> validOrders = filterValidOrders(orders, truck);
+        metrics.recordFilter(orders.size(), System.nanoTime() - filterStart);
+
+        SolveBudget budget = budgetOf(request.getTimeBudgetMs());
+        Collection<List<Order>> classes = partitionByCompatibility(validOrders).values();
+        Stream<List<Order>> stream = classes.size() > 1 && validOrders.size() >= PARALLEL_THRESHOLD
+                ? classes.parallelStream()
+                : classes.stream();
+        List<Load> loads = stream
+                .map(group -> solveLargeClass(group, truck, budget))
+                .toList();
+
+        Load best = Load.EMPTY;
+        long upperBound = 0;
+        for (Load load : loads) {
+            if (load.payout() > best.payout()) {
+                best = load;
             }
-            // only add if it could actually fit on the truck
-            if (order.getWeightLbs() <= truck.getMaxWeightLbs()
-                    && order.getVolumeCuft() <= truck.getMaxVolumeCuft()) {
-                valid.add(order);
+            upperBound = Math.max(upperBound, load.upperBound());
+        }
+        return buildResponse(truck, new Load(best.orders(), best.payout(), upperBound));
+    }
+
+    private Load solveLargeClass(List<Order> orders, Truck truck, SolveBudget budget) {
+        if (orders.size() <= LARGE_POOL_EXACT_CLASS_SIZE) {
+            Result result = solveClass(null, orders, truck, budget, null);
+            List<Order> selected = new ArrayList<>();
+            for (long mask = result.solution().mask(); mask != 0; mask &= mask - 1) {
+                selected.add(result.pool().order(Long.numberOfTrailingZeros(mask)));
             }
+            return new Load(selected, result.payout(), result.solution().upperBound());
         }
-        return valid;
+
+        SolveStats stats = new SolveStats();
+        long searchStart = System.nanoTime();
+        LocalSearchEngine.Result result = localSearch.solve(orders, compatibilityRule,
+                truck.getMaxWeightLbs(), truck.getMaxVolumeCuft(), budget, stats);
+        metrics.recordSearch(localSearch.name(), orders.size(), System.nanoTime() - searchStart, stats);
+
+        List<Order> selected = new ArrayList<>(result.selected().length);
+        for (int i : result.selected()) {
+            selected.add(orders.get(i));
+        }
+        return new Load(selected, result.payout(), result.upperBound());
     }
 
     /**
-     * Uses backtracking with pruning to find the combination with max payout
+     * Assigns one order pool across many trucks. The expensive preparation - date
+     * filtering and splitting into compatibility classes - happens once for the
+     * whole fleet, and each (truck capacity, class) subproblem is solved at most
+     * once per version of the class, so trucks of the same type share their solves.
+     * <p>
+     * Each round takes the single highest-payout (truck, load) pair, removes its
+     * orders from their class and only re-solves that class for the remaining
+     * trucks. Exact multi-truck assignment is NP-hard, this best-pair greedy with
+     * exact per-truck loads is what fits in a request.
      */
-    private void backtrack(List<Order> orders, Truck truck, int index,
-            List<Order> current, long currentPayout,
-            int currentWeight, int currentVolume,
-            Result result, long[] suffixPayouts) {
+    @Override
+    public FleetOptimizeResponse optimizeFleet(FleetOptimizeRequest request) {
+        List<Truck> trucks = request.getTrucks();
+        List<Order> orders = request.getOrders() == null ? List.of() : request.getOrders();
 
-        // found a better combo? save it
-        if (currentPayout > result.bestPayout) {
-            result.bestPayout = currentPayout;
-            result.bestCombination = new ArrayList<>(current);
+        List<Order> datedOrders = new ArrayList<>();
+        for (Order order : orders) {
+            if (hasValidDates(order)) {
+                datedOrders.add(order);
+            }
         }
+        List<List<Order>> classes = new ArrayList<>(partitionForExactSearch(datedOrders).values());
+
+        SolveBudget budget = budgetOf(null);
+        Map<FleetSubproblem, Result> solved = new HashMap<>();
+        Result[] assigned = new Result[trucks.size()];
+        int open = trucks.size();
+
+        while (open > 0) {
+            int bestTruck = -1;
+            Result bestLoad = Result.EMPTY;
+            for (int t = 0; t < trucks.size(); t++) {
+                if (assigned[t] != null) {
+                    continue;
+                }
+                Truck truck = trucks.get(t);
+                for (int c = 0; c < classes.size(); c++) {
+                    List<Order> group = classes.get(c);
+                    Result load = solved.computeIfAbsent(
+                            new FleetSubproblem(c, truck.getMaxWeightLbs(), truck.getMaxVolumeCuft()),
+                            key -> solveClass(null, fitting(group, truck), truck, budget, null));
+                    if (load.payout() > bestLoad.payout()) {
+                        bestLoad = load;
+                        bestTruck = t;
+                    }
+                }
+            }
+            if (bestTruck < 0) {
+                // nothing left that pays for any open truck
+                break;
+            }
 
-        if (index >= orders.size()) {
-            return;
+            assigned[bestTruck] = bestLoad;
+            open--;
+            int changed = removeSelected(classes, bestLoad);
+            solved.keySet().removeIf(key -> key.classIndex() == changed);
         }
 
-        // Pruning: if current + all remaining can't beat best, skip this branch
-        if (currentPayout + suffixPayouts[index] <= result.bestPayout) {
-            return;
+        List<OptimizeResponse> assignments = new ArrayList<>();
+        Set<String> assignedIds = new HashSet<>();
+        long totalPayout = 0;
+        for (int t = 0; t < trucks.size(); t++) {
+            Result load = assigned[t] == null ? Result.EMPTY : assigned[t];
+            OptimizeResponse response = buildResponse(trucks.get(t), load, load.solution().upperBound());
+            assignments.add(response);
+            assignedIds.addAll(response.getSelectedOrderIds());
+            totalPayout += response.getTotalPayoutCents();
         }
 
-        for (int i = index; i < orders.size(); i++) {
-            Order order = orders.get(i);
+        List<String> unassigned = new ArrayList<>();
+        for (Order order : orders) {
+            if (!assignedIds.contains(order.getId())) {
+                unassigned.add(order.getId());
+            }
+        }
+        return new FleetOptimizeResponse(assignments, totalPayout, unassigned);
+    }
 
-            int newWeight = currentWeight + order.getWeightLbs();
-            int newVolume = currentVolume + order.getVolumeCuft();
+    /**
+     * One truck capacity against one compatibility class, the unit of work the fleet shares
+     */
+    private record FleetSubproblem(int classIndex, int maxWeight, int maxVolume) {
+    }
 
-            // would exceed truck capacity - skip this one
-            if (newWeight > truck.getMaxWeightLbs() || newVolume > truck.getMaxVolumeCuft()) {
-                continue;
+    private List<Order> fitting(List<Order> orders, Truck truck) {
+        List<Order> fit = new ArrayList<>();
+        for (Order order : orders) {
+            if (fitsTruck(order, truck)) {
+                fit.add(order);
             }
+        }
+        return fit;
+    }
 
-            // can't mix incompatible orders
-            if (!isCompatible(order, current)) {
-                continue;
+    /**
+     * Drops the orders of an assigned load from their class, returns that class's index
+     */
+    private int removeSelected(List<List<Order>> classes, Result load) {
+        Set<Order> selected = new HashSet<>();
+        for (long mask = load.solution().mask(); mask != 0; mask &= mask - 1) {
+            selected.add(load.pool().order(Long.numberOfTrailingZeros(mask)));
+        }
+        for (int c = 0; c < classes.size(); c++) {
+            if (classes.get(c).removeIf(selected::contains)) {
+                return c;
             }
+        }
+        return -1;
+    }
 
-            current.add(order);
-            backtrack(orders, truck, i + 1, current,
-                    currentPayout + order.getPayoutCents(), newWeight, newVolume,
-                    result, suffixPayouts);
-            current.remove(current.size() - 1);
+    /**
+     * Partitions for the exact engines. Requests are validated against the same
+     * rule, this only keeps a class that got past validation away from
+     * {@link OrderPool#of}, which can't hold it.
+     *
+     * @throws ClassTooLargeException when a class has more than {@link OrderPool#MAX_SIZE} orders
+     */
+    private Map<Object, List<Order>> partitionForExactSearch(List<Order> orders) {
+        Map<Object, List<Order>> classes = partitionByCompatibility(orders);
+        for (List<Order> group : classes.values()) {
+            if (group.size() > OrderPool.MAX_SIZE) {
+                throw new ClassTooLargeException(group.size(), OrderPool.MAX_SIZE);
+            }
         }
+        return classes;
     }
 
     /**
-     * Checks if we can add this order to the current load
-     * - must be going to the same place
-     * - can't mix hazmat with regular cargo
+     * Groups orders by the rule's group key, keeping the order in which groups first appear
      */
-    private boolean isCompatible(Order newOrder, List<Order> current) {
-        if (current.isEmpty()) {
-            return true;
+    private Map<Object, List<Order>> partitionByCompatibility(List<Order> orders) {
+        Map<Object, List<Order>> classes = new LinkedHashMap<>();
+        for (Order order : orders) {
+            classes.computeIfAbsent(compatibilityRule.groupKey(order), k -> new ArrayList<>()).add(order);
         }
+        return classes;
+    }
 
-        Order first = current.get(0);
+    /**
+     * Finds the best load within a single compatibility class.
+     * A class reached after the budget ran out only gets the greedy load and its LP bound,
+     * or its previous load if that pays more.
+     */
+    private Result solveClass(Object groupKey, List<Order> orders, Truck truck, SolveBudget budget,
+            WarmStart warmStart) {
+        long sortStart = System.nanoTime();
+        sortByDensity(orders, truck);
+
+        // orders that can only ever stand in for a better one are dropped up front
+        OrderPool pool = Dominance.reduce(OrderPool.of(orders, compatibilityRule),
+                truck.getMaxWeightLbs(), truck.getMaxVolumeCuft());
+        metrics.recordSort(orders.size(), System.nanoTime() - sortStart);
+
+        WarmStart.ClassState previous = warmStart == null ? null : warmStart.get(groupKey);
+        long warmMask = previous == null ? 0L : WarmStart.selectedIn(previous, pool);
+        Solution solution;
+        if (previous != null && WarmStart.stillOptimal(previous, pool, warmMask)) {
+            solution = Solution.exact(warmMask, payoutOf(pool, warmMask));
+        } else if (budget.isExpired()) {
+            solution = Relaxation.estimate(pool, truck.getMaxWeightLbs(), truck.getMaxVolumeCuft());
+            long warmPayout = payoutOf(pool, warmMask);
+            if (warmPayout > solution.payout()) {
+                solution = new Solution(warmMask, warmPayout, Math.max(warmPayout, solution.upperBound()));
+            }
+        } else {
+            SolverEngine engine = engineSelector.select(pool, truck.getMaxWeightLbs(), truck.getMaxVolumeCuft());
+            SolveStats stats = new SolveStats();
+            long searchStart = System.nanoTime();
+            solution = engine.solve(pool, truck.getMaxWeightLbs(), truck.getMaxVolumeCuft(), budget, stats,
+                    warmMask);
+            metrics.recordSearch(engine.name(), pool.size(), System.nanoTime() - searchStart, stats);
+        }
+        if (warmStart != null) {
+            warmStart.put(groupKey, pool, solution.mask(), solution.isOptimal());
+        }
+        return new Result(pool, solution);
+    }
 
-        // different route? can't combine
-        if (!newOrder.getOrigin().equalsIgnoreCase(first.getOrigin()) ||
-                !newOrder.getDestination().equalsIgnoreCase(first.getDestination())) {
-            return false;
+    /**
+     * Ranked search over one class. No dominance reduction here, a dominated
+     * order can still be part of a runner-up load.
+     */
+    private List<Result> solveClassRanked(List<Order> orders, Truck truck, SolveBudget budget, int k) {
+        long sortStart = System.nanoTime();
+        sortByDensity(orders, truck);
+        OrderPool pool = OrderPool.of(orders, compatibilityRule);
+        metrics.recordSort(orders.size(), System.nanoTime() - sortStart);
+
+        SolveStats stats = new SolveStats();
+        long searchStart = System.nanoTime();
+        List<Solution> solutions = branchAndBound.solveRanked(
+                pool, truck.getMaxWeightLbs(), truck.getMaxVolumeCuft(), k, budget, stats);
+        metrics.recordSearch(branchAndBound.name(), pool.size(), System.nanoTime() - searchStart, stats);
+
+        List<Result> results = new ArrayList<>(solutions.size());
+        for (Solution solution : solutions) {
+            results.add(new Result(pool, solution));
         }
+        return results;
+    }
 
-        // hazmat rules - can't mix hazmat with non-hazmat
-        boolean hasHazmat = current.stream().anyMatch(Order::isHazmat);
-        boolean hasRegular = current.stream().anyMatch(o -> !o.isHazmat());
+    /**
+     * Sorts by payout density (payout per share of truck capacity used) for better pruning
+     */
+    private static void sortByDensity(List<Order> orders, Truck truck) {
+        double maxWeight = truck.getMaxWeightLbs();
+        double maxVolume = truck.getMaxVolumeCuft();
+        // ties go by ID so a reordered request gets the same load back
+        orders.sort(Comparator.<Order>comparingDouble(
+                        o -> -(o.getPayoutCents() / (o.getWeightLbs() / maxWeight + o.getVolumeCuft() / maxVolume)))
+                .thenComparing(Order::getId, Comparator.nullsFirst(Comparator.naturalOrder())));
+    }
 
-        if (newOrder.isHazmat() && hasRegular) {
-            return false;
+    private static long payoutOf(OrderPool pool, long mask) {
+        long payout = 0;
+        for (long m = mask; m != 0; m &= m - 1) {
+            payout += pool.payouts()[Long.numberOfTrailingZeros(m)];
         }
-        if (!newOrder.isHazmat() && hasHazmat) {
-            return false;
+        return payout;
+    }
+
+    /**
+     * Filters out orders that don't make sense - like if pickup is after delivery
+     * or if the order is too big for the truck
+     */
+    private List<Order> filterValidOrders(List<Order> orders, Truck truck) {
+        List<Order> valid = new ArrayList<>();
+        for (Order order : orders) {
+            // skip bad dates, and only add if it could actually fit on the truck
+            if (hasValidDates(order) && fitsTruck(order, truck)) {
+                valid.add(order);
+            }
         }
+        return valid;
+    }
+
+    // pickup after delivery isn't valid
+    private boolean hasValidDates(Order order) {
+        return order.getPickupDate() == null || order.getDeliveryDate() == null
+                || !order.getPickupDate().isAfter(order.getDeliveryDate());
+    }
 
-        return true;
+    private boolean fitsTruck(Order order, Truck truck) {
+        return order.getWeightLbs() <= truck.getMaxWeightLbs()
+                && order.getVolumeCuft() <= truck.getMaxVolumeCuft();
     }
 
-    private OptimizeResponse buildResponse(Truck truck, List<Order> selected) {
+    private static AlternativeLoad toAlternative(Result load) {
+        OrderPool pool = load.pool();
+        List<String> orderIds = new ArrayList<>();
+        int totalWeight = 0;
+        int totalVolume = 0;
+        for (long mask = load.solution().mask(); mask != 0; mask &= mask - 1) {
+            int i = Long.numberOfTrailingZeros(mask);
+            orderIds.add(pool.order(i).getId());
+            totalWeight += pool.weights()[i];
+            totalVolume += pool.volumes()[i];
+        }
+        return new AlternativeLoad(orderIds, load.payout(), totalWeight, totalVolume);
+    }
+
+    /**
+     * Maps the winning bitmask back to orders - the only place the selection is materialized.
+     * The gap is how far the payout could still be from the upper bound, in percent of the bound.
+     */
+    private OptimizeResponse buildResponse(Truck truck, Result result, long upperBound) {
+        OrderPool pool = result.pool();
         List<String> orderIds = new ArrayList<>();
         long totalPayout = 0;
         int totalWeight = 0;
         int totalVolume = 0;
 
-        for (Order order : selected) {
+        for (long mask = result.solution().mask(); mask != 0; mask &= mask - 1) {
+            int i = Long.numberOfTrailingZeros(mask);
+            orderIds.add(pool.order(i).getId());
+            totalPayout += pool.payouts()[i];
+            totalWeight += pool.weights()[i];
+            totalVolume += pool.volumes()[i];
+        }
+        return buildResponse(truck, orderIds, totalPayout, totalWeight, totalVolume, upperBound);
+    }
+
+    private OptimizeResponse buildResponse(Truck truck, Load load) {
+        List<String> orderIds = new ArrayList<>(load.orders().size());
+        int totalWeight = 0;
+        int totalVolume = 0;
+        for (Order order : load.orders()) {
             orderIds.add(order.getId());
-            totalPayout += order.getPayoutCents();
             totalWeight += order.getWeightLbs();
             totalVolume += order.getVolumeCuft();
         }
+        return buildResponse(truck, orderIds, load.payout(), totalWeight, totalVolume, load.upperBound());
+    }
 
+    private OptimizeResponse buildResponse(Truck truck, List<String> orderIds, long totalPayout, int totalWeight,
+            int totalVolume, long upperBound) {
         double weightPercent = truck.getMaxWeightLbs() > 0
                 ? (totalWeight * 100.0) / truck.getMaxWeightLbs()
                 : 0;
@@ -175,6 +594,11 @@ public class LoadOptimizerServiceImpl implements LoadOptimizerService {
         weightPercent = Math.round(weightPercent * 100.0) / 100.0;
         volumePercent = Math.round(volumePercent * 100.0) / 100.0;
 
+        upperBound = Math.max(upperBound, totalPayout);
+        double gapPercent = upperBound > 0
+                ? Math.round((upperBound - totalPayout) * 10000.0 / upperBound) / 100.0
+                : 0;
+
         return new OptimizeResponse(
                 truck.getId(),
                 orderIds,
@@ -182,6 +606,9 @@ public class LoadOptimizerServiceImpl implements LoadOptimizerService {
                 totalWeight,
                 totalVolume,
                 weightPercent,
-                volumePercent);
+                volumePercent,
+                totalPayout >= upperBound,
+                upperBound,
+                gapPercent);
     }
 }
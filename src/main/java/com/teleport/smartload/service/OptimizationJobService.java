@@ -0,0 +1,267 @@
+package com.teleport.smartload.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.teleport.smartload.config.JobProperties;
+import com.teleport.smartload.config.SolverProperties;
+import com.teleport.smartload.dto.FleetOptimizeResponse;
+import com.teleport.smartload.dto.JobResponse;
+import com.teleport.smartload.dto.JobStatus;
+import com.teleport.smartload.dto.JobSubmitRequest;
+import com.teleport.smartload.dto.OptimizeResponse;
+import com.teleport.smartload.exception.CallbackNotAllowedException;
+import com.teleport.smartload.exception.JobNotFoundException;
+import com.teleport.smartload.exception.SolverOverloadedException;
+import com.teleport.smartload.solver.CancellationToken;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Runs optimize, fleet and large-pool requests in the background, so a client
+ * doesn't have to hold a connection open for a long solve, and retrying after
+ * a timeout doesn't start the same solve twice. Submitting answers with a job ID
+ * right away; the client polls for the result or names a callback URL.
+ * <p>
+ * Jobs wait on the job pool's priority queue, highest priority first, and at
+ * most {@code smartload.jobs.max-queued} of them. Finished jobs are kept for
+ * {@code smartload.jobs.result-ttl}, unfinished ones until they finish. The
+ * queue length is published as {@code smartload.jobs.queued}.
+ * <p>
+ * Callbacks only go to hosts in {@code smartload.jobs.callback-allowed-hosts},
+ * other URLs are refused when the job is submitted.
+ */
+@Service
+public class OptimizationJobService {
+
+    private static final int DEFAULT_PRIORITY = 0;
+
+    private final LoadOptimizerService optimizer;
+    private final ThreadPoolExecutor jobExecutor;
+    private final JobCallback callback;
+    // one permit per queue place, taken before a job is queued and given back when it leaves the queue
+    private final Semaphore queuePlaces;
+    private final long retryAfterSeconds;
+    private final Set<String> callbackAllowedHosts;
+    private final Cache<String, Job> jobs;
+    private final AtomicLong submissions = new AtomicLong();
+
+    public OptimizationJobService(LoadOptimizerService optimizer,
+            @Qualifier("jobExecutor") ThreadPoolExecutor jobExecutor, JobCallback callback,
+            JobProperties properties, SolverProperties solverProperties, MeterRegistry meterRegistry) {
+        this.optimizer = optimizer;
+        this.jobExecutor = jobExecutor;
+        this.callback = callback;
+        this.queuePlaces = new Semaphore(Math.max(0, properties.getMaxQueued()));
+        this.retryAfterSeconds = Math.max(1, solverProperties.getRetryAfter().toSeconds());
+        this.callbackAllowedHosts = properties.getCallbackAllowedHosts().stream()
+                .map(host -> host.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+        long resultTtl = properties.getResultTtl().toNanos();
+        this.jobs = Caffeine.newBuilder()
+                .expireAfter(new Expiry<String, Job>() {
+                    @Override
+                    public long expireAfterCreate(String id, Job job, long now) {
+                        return job.isFinished() ? resultTtl : Long.MAX_VALUE;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String id, Job job, long now, long current) {
+                        return job.isFinished() ? resultTtl : Long.MAX_VALUE;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String id, Job job, long now, long current) {
+                        return current;
+                    }
+                })
+                .build();
+        Gauge.builder("smartload.jobs.queued", jobExecutor, executor -> executor.getQueue().size())
+                .description("Jobs waiting for a worker")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @throws CallbackNotAllowedException when the callback URL's host isn't allowed
+     * @throws SolverOverloadedException when {@code smartload.jobs.max-queued} jobs are waiting
+     */
+    public JobResponse submit(JobSubmitRequest request) {
+        if (request.getCallbackUrl() != null) {
+            checkCallback(request.getCallbackUrl());
+        }
+        if (!queuePlaces.tryAcquire()) {
+            throw new SolverOverloadedException(retryAfterSeconds);
+        }
+        int priority = request.getPriority() != null ? request.getPriority() : DEFAULT_PRIORITY;
+        Job job = new Job(UUID.randomUUID().toString(), priority, submissions.incrementAndGet(), request);
+        jobs.put(job.id, job);
+        try {
+            jobExecutor.execute(job);
+        } catch (RejectedExecutionException ex) {
+            queuePlaces.release();
+            jobs.invalidate(job.id);
+            throw new SolverOverloadedException(retryAfterSeconds);
+        }
+        return job.response();
+    }
+
+    public JobResponse get(String jobId) {
+        return find(jobId).response();
+    }
+
+    /**
+     * Cancels a job that hasn't finished. A queued job never runs; a running
+     * solve stops at its next budget check and its result is dropped. Cancelling
+     * a finished job changes nothing.
+     */
+    public JobResponse cancel(String jobId) {
+        Job job = find(jobId);
+        if (job.cancel()) {
+            // a job taken off the queue by a worker meanwhile gives its place back in run()
+            if (jobExecutor.remove(job)) {
+                queuePlaces.release();
+            }
+            // restarts the clock, the cancelled job is kept like a finished one
+            jobs.put(job.id, job);
+        }
+        return job.response();
+    }
+
+    private void checkCallback(String url) {
+        String host;
+        try {
+            host = new URI(url).getHost();
+        } catch (URISyntaxException ex) {
+            throw new CallbackNotAllowedException(url);
+        }
+        // getHost() is what the client connects to, user info or a port don't change it
+        if (host == null || !callbackAllowedHosts.contains(host.toLowerCase(Locale.ROOT))) {
+            throw new CallbackNotAllowedException(url);
+        }
+    }
+
+    private Job find(String jobId) {
+        Job job = jobs.getIfPresent(jobId);
+        if (job == null) {
+            throw new JobNotFoundException(jobId);
+        }
+        return job;
+    }
+
+    /**
+     * One submitted request and what became of it. Ordered for the job queue,
+     * state changes are guarded by its own monitor.
+     */
+    private final class Job implements Runnable, Comparable<Job> {
+        final String id;
+        final int priority;
+        final long sequence;
+        final Instant submittedAt = Instant.now();
+        final JobSubmitRequest request;
+        final CancellationToken token = new CancellationToken();
+
+        JobStatus status = JobStatus.QUEUED;
+        Instant finishedAt;
+        OptimizeResponse result;
+        FleetOptimizeResponse fleetResult;
+        String message;
+
+        Job(String id, int priority, long sequence, JobSubmitRequest request) {
+            this.id = id;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.request = request;
+        }
+
+        @Override
+        public int compareTo(Job other) {
+            return priority != other.priority
+                    ? Integer.compare(other.priority, priority)
+                    : Long.compare(sequence, other.sequence);
+        }
+
+        @Override
+        public void run() {
+            queuePlaces.release();
+            synchronized (this) {
+                if (status != JobStatus.QUEUED) {
+                    return;
+                }
+                status = JobStatus.RUNNING;
+            }
+            OptimizeResponse optimized = null;
+            FleetOptimizeResponse fleet = null;
+            String error = null;
+            try {
+                if (request.getFleet() != null) {
+                    fleet = CancellationToken.callWith(token, () -> optimizer.optimizeFleet(request.getFleet()));
+                } else if (request.getLargePool() != null) {
+                    optimized = CancellationToken.callWith(token,
+                            () -> optimizer.optimizeLargePool(request.getLargePool()));
+                } else {
+                    optimized = CancellationToken.callWith(token, () -> optimizer.optimize(request.getOptimize()));
+                }
+            } catch (RuntimeException ex) {
+                error = ex.getMessage();
+            }
+            if (finish(optimized, fleet, error)) {
+                jobs.put(id, this);
+                if (request.getCallbackUrl() != null) {
+                    callback.deliver(request.getCallbackUrl(), response());
+                }
+            }
+        }
+
+        /**
+         * Records the outcome unless the job was cancelled meanwhile
+         */
+        private synchronized boolean finish(OptimizeResponse optimized, FleetOptimizeResponse fleet, String error) {
+            if (status != JobStatus.RUNNING) {
+                return false;
+            }
+            status = error == null ? JobStatus.SUCCEEDED : JobStatus.FAILED;
+            finishedAt = Instant.now();
+            result = optimized;
+            fleetResult = fleet;
+            message = error;
+            return true;
+        }
+
+        synchronized boolean cancel() {
+            if (status.isFinished()) {
+                return false;
+            }
+            status = JobStatus.CANCELLED;
+            finishedAt = Instant.now();
+            token.cancel();
+            return true;
+        }
+
+        synchronized boolean isFinished() {
+            return status.isFinished();
+        }
+
+        synchronized JobResponse response() {
+            JobResponse response = new JobResponse(id, status, priority, submittedAt);
+            response.setFinishedAt(finishedAt);
+            response.setResult(result);
+            response.setFleetResult(fleetResult);
+            response.setMessage(message);
+            return response;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.teleport.smartload.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.teleport.smartload.config.SessionProperties;
+import com.teleport.smartload.dto.OptimizeRequest;
+import com.teleport.smartload.dto.OptimizeResponse;
+import com.teleport.smartload.dto.SessionResponse;
+import com.teleport.smartload.dto.SessionUpdateRequest;
+import com.teleport.smartload.exception.SessionBusyException;
+import com.teleport.smartload.exception.SessionNotFoundException;
+import com.teleport.smartload.model.Order;
+import com.teleport.smartload.model.Truck;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Keeps one truck's order pool in memory so it can change an order at a time.
+ * Every change re-optimizes from the previous answer (see {@link WarmStart}):
+ * classes nobody touched keep their load, and the rest start their search from
+ * what is left of it instead of from scratch.
+ * <p>
+ * A session takes one change at a time: a change sent while another is still
+ * being applied is refused (see {@link #update(String, SessionUpdateRequest, Function)}).
+ * <p>
+ * Sessions expire after {@code smartload.session.idle-timeout} without a read or
+ * change, and are published as {@code cache.*} metrics under
+ * {@code cache=optimize-sessions}.
+ */
+@Service
+public class OptimizationSessionService {
+
+    static final String CACHE_NAME = "optimize-sessions";
+
+    private final LoadOptimizerServiceImpl optimizer;
+    private final Validator validator;
+    private final Cache<String, Session> sessions;
+
+    public OptimizationSessionService(LoadOptimizerServiceImpl optimizer, Validator validator,
+            SessionProperties properties, MeterRegistry meterRegistry) {
+        this.optimizer = optimizer;
+        this.validator = validator;
+        this.sessions = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterAccess(properties.getIdleTimeout())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, sessions, CACHE_NAME);
+    }
+
+    public SessionResponse create(OptimizeRequest request) {
+        Session session = new Session(UUID.randomUUID().toString(), request.getTruck());
+        for (Order order : request.getOrders()) {
+            session.orders.put(order.getId(), order);
+        }
+        SessionResponse response;
+        synchronized (session) {
+            response = session.solve(request.getTimeBudgetMs());
+        }
+        sessions.put(session.id, session);
+        return response;
+    }
+
+    public SessionResponse get(String sessionId) {
+        Session session = find(sessionId);
+        synchronized (session) {
+            return session.response();
+        }
+    }
+
+    /**
+     * Applies the changes and re-optimizes. Changes that would leave the pool
+     * invalid (see {@link OptimizeRequest}) are rejected as a whole.
+     */
+    public SessionResponse update(String sessionId, SessionUpdateRequest update) {
+        Session session = find(sessionId);
+        synchronized (session) {
+            Map<String, Order> orders = new LinkedHashMap<>(session.orders);
+            if (update.getRemoveOrderIds() != null) {
+                update.getRemoveOrderIds().forEach(orders::remove);
+            }
+            if (update.getAddOrders() != null) {
+                for (Order order : update.getAddOrders()) {
+                    orders.put(order.getId(), order);
+                }
+            }
+
+            Set<ConstraintViolation<OptimizeRequest>> violations =
+                    validator.validate(new OptimizeRequest(session.truck, new ArrayList<>(orders.values())));
+            if (!violations.isEmpty()) {
+                throw new ConstraintViolationException(violations);
+            }
+            session.orders = orders;
+            return session.solve(update.getTimeBudgetMs());
+        }
+    }
+
+    /**
+     * Hands the update to {@code submit}, typically onto the solver pool, and
+     * returns its result. Only one update per session is pending at a time, a
+     * second one is refused before it takes a solver thread that would only
+     * wait for the first.
+     *
+     * @throws SessionBusyException when an earlier update hasn't completed
+     */
+    public CompletableFuture<SessionResponse> update(String sessionId, SessionUpdateRequest update,
+            Function<Supplier<SessionResponse>, CompletableFuture<SessionResponse>> submit) {
+        Session session = find(sessionId);
+        if (!session.claim()) {
+            throw new SessionBusyException(sessionId);
+        }
+        CompletableFuture<SessionResponse> solve;
+        try {
+            solve = submit.apply(() -> update(sessionId, update));
+        } catch (RuntimeException ex) {
+            session.release();
+            throw ex;
+        }
+        // a cancelled update's solve stops within a budget check, the next one
+        // may briefly wait for it on the monitor
+        solve.whenComplete((response, ex) -> session.release());
+        return solve;
+    }
+
+    public void delete(String sessionId) {
+        if (sessions.asMap().remove(sessionId) == null) {
+            throw new SessionNotFoundException(sessionId);
+        }
+    }
+
+    private Session find(String sessionId) {
+        Session session = sessions.getIfPresent(sessionId);
+        if (session == null) {
+            throw new SessionNotFoundException(sessionId);
+        }
+        return session;
+    }
+
+    /**
+     * One truck, its current orders by ID and what the last solve learned.
+     * Guarded by its own monitor, apart from the pending update flag.
+     */
+    private final class Session {
+        final String id;
+        final Truck truck;
+        final WarmStart warmStart = new WarmStart();
+        final AtomicBoolean updating = new AtomicBoolean();
+        Map<String, Order> orders = new LinkedHashMap<>();
+        OptimizeResponse result;
+
+        Session(String id, Truck truck) {
+            this.id = id;
+            this.truck = truck;
+        }
+
+        SessionResponse solve(Long timeBudgetMs) {
+            OptimizeRequest request = new OptimizeRequest(truck, new ArrayList<>(orders.values()));
+            request.setTimeBudgetMs(timeBudgetMs);
+            result = optimizer.optimize(request, warmStart);
+            return response();
+        }
+
+        SessionResponse response() {
+            return new SessionResponse(id, orders.size(), result);
+        }
+
+        boolean claim() {
+            return updating.compareAndSet(false, true);
+        }
+
+        void release() {
+            updating.set(false);
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.teleport.smartload.service;
+
+import com.teleport.smartload.model.Order;
+import com.teleport.smartload.solver.CompatibilityKey;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * The orders posted to the board, stored column-wise: one primitive array per
+ * field, indexed by slot, with dates as epoch days. Lane and hazmat flag are
+ * interned into a class id, so an order costs its ID plus a few ints.
+ * <p>
+ * Each class keeps the slots of its orders, so the candidates for one lane are
+ * found without looking at the rest of the board, and slots are also indexed by
+ * pickup day for expiry. Freed slots are reused.
+ * <p>
+ * Not thread-safe, {@link OrderBookService} guards it.
+ */
+final class OrderBook {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * One lane and hazmat class. Origin and destination keep the spelling of the
+     * first order seen, the rule matches them case-insensitively anyway.
+     */
+    private static final class OrderClass {
+        final String origin;
+        final String destination;
+        final boolean hazmat;
+        int[] slots = new int[8];
+        int size;
+
+        OrderClass(String origin, String destination, boolean hazmat) {
+            this.origin = origin;
+            this.destination = destination;
+            this.hazmat = hazmat;
+        }
+    }
+
+    private final Map<String, Integer> slotsById = new HashMap<>();
+    private final Map<CompatibilityKey, Integer> classIds = new HashMap<>();
+    private final List<OrderClass> classes = new ArrayList<>();
+    private final NavigableMap<Integer, BitSet> slotsByPickupDay = new TreeMap<>();
+
+    private String[] ids = new String[INITIAL_CAPACITY];
+    private long[] payout = new long[INITIAL_CAPACITY];
+    private int[] weight = new int[INITIAL_CAPACITY];
+    private int[] volume = new int[INITIAL_CAPACITY];
+    private int[] classOf = new int[INITIAL_CAPACITY];
+    // where the slot sits in its class's slot list, so removal is a swap
+    private int[] positionInClass = new int[INITIAL_CAPACITY];
+    private int[] pickupDay = new int[INITIAL_CAPACITY];
+    private int[] deliveryDay = new int[INITIAL_CAPACITY];
+
+    private int used;
+    private int[] freeSlots = new int[INITIAL_CAPACITY];
+    private int freeCount;
+
+    int size() {
+        return slotsById.size();
+    }
+
+    /**
+     * Adds the order or replaces the one with the same ID
+     *
+     * @return true when the ID was new
+     */
+    boolean upsert(Order order) {
+        Integer existing = slotsById.get(order.getId());
+        if (existing != null) {
+            unlink(existing);
+        }
+        int slot = existing != null ? existing : allocate();
+        ids[slot] = order.getId();
+        payout[slot] = order.getPayoutCents();
+        weight[slot] = order.getWeightLbs();
+        volume[slot] = order.getVolumeCuft();
+        pickupDay[slot] = (int) order.getPickupDate().toEpochDay();
+        deliveryDay[slot] = (int) order.getDeliveryDate().toEpochDay();
+        link(slot, classId(order));
+        slotsById.put(order.getId(), slot);
+        return existing == null;
+    }
+
+    boolean remove(String orderId) {
+        Integer slot = slotsById.remove(orderId);
+        if (slot == null) {
+            return false;
+        }
+        unlink(slot);
+        release(slot);
+        return true;
+    }
+
+    /**
+     * Removes every order picked up before {@code day}
+     *
+     * @return how many were removed
+     */
+    int expirePickupBefore(LocalDate day) {
+        NavigableMap<Integer, BitSet> expired = slotsByPickupDay.headMap((int) day.toEpochDay(), false);
+        List<BitSet> days = new ArrayList<>(expired.values());
+        int removed = 0;
+        for (BitSet slots : days) {
+            for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+                removed += remove(ids[slot]) ? 1 : 0;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Orders of one lane picked up within the window, both ends inclusive and
+     * optional. A null {@code hazmat} takes both classes of the lane.
+     */
+    List<Order> candidates(String origin, String destination, Boolean hazmat, LocalDate pickupFrom,
+            LocalDate pickupTo) {
+        int from = pickupFrom == null ? Integer.MIN_VALUE : (int) pickupFrom.toEpochDay();
+        int to = pickupTo == null ? Integer.MAX_VALUE : (int) pickupTo.toEpochDay();
+        List<Order> candidates = new ArrayList<>();
+        for (boolean flag : new boolean[] {false, true}) {
+            if (hazmat != null && hazmat != flag) {
+                continue;
+            }
+            Integer id = classIds.get(CompatibilityKey.of(origin, destination, flag));
+            if (id == null) {
+                continue;
+            }
+            OrderClass orderClass = classes.get(id);
+            for (int i = 0; i < orderClass.size; i++) {
+                int slot = orderClass.slots[i];
+                if (pickupDay[slot] >= from && pickupDay[slot] <= to) {
+                    candidates.add(toOrder(slot, orderClass));
+                }
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Every order on the board, class by class in lookup order
+     */
+    void forEach(Consumer<Order> action) {
+        for (OrderClass orderClass : classes) {
+            for (int i = 0; i < orderClass.size; i++) {
+                action.accept(toOrder(orderClass.slots[i], orderClass));
+            }
+        }
+    }
+
+    private Order toOrder(int slot, OrderClass orderClass) {
+        return new Order(ids[slot], payout[slot], weight[slot], volume[slot],
+                orderClass.origin, orderClass.destination,
+                LocalDate.ofEpochDay(pickupDay[slot]), LocalDate.ofEpochDay(deliveryDay[slot]),
+                orderClass.hazmat);
+    }
+
+    private int classId(Order order) {
+        return classIds.computeIfAbsent(CompatibilityKey.of(order), key -> {
+            classes.add(new OrderClass(order.getOrigin(), order.getDestination(), order.isHazmat()));
+            return classes.size() - 1;
+        });
+    }
+
+    private void link(int slot, int classId) {
+        OrderClass orderClass = classes.get(classId);
+        if (orderClass.size == orderClass.slots.length) {
+            orderClass.slots = Arrays.copyOf(orderClass.slots, orderClass.size * 2);
+        }
+        classOf[slot] = classId;
+        positionInClass[slot] = orderClass.size;
+        orderClass.slots[orderClass.size++] = slot;
+        slotsByPickupDay.computeIfAbsent(pickupDay[slot], day -> new BitSet()).set(slot);
+    }
+
+    private void unlink(int slot) {
+        OrderClass orderClass = classes.get(classOf[slot]);
+        int last = orderClass.slots[--orderClass.size];
+        orderClass.slots[positionInClass[slot]] = last;
+        positionInClass[last] = positionInClass[slot];
+
+        BitSet day = slotsByPickupDay.get(pickupDay[slot]);
+        day.clear(slot);
+        if (day.isEmpty()) {
+            slotsByPickupDay.remove(pickupDay[slot]);
+        }
+    }
+
+    private int allocate() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (used == ids.length) {
+            int capacity = used * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            payout = Arrays.copyOf(payout, capacity);
+            weight = Arrays.copyOf(weight, capacity);
+            volume = Arrays.copyOf(volume, capacity);
+            classOf = Arrays.copyOf(classOf, capacity);
+            positionInClass = Arrays.copyOf(positionInClass, capacity);
+            pickupDay = Arrays.copyOf(pickupDay, capacity);
+            deliveryDay = Arrays.copyOf(deliveryDay, capacity);
+            freeSlots = Arrays.copyOf(freeSlots, capacity);
+        }
+        return used++;
+    }
+
+    private void release(int slot) {
+        ids[slot] = null;
+        freeSlots[freeCount++] = slot;
+    }
+}
@@ -0,0 +1,336 @@
+package com.teleport.smartload.service;
+
+import com.teleport.smartload.model.Order;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.zip.CRC32C;
+
+/**
+ * Makes the order board survive restarts. Every change is appended to a
+ * memory-mapped log as a binary record; when the log is full the whole board
+ * is written to a snapshot and the log starts over. Startup loads the snapshot
+ * and replays the log after it.
+ * <p>
+ * Records are {@code [length][crc][payload]}, the checksum also covering the
+ * log's generation: replay stops at the first record that is torn, corrupt or
+ * left over from before the last compaction. The log is never forced to disk,
+ * so the write path costs a few memory stores; what is written survives the
+ * process, though not necessarily the machine, going down.
+ * <p>
+ * Not thread-safe, {@link OrderBookService} guards it together with the board.
+ */
+final class OrderBookJournal implements AutoCloseable {
+
+    static final String LOG_FILE = "orderbook.log";
+    static final String SNAPSHOT_FILE = "orderbook.snapshot";
+
+    private static final int LOG_MAGIC = 0x534c4a31;
+    private static final int SNAPSHOT_MAGIC = 0x534c5331;
+    // magic, generation
+    private static final int LOG_HEADER = 12;
+    // magic, generation, order count
+    private static final int SNAPSHOT_HEADER = 16;
+    private static final int RECORD_HEADER = 8;
+
+    private static final byte UPSERT = 1;
+    private static final byte REMOVE = 2;
+    private static final byte EXPIRE = 3;
+
+    private final Path directory;
+    private final FileChannel channel;
+    private final MappedByteBuffer log;
+    private final CRC32C crc = new CRC32C();
+    // reused for payloads, grown for unusually long strings
+    private ByteBuffer payload = ByteBuffer.allocate(512);
+    private long generation;
+
+    private OrderBookJournal(Path directory, FileChannel channel, MappedByteBuffer log) {
+        this.directory = directory;
+        this.channel = channel;
+        this.log = log;
+    }
+
+    /**
+     * Opens the journal in {@code directory}, creating it if needed, and loads
+     * what it holds into {@code book}
+     *
+     * @param capacity bytes mapped for the log, compaction happens when they run out
+     */
+    static OrderBookJournal open(Path directory, int capacity, OrderBook book) {
+        try {
+            Files.createDirectories(directory);
+            FileChannel channel = FileChannel.open(directory.resolve(LOG_FILE), StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long size = Math.max(capacity, channel.size());
+            OrderBookJournal journal = new OrderBookJournal(directory, channel,
+                    channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            journal.recover(book);
+            return journal;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the order book journal in " + directory, e);
+        }
+    }
+
+    private void recover(OrderBook book) throws IOException {
+        long snapshotGeneration = loadSnapshot(book);
+        boolean fresh = log.getInt(0) != LOG_MAGIC;
+        if (fresh || log.getLong(4) != snapshotGeneration) {
+            // a new log, or one whose records the snapshot already has
+            generation = snapshotGeneration;
+            reset();
+            return;
+        }
+        generation = snapshotGeneration;
+        log.position(LOG_HEADER);
+        while (true) {
+            ByteBuffer record = nextRecord(log, generation);
+            if (record == null) {
+                break;
+            }
+            apply(record, book);
+        }
+        // anything past here is torn or stale, the next append overwrites it
+    }
+
+    private long loadSnapshot(OrderBook book) throws IOException {
+        Path file = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        try (FileChannel snapshotChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer snapshot = snapshotChannel.map(FileChannel.MapMode.READ_ONLY, 0, snapshotChannel.size());
+            if (snapshot.limit() < SNAPSHOT_HEADER || snapshot.getInt(0) != SNAPSHOT_MAGIC) {
+                throw new IOException("Not an order book snapshot: " + file);
+            }
+            long snapshotGeneration = snapshot.getLong(4);
+            int count = snapshot.getInt(12);
+            snapshot.position(SNAPSHOT_HEADER);
+            for (int i = 0; i < count; i++) {
+                ByteBuffer record = nextRecord(snapshot, snapshotGeneration);
+                if (record == null) {
+                    throw new IOException("Order book snapshot is damaged: " + file);
+                }
+                apply(record, book);
+            }
+            return snapshotGeneration;
+        }
+    }
+
+    /**
+     * The payload of the record at the buffer's position, which moves past it,
+     * or null when there is no intact record there
+     */
+    private ByteBuffer nextRecord(ByteBuffer buffer, long generation) {
+        int at = buffer.position();
+        if (buffer.limit() - at < RECORD_HEADER) {
+            return null;
+        }
+        int length = buffer.getInt(at);
+        if (length <= 0 || length > buffer.limit() - at - RECORD_HEADER) {
+            return null;
+        }
+        ByteBuffer record = buffer.slice(at + RECORD_HEADER, length);
+        if (checksum(generation, record) != buffer.getInt(at + 4)) {
+            return null;
+        }
+        buffer.position(at + RECORD_HEADER + length);
+        return record;
+    }
+
+    private int checksum(long generation, ByteBuffer payload) {
+        crc.reset();
+        for (int shift = 0; shift < 64; shift += 8) {
+            crc.update((int) (generation >>> shift));
+        }
+        crc.update(payload.duplicate());
+        return (int) crc.getValue();
+    }
+
+    private static void apply(ByteBuffer record, OrderBook book) {
+        switch (record.get()) {
+            case UPSERT -> {
+                String id = getString(record);
+                long payout = record.getLong();
+                int weight = record.getInt();
+                int volume = record.getInt();
+                LocalDate pickup = LocalDate.ofEpochDay(record.getInt());
+                LocalDate delivery = LocalDate.ofEpochDay(record.getInt());
+                boolean hazmat = record.get() != 0;
+                book.upsert(new Order(id, payout, weight, volume, getString(record), getString(record),
+                        pickup, delivery, hazmat));
+            }
+            case REMOVE -> book.remove(getString(record));
+            case EXPIRE -> book.expirePickupBefore(LocalDate.ofEpochDay(record.getInt()));
+            default -> throw new IllegalStateException("Unknown order book journal record");
+        }
+    }
+
+    /**
+     * Logs an upsert already applied to {@code book}
+     */
+    void upsert(Order order, OrderBook book) {
+        append(encode(order), book);
+    }
+
+    private ByteBuffer encode(Order order) {
+        byte[] id = order.getId().getBytes(StandardCharsets.UTF_8);
+        byte[] origin = order.getOrigin().getBytes(StandardCharsets.UTF_8);
+        byte[] destination = order.getDestination().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer record = payload(1 + 12 + id.length + origin.length + destination.length + 8 + 16 + 1);
+        record.put(UPSERT);
+        putString(record, id);
+        record.putLong(order.getPayoutCents())
+                .putInt(order.getWeightLbs())
+                .putInt(order.getVolumeCuft())
+                .putInt((int) order.getPickupDate().toEpochDay())
+                .putInt((int) order.getDeliveryDate().toEpochDay())
+                .put((byte) (order.isHazmat() ? 1 : 0));
+        putString(record, origin);
+        putString(record, destination);
+        return record.flip();
+    }
+
+    /**
+     * Logs a removal already applied to {@code book}
+     */
+    void remove(String orderId, OrderBook book) {
+        byte[] id = orderId.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer record = payload(1 + 4 + id.length);
+        record.put(REMOVE);
+        putString(record, id);
+        append(record.flip(), book);
+    }
+
+    /**
+     * Logs an expiry already applied to {@code book}
+     */
+    void expire(LocalDate day, OrderBook book) {
+        ByteBuffer record = payload(1 + 4);
+        record.put(EXPIRE).putInt((int) day.toEpochDay());
+        append(record.flip(), book);
+    }
+
+    private ByteBuffer payload(int size) {
+        if (payload.capacity() < size) {
+            payload = ByteBuffer.allocate(Math.max(size, payload.capacity() * 2));
+        }
+        return payload.clear();
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        buffer.putInt(bytes.length).put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // the change is already in the book, so a full log is settled by a snapshot that includes it
+    private void append(ByteBuffer record, OrderBook book) {
+        int length = record.remaining();
+        if (log.remaining() < RECORD_HEADER + length) {
+            compact(book);
+            return;
+        }
+        int at = log.position();
+        // the length goes last, so a record cut short never looks complete
+        log.position(at + 4);
+        log.putInt(checksum(generation, record));
+        log.put(record);
+        log.putInt(at, length);
+    }
+
+    /**
+     * Writes the board to a new snapshot and empties the log. The snapshot gets
+     * the next generation, so even if the process dies before the log is reset,
+     * startup knows the old records are already in it.
+     */
+    void compact(OrderBook book) {
+        Path target = directory.resolve(SNAPSHOT_FILE);
+        Path temp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        long next = generation + 1;
+        try {
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                SnapshotWriter writer = new SnapshotWriter(out, next);
+                writer.buffer.putInt(SNAPSHOT_MAGIC).putLong(next).putInt(book.size());
+                book.forEach(writer::write);
+                writer.flush();
+                out.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the order book snapshot", e);
+        }
+        generation = next;
+        reset();
+    }
+
+    private void reset() {
+        log.putInt(0, LOG_MAGIC);
+        log.putLong(4, generation);
+        // a stale record right after the header would fail its checksum anyway, clearing it is cheap insurance
+        log.putInt(LOG_HEADER, 0);
+        log.position(LOG_HEADER);
+    }
+
+    /**
+     * Streams records into the snapshot file through one buffer
+     */
+    private final class SnapshotWriter {
+        private final FileChannel out;
+        private final long generation;
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+
+        SnapshotWriter(FileChannel out, long generation) {
+            this.out = out;
+            this.generation = generation;
+        }
+
+        void write(Order order) {
+            ByteBuffer record = encode(order);
+            int size = RECORD_HEADER + record.remaining();
+            try {
+                if (buffer.remaining() < size) {
+                    flush();
+                    if (buffer.capacity() < size) {
+                        buffer = ByteBuffer.allocate(size);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write the order book snapshot", e);
+            }
+            buffer.putInt(record.remaining()).putInt(checksum(generation, record)).put(record);
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            log.force();
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.teleport.smartload.service;
+
+import com.teleport.smartload.config.OrderBookProperties;
+import com.teleport.smartload.dto.LargePoolOptimizeRequest;
+import com.teleport.smartload.dto.OptimizeRequest;
+import com.teleport.smartload.dto.OptimizeResponse;
+import com.teleport.smartload.dto.OrderBookResponse;
+import com.teleport.smartload.dto.OrderBookUpsertRequest;
+import com.teleport.smartload.dto.TruckOptimizeRequest;
+import com.teleport.smartload.exception.OrderNotFoundException;
+import com.teleport.smartload.model.Order;
+import com.teleport.smartload.solver.CompatibilityRule;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps the order board in memory (see {@link OrderBook}) so trucks can be
+ * optimized against it by lane, without resending the orders. The board size
+ * is published as {@code smartload.orderbook.orders}.
+ * <p>
+ * With {@code smartload.orderbook.journal-dir} set, every change is also
+ * journaled (see {@link OrderBookJournal}) and the board is rebuilt from the
+ * journal on startup.
+ * <p>
+ * Reads share a lock and only hold it while copying the candidates out, the
+ * solve runs without it.
+ */
+@Service
+public class OrderBookService implements AutoCloseable {
+
+    private final OrderBook book = new OrderBook();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LoadOptimizerService optimizer;
+    private final CompatibilityRule compatibilityRule;
+    // null when the board is in memory only
+    private final OrderBookJournal journal;
+
+    public OrderBookService(LoadOptimizerService optimizer, MeterRegistry meterRegistry) {
+        this(optimizer, new OrderBookProperties(), meterRegistry, CompatibilityRule.LANE_AND_HAZMAT);
+    }
+
+    /**
+     * Sizes classes with the application's {@link CompatibilityRule} bean if it
+     * defines one, lane and hazmat otherwise, like the optimizer does
+     */
+    @Autowired
+    public OrderBookService(LoadOptimizerService optimizer, OrderBookProperties properties,
+            MeterRegistry meterRegistry, ObjectProvider<CompatibilityRule> compatibilityRules) {
+        this(optimizer, properties, meterRegistry,
+                compatibilityRules.getIfAvailable(() -> CompatibilityRule.LANE_AND_HAZMAT));
+    }
+
+    public OrderBookService(LoadOptimizerService optimizer, OrderBookProperties properties,
+            MeterRegistry meterRegistry, CompatibilityRule compatibilityRule) {
+        this.optimizer = optimizer;
+        this.compatibilityRule = compatibilityRule;
+        this.journal = properties.getJournalDir() == null
+                ? null
+                : OrderBookJournal.open(properties.getJournalDir(),
+                        Math.toIntExact(properties.getJournalSize().toBytes()), book);
+        Gauge.builder("smartload.orderbook.orders", this, OrderBookService::size)
+                .description("Orders on the board")
+                .register(meterRegistry);
+    }
+
+    public OrderBookResponse upsert(OrderBookUpsertRequest request) {
+        lock.writeLock().lock();
+        try {
+            for (Order order : request.getOrders()) {
+                book.upsert(order);
+                if (journal != null) {
+                    journal.upsert(order, book);
+                }
+            }
+            return new OrderBookResponse(request.getOrders().size(), book.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String orderId) {
+        lock.writeLock().lock();
+        try {
+            if (!book.remove(orderId)) {
+                throw new OrderNotFoundException(orderId);
+            }
+            if (journal != null) {
+                journal.remove(orderId, book);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops every order whose pickup day is before {@code day}
+     */
+    public OrderBookResponse expire(LocalDate day) {
+        lock.writeLock().lock();
+        try {
+            int removed = book.expirePickupBefore(day);
+            if (journal != null && removed > 0) {
+                journal.expire(day, book);
+            }
+            return new OrderBookResponse(removed, book.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Optimizes the truck over the board's orders for its lane. A class over the
+     * per-request limit is solved like a large pool, without alternatives.
+     */
+    public OptimizeResponse optimizeTruck(TruckOptimizeRequest request) {
+        List<Order> candidates;
+        lock.readLock().lock();
+        try {
+            candidates = book.candidates(request.getOrigin(), request.getDestination(), request.getHazmat(),
+                    request.getPickupFrom(), request.getPickupTo());
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // sized by the optimizer's rule, which may join or split the board's lane classes
+        Map<Object, Integer> classSizes = new HashMap<>();
+        int largestClass = 0;
+        for (Order order : candidates) {
+            largestClass = Math.max(largestClass,
+                    classSizes.merge(compatibilityRule.groupKey(order), 1, Integer::sum));
+        }
+        if (largestClass > OptimizeRequest.MAX_ORDERS_PER_CLASS) {
+            LargePoolOptimizeRequest largePool = new LargePoolOptimizeRequest(request.getTruck(), candidates);
+            largePool.setTimeBudgetMs(request.getTimeBudgetMs());
+            return optimizer.optimizeLargePool(largePool);
+        }
+        OptimizeRequest optimize = new OptimizeRequest(request.getTruck(), candidates);
+        optimize.setTimeBudgetMs(request.getTimeBudgetMs());
+        optimize.setTopK(request.getTopK());
+        return optimizer.optimize(optimize);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return book.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (journal != null) {
+            lock.writeLock().lock();
+            try {
+                journal.close();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+}
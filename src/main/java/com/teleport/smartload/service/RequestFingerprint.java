@@ -0,0 +1,77 @@
+package com.teleport.smartload.service;
+
+import com.teleport.smartload.dto.OptimizeRequest;
+import com.teleport.smartload.model.Order;
+import com.teleport.smartload.model.Truck;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 128-bit digest of everything that decides an optimize result: the truck
+ * capacities and the orders as a sorted set of tuples. The truck ID and the
+ * order in which orders are listed don't matter, so reordered resubmits of the
+ * same pool map to the same fingerprint.
+ */
+public record RequestFingerprint(long high, long low) {
+
+    private static final Comparator<Order> CANONICAL_ORDER = Comparator
+            .comparing(Order::getId, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparingLong(Order::getPayoutCents)
+            .thenComparingInt(Order::getWeightLbs)
+            .thenComparingInt(Order::getVolumeCuft)
+            .thenComparing(o -> Objects.toString(o.getOrigin(), ""))
+            .thenComparing(o -> Objects.toString(o.getDestination(), ""))
+            .thenComparing(o -> Objects.toString(o.getPickupDate(), ""))
+            .thenComparing(o -> Objects.toString(o.getDeliveryDate(), ""))
+            .thenComparing(Order::isHazmat);
+
+    public static RequestFingerprint of(OptimizeRequest request) {
+        Truck truck = request.getTruck();
+        StringBuilder canonical = new StringBuilder(256);
+        canonical.append(truck.getMaxWeightLbs()).append('|').append(truck.getMaxVolumeCuft());
+
+        List<Order> orders = request.getOrders() == null ? new ArrayList<>() : new ArrayList<>(request.getOrders());
+        orders.sort(CANONICAL_ORDER);
+        for (Order order : orders) {
+            canonical.append('\n');
+            appendField(canonical, order.getId());
+            canonical.append(order.getPayoutCents()).append('|')
+                    .append(order.getWeightLbs()).append('|')
+                    .append(order.getVolumeCuft()).append('|');
+            appendField(canonical, order.getOrigin());
+            appendField(canonical, order.getDestination());
+            appendField(canonical, Objects.toString(order.getPickupDate(), null));
+            appendField(canonical, Objects.toString(order.getDeliveryDate(), null));
+            canonical.append(order.isHazmat() ? 'H' : 'R');
+        }
+        return digest(canonical);
+    }
+
+    // length-prefixed so no ID or city name can run into the next field
+    private static void appendField(StringBuilder canonical, String value) {
+        if (value == null) {
+            canonical.append("-1:");
+        } else {
+            canonical.append(value.length()).append(':').append(value);
+        }
+    }
+
+    private static RequestFingerprint digest(CharSequence canonical) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            ByteBuffer buffer = ByteBuffer.wrap(hash);
+            return new RequestFingerprint(buffer.getLong(), buffer.getLong());
+        } catch (NoSuchAlgorithmException ex) {
+            // every JVM ships SHA-256
+            throw new IllegalStateException(ex);
+        }
+    }
+}
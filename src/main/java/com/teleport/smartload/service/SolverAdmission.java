@@ -0,0 +1,152 @@
+package com.teleport.smartload.service;
+
+import com.teleport.smartload.config.SolverProperties;
+import com.teleport.smartload.exception.SolverOverloadedException;
+import com.teleport.smartload.solver.CancellationToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Supplier;
+
+/**
+ * Moves CPU-heavy solves off the request thread onto the bounded solver pool,
+ * the request thread is handed back while they run. When the pool and its queue
+ * are full the call is refused right away with {@link SolverOverloadedException}
+ * instead of queueing without limit.
+ * <p>
+ * Submitted solves can be cancelled by their callers (see {@link #submit}).
+ * Keyed ones are also coalesced: while one runs, identical ones wait for its
+ * result and take no pool or queue slot. They are counted in
+ * {@code smartload.solver.coalesced}.
+ */
+@Service
+public class SolverAdmission {
+
+    private final ThreadPoolExecutor solverExecutor;
+    private final long retryAfterSeconds;
+    private final boolean coalesce;
+    // only solves still running, an entry goes when its solve completes or is abandoned
+    private final ConcurrentMap<Object, Flight<?>> inFlight = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+
+    public SolverAdmission(ThreadPoolExecutor solverExecutor, SolverProperties properties) {
+        this(solverExecutor, properties, new SimpleMeterRegistry());
+    }
+
+    @Autowired
+    public SolverAdmission(@Qualifier("solverExecutor") ThreadPoolExecutor solverExecutor,
+            SolverProperties properties, MeterRegistry meterRegistry) {
+        this.solverExecutor = solverExecutor;
+        this.retryAfterSeconds = Math.max(1, properties.getRetryAfter().toSeconds());
+        this.coalesce = properties.isCoalesce();
+        this.coalesced = Counter.builder("smartload.solver.coalesced")
+                .description("Calls that shared the result of an identical one in flight")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts the task on the solver pool and returns this caller's view of it.
+     * A call whose key equals one still running shares that one's solve, result
+     * or exception; a null key is never shared. Keys must capture everything the
+     * result depends on.
+     * <p>
+     * Cancelling the returned future lets this caller go. Once every caller of a
+     * solve has, its {@link CancellationToken} is cancelled and the engines stop
+     * at their next budget check; a solve still queued doesn't start.
+     *
+     * @throws SolverOverloadedException right away when the pool and its queue are full
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> submit(Object key, Supplier<T> task) {
+        Object flightKey = coalesce ? key : null;
+        Flight<T> created = new Flight<>(flightKey);
+        Flight<T> flight = flightKey == null
+                ? created
+                : (Flight<T>) inFlight.compute(flightKey,
+                        (k, running) -> running != null && running.join() ? running : created);
+        if (flight == created) {
+            start(created, task);
+        } else {
+            coalesced.increment();
+        }
+        return flight.waiter();
+    }
+
+    private <T> void start(Flight<T> flight, Supplier<T> task) {
+        try {
+            solverExecutor.execute(() -> {
+                if (flight.token.isCancelled()) {
+                    flight.result.cancel(false);
+                    return;
+                }
+                try {
+                    flight.result.complete(CancellationToken.callWith(flight.token, task));
+                } catch (Throwable ex) {
+                    flight.result.completeExceptionally(ex);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            SolverOverloadedException overloaded = new SolverOverloadedException(retryAfterSeconds);
+            // callers that joined in the meantime get the 429 too
+            flight.result.completeExceptionally(overloaded);
+            throw overloaded;
+        }
+    }
+
+    /**
+     * One solve and the callers waiting for it. The waiter count only changes
+     * under the flight's monitor, and a flight nobody waits for takes no new ones.
+     */
+    private final class Flight<T> {
+        final Object key;
+        final CancellationToken token = new CancellationToken();
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        private int waiters = 1;
+
+        Flight(Object key) {
+            this.key = key;
+            if (key != null) {
+                result.whenComplete((value, ex) -> inFlight.remove(key, this));
+            }
+        }
+
+        synchronized boolean join() {
+            if (waiters == 0) {
+                return false;
+            }
+            waiters++;
+            return true;
+        }
+
+        CompletableFuture<T> waiter() {
+            CompletableFuture<T> waiter = result.copy();
+            waiter.whenComplete((value, ex) -> {
+                if (waiter.isCancelled()) {
+                    leave();
+                }
+            });
+            return waiter;
+        }
+
+        private void leave() {
+            synchronized (this) {
+                if (--waiters > 0) {
+                    return;
+                }
+            }
+            token.cancel();
+            if (key != null) {
+                inFlight.remove(key, this);
+            }
+        }
+    }
+}
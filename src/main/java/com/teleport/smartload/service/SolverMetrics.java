@@ -0,0 +1,90 @@
+package com.teleport.smartload.service;
+
+import com.teleport.smartload.solver.SolveStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes what the solver did for each request under {@code smartload.solver.*}.
+ * Everything is tagged with an order-count bucket, search meters with the engine too,
+ * so a latency jump can be traced to input shape or to one engine.
+ */
+public class SolverMetrics {
+
+    private final MeterRegistry registry;
+
+    public SolverMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void recordFilter(int orders, long nanos) {
+        timer("smartload.solver.filter", "Date and capacity filtering", orders)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordSort(int orders, long nanos) {
+        timer("smartload.solver.sort", "Density sort of one compatibility class", orders)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordSearch(String engine, int orders, long nanos, SolveStats stats) {
+        String bucket = bucket(orders);
+        Timer.builder("smartload.solver.search")
+                .description("Engine run over one compatibility class")
+                .tags("engine", engine, "orders", bucket)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("smartload.solver.nodes")
+                .description("Search nodes visited per solve")
+                .tags("engine", engine, "orders", bucket)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(stats.getNodes());
+        prunes(engine, bucket, "bound").increment(stats.getBoundPrunes());
+        prunes(engine, bucket, "capacity").increment(stats.getCapacityPrunes());
+        prunes(engine, bucket, "compatibility").increment(stats.getCompatibilityPrunes());
+        prunes(engine, bucket, "dominance").increment(stats.getDominancePrunes());
+        prunes(engine, bucket, "transposition").increment(stats.getTranspositionPrunes());
+        Counter.builder("smartload.solver.improvements")
+                .description("Times the incumbent load got better")
+                .tags("engine", engine, "orders", bucket)
+                .register(registry)
+                .increment(stats.getImprovements());
+    }
+
+    private Timer timer(String name, String description, int orders) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("orders", bucket(orders))
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private Counter prunes(String engine, String bucket, String cause) {
+        return Counter.builder("smartload.solver.prunes")
+                .description("Pruned subtrees and skipped orders by cause")
+                .tags("engine", engine, "orders", bucket, "cause", cause)
+                .register(registry);
+    }
+
+    /**
+     * Power-of-two ranges keep the tag's cardinality small
+     */
+    static String bucket(int orders) {
+        if (orders <= 8) {
+            return "1-8";
+        }
+        if (orders <= 16) {
+            return "9-16";
+        }
+        if (orders <= 32) {
+            return "17-32";
+        }
+        return orders <= 64 ? "33-64" : "65+";
+    }
+}
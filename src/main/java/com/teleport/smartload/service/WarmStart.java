@@ -0,0 +1,82 @@
+package com.teleport.smartload.service;
+
+import com.teleport.smartload.model.Order;
+import com.teleport.smartload.solver.OrderPool;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * What the previous solve of one session left behind, per compatibility class
+ * (keyed by the rule's group key). Orders are matched by instance, a session
+ * keeps the same {@link Order} objects between solves.
+ * <p>
+ * Classes of one request may be solved in parallel, so the map is concurrent;
+ * solves of the same session are serialized by the session itself.
+ */
+final class WarmStart {
+
+    /**
+     * The orders a class had and which of them were loaded
+     */
+    record ClassState(Set<Order> orders, Set<Order> selected, boolean optimal) {
+    }
+
+    private final Map<Object, ClassState> classes = new ConcurrentHashMap<>();
+
+    ClassState get(Object groupKey) {
+        return classes.get(groupKey);
+    }
+
+    void put(Object groupKey, OrderPool pool, long mask, boolean optimal) {
+        Set<Order> orders = new HashSet<>(pool.size() * 2);
+        for (int i = 0; i < pool.size(); i++) {
+            orders.add(pool.order(i));
+        }
+        Set<Order> selected = new HashSet<>();
+        for (long m = mask; m != 0; m &= m - 1) {
+            selected.add(pool.order(Long.numberOfTrailingZeros(m)));
+        }
+        classes.put(groupKey, new ClassState(orders, selected, optimal));
+    }
+
+    /**
+     * Forgets classes the latest solve no longer had
+     */
+    void retain(Collection<Object> groupKeys) {
+        classes.keySet().retainAll(groupKeys);
+    }
+
+    /**
+     * The previously loaded orders that are still in {@code pool}, as a pool mask
+     */
+    static long selectedIn(ClassState state, OrderPool pool) {
+        long mask = 0;
+        for (int i = 0; i < pool.size(); i++) {
+            if (state.selected().contains(pool.order(i))) {
+                mask |= 1L << i;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * True when removing orders can't have changed the optimum: the old load was
+     * optimal, every order of it is still there and nothing was added. Dropping
+     * orders that weren't loaded leaves the best load the best.
+     */
+    static boolean stillOptimal(ClassState state, OrderPool pool, long selectedMask) {
+        if (!state.optimal() || Long.bitCount(selectedMask) != state.selected().size()) {
+            return false;
+        }
+        for (int i = 0; i < pool.size(); i++) {
+            if (!state.orders().contains(pool.order(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
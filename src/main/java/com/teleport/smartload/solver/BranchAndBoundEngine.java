@@ -0,0 +1,507 @@
+package com.teleport.smartload.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Depth-first branch and bound over the primitive pool.
+ * The current and best selections are long bitmasks and all per-node state is
+ * passed as primitives, so the search loop doesn't allocate.
+ * <p>
+ * Nodes are pruned against the LP relaxation of the surrogate constraint
+ * {@code w / maxWeight + v / maxVolume <= remaining}, which accounts for both
+ * dimensions at once. Orders are searched in decreasing surrogate density, so the
+ * relaxation is solved by a greedy walk over the remaining orders that stops at
+ * the first one that only fits fractionally.
+ * <p>
+ * Two more prunes cut repeated work: an order isn't taken once an order that
+ * {@link Dominance dominates} it was passed over, and a node whose state was
+ * already reached with at least its payout is dropped (see {@link TranspositionTable}).
+ * <p>
+ * The search starts from the density-greedy load, or from a caller's warm start
+ * when that pays more, so it always has an answer to give back when the
+ * {@link SolveBudget} runs out. A search that was cut short
+ * reports the root LP bound as its upper bound.
+ */
+public final class BranchAndBoundEngine implements SolverEngine {
+
+    public static final String NAME = "branch-and-bound";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Solution solve(OrderPool pool, int maxWeight, int maxVolume, SolveBudget budget, SolveStats stats) {
+        return solve(pool, maxWeight, maxVolume, budget, stats, 0L);
+    }
+
+    @Override
+    public Solution solve(OrderPool pool, int maxWeight, int maxVolume, SolveBudget budget, SolveStats stats,
+            long warmStart) {
+        if (pool.size() == 0) {
+            return Solution.EMPTY;
+        }
+        Problem problem = new Problem(pool, maxWeight, maxVolume);
+        Search search = new Search(problem, null, budget, stats);
+        search.bestMask = problem.incumbent(warmStart);
+        search.bestPayout = problem.payoutOf(search.bestMask);
+        search.run(0, 0L, 0L, 0, 0);
+        long upperBound = search.stopped
+                ? Math.max(search.bestPayout, problem.rootBound())
+                : search.bestPayout;
+        return new Solution(problem.toPoolMask(search.bestMask), search.bestPayout, upperBound);
+    }
+
+    /**
+     * The {@code k} best distinct loads in one search, best first, ties in
+     * search order. Only maximal loads count - a load another order could still
+     * join is never a real alternative to the bigger one. Subtrees are pruned
+     * against the k-th best instead of the best, and the dominance and
+     * transposition prunes are off since they drop runner-up loads.
+     * <p>
+     * When the budget runs out the loads found so far are returned, the first
+     * one carrying the root bound as its upper bound.
+     */
+    public List<Solution> solveRanked(OrderPool pool, int maxWeight, int maxVolume, int k, SolveBudget budget,
+            SolveStats stats) {
+        if (pool.size() == 0) {
+            return List.of(Solution.EMPTY);
+        }
+        Problem problem = new Problem(pool, maxWeight, maxVolume);
+        RankedSearch search = new RankedSearch(problem, k, budget, stats);
+        // the greedy load is maximal, so there is something to return even out of time
+        long greedy = problem.greedy();
+        search.offer(greedy, problem.payoutOf(greedy));
+        search.run(0, 0L, 0L, 0, 0);
+
+        List<Solution> loads = new ArrayList<>(search.size);
+        for (int r = 0; r < search.size; r++) {
+            long payout = search.payouts[r];
+            long upperBound = r == 0 && search.stopped ? Math.max(payout, problem.rootBound()) : payout;
+            loads.add(new Solution(problem.toPoolMask(search.masks[r]), payout, upperBound));
+        }
+        return loads;
+    }
+
+    /**
+     * Read-only arrays of one solve, in search order. Built once and shared by
+     * every search running on it; {@code poolIndex} maps back to the pool.
+     */
+    static final class Problem {
+        final int n;
+        final int[] poolIndex;
+        final int[] searchIndex;
+        final int[] weight;
+        final int[] volume;
+        final long[] payout;
+        // compatibility rows remapped to search order
+        final long[] compatibility;
+        // earlier orders in search order that dominate order i
+        final long[] dominators;
+        // w * maxVolume + v * maxWeight, the surrogate size scaled to stay integral
+        final long[] surrogate;
+        final int maxWeight;
+        final int maxVolume;
+        // max possible payout from index i onwards
+        final long[] suffixPayouts;
+
+        Problem(OrderPool pool, int maxWeight, int maxVolume) {
+            this.n = pool.size();
+            this.maxWeight = maxWeight;
+            this.maxVolume = maxVolume;
+            this.poolIndex = densityOrder(pool, maxWeight, maxVolume);
+            this.weight = new int[n];
+            this.volume = new int[n];
+            this.payout = new long[n];
+            this.surrogate = new long[n];
+            this.compatibility = new long[n];
+            this.searchIndex = new int[n];
+            for (int k = 0; k < n; k++) {
+                searchIndex[poolIndex[k]] = k;
+            }
+            for (int k = 0; k < n; k++) {
+                int i = poolIndex[k];
+                weight[k] = pool.weights()[i];
+                volume[k] = pool.volumes()[i];
+                payout[k] = pool.payouts()[i];
+                surrogate[k] = surrogateSize(weight[k], volume[k], maxWeight, maxVolume);
+                for (long m = pool.compatibility()[i]; m != 0; m &= m - 1) {
+                    compatibility[k] |= 1L << searchIndex[Long.numberOfTrailingZeros(m)];
+                }
+            }
+
+            this.dominators = new long[n];
+            for (int j = 0; j < n; j++) {
+                for (int d = 0; d < j; d++) {
+                    if (Dominance.dominates(d, j, payout, weight, volume, compatibility)) {
+                        dominators[j] |= 1L << d;
+                    }
+                }
+            }
+
+            this.suffixPayouts = new long[n + 1];
+            for (int i = n - 1; i >= 0; i--) {
+                suffixPayouts[i] = suffixPayouts[i + 1] + payout[i];
+            }
+        }
+
+        /**
+         * Pool indices sorted by payout per unit of surrogate size, ties keep pool order
+         */
+        private static int[] densityOrder(OrderPool pool, int maxWeight, int maxVolume) {
+            int n = pool.size();
+            double[] density = new double[n];
+            Integer[] order = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                order[i] = i;
+                density[i] = pool.payouts()[i]
+                        / (double) surrogateSize(pool.weights()[i], pool.volumes()[i], maxWeight, maxVolume);
+            }
+            Arrays.sort(order, (a, b) -> Double.compare(density[b], density[a]));
+
+            int[] indices = new int[n];
+            for (int k = 0; k < n; k++) {
+                indices[k] = order[k];
+            }
+            return indices;
+        }
+
+        private static long surrogateSize(int w, int v, int maxWeight, int maxVolume) {
+            return Math.max(1L, w * (long) maxVolume + v * (long) maxWeight);
+        }
+
+        long toPoolMask(long searchMask) {
+            long mask = 0;
+            for (long m = searchMask; m != 0; m &= m - 1) {
+                mask |= 1L << poolIndex[Long.numberOfTrailingZeros(m)];
+            }
+            return mask;
+        }
+
+        long toSearchMask(long poolMask) {
+            long mask = 0;
+            for (long m = poolMask; m != 0; m &= m - 1) {
+                mask |= 1L << searchIndex[Long.numberOfTrailingZeros(m)];
+            }
+            return mask;
+        }
+
+        long payoutOf(long searchMask) {
+            long total = 0;
+            for (long m = searchMask; m != 0; m &= m - 1) {
+                total += payout[Long.numberOfTrailingZeros(m)];
+            }
+            return total;
+        }
+
+        /**
+         * Takes orders in search order while they fit and match the first one taken
+         */
+        long greedy() {
+            long mask = 0;
+            int currentWeight = 0;
+            int currentVolume = 0;
+            for (int i = 0; i < n; i++) {
+                if (fits(i, currentWeight, currentVolume, mask)) {
+                    mask |= 1L << i;
+                    currentWeight += weight[i];
+                    currentVolume += volume[i];
+                }
+            }
+            return mask;
+        }
+
+        /**
+         * Starting incumbent in search order: the warm start (a pool mask) if it's a
+         * feasible load paying more than the greedy one, the greedy load otherwise
+         */
+        long incumbent(long warmStart) {
+            long greedy = greedy();
+            long warm = toSearchMask(warmStart);
+            return warm != 0 && feasible(warm) && payoutOf(warm) > payoutOf(greedy) ? warm : greedy;
+        }
+
+        private boolean feasible(long searchMask) {
+            long weightTotal = 0;
+            long volumeTotal = 0;
+            for (long m = searchMask; m != 0; m &= m - 1) {
+                int i = Long.numberOfTrailingZeros(m);
+                if (!compatible(i, searchMask)) {
+                    return false;
+                }
+                weightTotal += weight[i];
+                volumeTotal += volume[i];
+            }
+            return weightTotal <= maxWeight && volumeTotal <= maxVolume;
+        }
+
+        /**
+         * Upper bound on any load, the same relaxation the search prunes with at the root
+         */
+        long rootBound() {
+            return Math.min(suffixPayouts[0], fractionalBound(0, 0, 0, 0L));
+        }
+
+        boolean fits(int i, int currentWeight, int currentVolume, long mask) {
+            return fitsCapacity(i, currentWeight, currentVolume) && compatible(i, mask);
+        }
+
+        boolean fitsCapacity(int i, int currentWeight, int currentVolume) {
+            return currentWeight + weight[i] <= maxWeight && currentVolume + volume[i] <= maxVolume;
+        }
+
+        // one AND against the whole current load
+        boolean compatible(int i, long mask) {
+            return (compatibility[i] & mask) == mask;
+        }
+
+        /**
+         * Whether no order outside the load could still be added to it
+         */
+        boolean maximal(long mask, int currentWeight, int currentVolume) {
+            for (int i = 0; i < n; i++) {
+                if ((mask & (1L << i)) == 0 && fits(i, currentWeight, currentVolume, mask)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Orders from index onwards that could still join the load, ignoring capacity
+         */
+        long remaining(int index, long mask) {
+            long open = -1L << index;
+            for (long m = mask; m != 0; m &= m - 1) {
+                open &= compatibility[Long.numberOfTrailingZeros(m)];
+            }
+            return open;
+        }
+
+        /**
+         * Whether taking order i now would leave out one of its dominators. Every
+         * order before i that isn't in the load has been passed over on this path.
+         */
+        boolean passesOverDominator(int i, long mask) {
+            return (dominators[i] & ~mask) != 0;
+        }
+
+        /**
+         * LP bound on what orders from index onwards can add. Orders that don't fit
+         * on their own or can't join the current load are left out, the rest are
+         * packed by density against the remaining surrogate capacity and the first
+         * one that doesn't fit counts fractionally.
+         */
+        long fractionalBound(int index, int currentWeight, int currentVolume, long mask) {
+            int weightLeft = maxWeight - currentWeight;
+            int volumeLeft = maxVolume - currentVolume;
+            long capacity = weightLeft * (long) maxVolume + volumeLeft * (long) maxWeight;
+            long bound = 0;
+            for (int i = index; i < n; i++) {
+                if (!fits(i, currentWeight, currentVolume, mask)) {
+                    continue;
+                }
+                if (surrogate[i] <= capacity) {
+                    capacity -= surrogate[i];
+                    bound += payout[i];
+                } else {
+                    // payouts are whole cents, so rounding the fraction up keeps the bound valid
+                    return bound + (long) Math.ceil(payout[i] * ((double) capacity / surrogate[i]));
+                }
+            }
+            return bound;
+        }
+    }
+
+    /**
+     * One depth-first search with its own incumbent.
+     * <p>
+     * When a shared incumbent is given, improvements are published to it and nodes
+     * are also pruned against it, but only when they can't even tie it. A tie found
+     * by a later search would lose to the earlier one anyway, and leaving ties alone
+     * keeps the answer independent of thread timing.
+     * <p>
+     * The budget is polled every {@link #CHECK_INTERVAL} nodes; once it has run
+     * out the search unwinds and {@link #stopped} is set.
+     */
+    static final class Search {
+        // about a millisecond of search, so a cancelled solve lets go of its core quickly
+        static final int CHECK_INTERVAL = 1 << 10;
+
+        private final Problem problem;
+        private final AtomicLong shared;
+        private final SolveBudget budget;
+        private final SolveStats stats;
+        private final TranspositionTable table;
+
+        long bestPayout;
+        long bestMask;
+        boolean stopped;
+
+        Search(Problem problem, AtomicLong shared, SolveBudget budget, SolveStats stats) {
+            this.problem = problem;
+            this.shared = shared;
+            this.budget = budget;
+            this.stats = stats;
+            this.table = TranspositionTable.acquire();
+        }
+
+        /**
+         * @param mask current load in search order; a candidate must be compatible with all of it
+         */
+        void run(int index, long mask, long currentPayout, int currentWeight, int currentVolume) {
+            // found a better combo? save it
+            if (currentPayout > bestPayout) {
+                bestPayout = currentPayout;
+                bestMask = mask;
+                stats.improvements++;
+                if (shared != null) {
+                    publish(shared, currentPayout);
+                }
+            }
+
+            if (index >= problem.n || stopped) {
+                return;
+            }
+            if ((++stats.nodes & (CHECK_INTERVAL - 1)) == 0 && budget.isExpired()) {
+                stopped = true;
+                return;
+            }
+
+            // Pruning: if current + all remaining can't beat best, skip this branch
+            if (cannotImprove(currentPayout + problem.suffixPayouts[index])) {
+                stats.boundPrunes++;
+                return;
+            }
+
+            long remaining = problem.remaining(index, mask);
+            if (table.seenNoWorse(index, currentWeight, currentVolume, remaining, currentPayout)) {
+                stats.transpositionPrunes++;
+                return;
+            }
+
+            // same question, but only counting what could still fit on the truck
+            if (cannotImprove(currentPayout
+                    + problem.fractionalBound(index, currentWeight, currentVolume, mask))) {
+                stats.boundPrunes++;
+                return;
+            }
+
+            for (int i = index; i < problem.n; i++) {
+                if (!problem.compatible(i, mask)) {
+                    stats.compatibilityPrunes++;
+                    continue;
+                }
+                if (!problem.fitsCapacity(i, currentWeight, currentVolume)) {
+                    stats.capacityPrunes++;
+                    continue;
+                }
+                if (problem.passesOverDominator(i, mask)) {
+                    stats.dominancePrunes++;
+                    continue;
+                }
+                run(i + 1, mask | (1L << i), currentPayout + problem.payout[i],
+                        currentWeight + problem.weight[i], currentVolume + problem.volume[i]);
+            }
+        }
+
+        private boolean cannotImprove(long bound) {
+            return bound <= bestPayout || (shared != null && bound < shared.get());
+        }
+
+        static void publish(AtomicLong shared, long payout) {
+            long current = shared.get();
+            while (payout > current && !shared.compareAndSet(current, payout)) {
+                current = shared.get();
+            }
+        }
+    }
+
+    /**
+     * Depth-first search that keeps the k best maximal loads in a small array
+     * sorted by payout. k is small, so insertion is a shift, not a heap.
+     */
+    static final class RankedSearch {
+        private final Problem problem;
+        private final int k;
+        private final SolveBudget budget;
+        private final SolveStats stats;
+
+        final long[] masks;
+        final long[] payouts;
+        int size;
+        boolean stopped;
+
+        RankedSearch(Problem problem, int k, SolveBudget budget, SolveStats stats) {
+            this.problem = problem;
+            this.k = k;
+            this.budget = budget;
+            this.stats = stats;
+            this.masks = new long[k];
+            this.payouts = new long[k];
+        }
+
+        void run(int index, long mask, long currentPayout, int currentWeight, int currentVolume) {
+            if (!cannotEnter(currentPayout) && problem.maximal(mask, currentWeight, currentVolume)) {
+                offer(mask, currentPayout);
+            }
+
+            if (index >= problem.n || stopped) {
+                return;
+            }
+            if ((++stats.nodes & (Search.CHECK_INTERVAL - 1)) == 0 && budget.isExpired()) {
+                stopped = true;
+                return;
+            }
+
+            if (cannotEnter(currentPayout + problem.suffixPayouts[index])
+                    || cannotEnter(currentPayout
+                            + problem.fractionalBound(index, currentWeight, currentVolume, mask))) {
+                stats.boundPrunes++;
+                return;
+            }
+
+            for (int i = index; i < problem.n; i++) {
+                if (!problem.compatible(i, mask)) {
+                    stats.compatibilityPrunes++;
+                    continue;
+                }
+                if (!problem.fitsCapacity(i, currentWeight, currentVolume)) {
+                    stats.capacityPrunes++;
+                    continue;
+                }
+                run(i + 1, mask | (1L << i), currentPayout + problem.payout[i],
+                        currentWeight + problem.weight[i], currentVolume + problem.volume[i]);
+            }
+        }
+
+        // a full list only takes loads that beat its last entry, so earlier ties stay
+        private boolean cannotEnter(long bound) {
+            return size == k && bound <= payouts[k - 1];
+        }
+
+        void offer(long mask, long payout) {
+            for (int r = 0; r < size; r++) {
+                if (masks[r] == mask) {
+                    return;
+                }
+            }
+            if (size == k && payout <= payouts[k - 1]) {
+                return;
+            }
+            int r = size == k ? k - 1 : size++;
+            while (r > 0 && payouts[r - 1] < payout) {
+                masks[r] = masks[r - 1];
+                payouts[r] = payouts[r - 1];
+                r--;
+            }
+            masks[r] = mask;
+            payouts[r] = payout;
+            stats.improvements++;
+        }
+    }
+}
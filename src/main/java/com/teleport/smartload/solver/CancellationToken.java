@@ -0,0 +1,61 @@
+package com.teleport.smartload.solver;
+
+import java.util.function.Supplier;
+
+/**
+ * Lets whoever waits for a solve call it off. A {@link SolveBudget} made with a
+ * token expires as soon as the token is cancelled, so the engines stop at their
+ * next budget check and return what they have.
+ * <p>
+ * The token of the solve running on a thread is kept in a thread local (see
+ * {@link #callWith}), so it reaches the optimizer without being passed through
+ * every service in between. Budgets pick it up when they are created and carry
+ * it to the worker threads of a parallel search.
+ */
+public final class CancellationToken {
+
+    /**
+     * Never cancelled, what code outside {@link #callWith} sees
+     */
+    public static final CancellationToken NONE = new CancellationToken();
+
+    private static final ThreadLocal<CancellationToken> CURRENT = new ThreadLocal<>();
+
+    private volatile boolean cancelled;
+
+    public void cancel() {
+        if (this == NONE) {
+            throw new UnsupportedOperationException("The shared token can't be cancelled");
+        }
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * The token of the solve running on this thread, {@link #NONE} if there is none
+     */
+    public static CancellationToken current() {
+        CancellationToken token = CURRENT.get();
+        return token == null ? NONE : token;
+    }
+
+    /**
+     * Runs the task with {@code token} as the current token
+     */
+    public static <T> T callWith(CancellationToken token, Supplier<T> task) {
+        CancellationToken previous = CURRENT.get();
+        CURRENT.set(token);
+        try {
+            return task.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.teleport.smartload.solver;
+
+import com.teleport.smartload.model.Order;
+
+import java.util.Locale;
+
+/**
+ * Identifies the group of orders that can legally share a truck.
+ * Orders with different lanes or hazmat flags never end up in the same load,
+ * so each key is an independent subproblem for the optimizer.
+ */
+public record CompatibilityKey(String origin, String destination, boolean hazmat) {
+
+    public static CompatibilityKey of(Order order) {
+        return of(order.getOrigin(), order.getDestination(), order.isHazmat());
+    }
+
+    public static CompatibilityKey of(String origin, String destination, boolean hazmat) {
+        return new CompatibilityKey(normalize(origin), normalize(destination), hazmat);
+    }
+
+    // routes are matched case-insensitively
+    private static String normalize(String location) {
+        return location == null ? "" : location.toLowerCase(Locale.ROOT);
+    }
+}
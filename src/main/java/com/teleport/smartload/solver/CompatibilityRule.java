@@ -0,0 +1,30 @@
+package com.teleport.smartload.solver;
+
+import com.teleport.smartload.model.Order;
+
+/**
+ * Decides which orders may share a truck.
+ * Rules are only consulted while an {@link OrderPool} is built. The answers are
+ * stored as one bit row per order, so engines check a candidate against the
+ * whole current load with a single AND whatever the rule is.
+ */
+@FunctionalInterface
+public interface CompatibilityRule {
+
+    /** Same lane (case-insensitive) and same hazmat flag, the default */
+    CompatibilityRule LANE_AND_HAZMAT = CompatibilityKey::of;
+
+    /**
+     * Orders with different keys never share a truck, so the service can solve
+     * each key on its own before any pairwise check
+     */
+    Object groupKey(Order order);
+
+    /**
+     * Pairwise check for two orders with the same group key. Doesn't need to be
+     * transitive, e.g. corridor rules where A-B and B-C are allowed but A-C isn't.
+     */
+    default boolean compatible(Order a, Order b) {
+        return true;
+    }
+}
@@ -0,0 +1,63 @@
+package com.teleport.smartload.solver;
+
+/**
+ * Order d dominates order j when it pays at least as much, is no heavier and no
+ * bulkier, and can join every load j can. Swapping j for d in any load that has
+ * j but not d keeps the load feasible and pays no less, so some optimal load
+ * never takes j without d. Exact ties dominate by index, so twins don't
+ * dominate each other.
+ * <p>
+ * {@link #reduce} uses that to drop orders before any engine runs, and the
+ * backtracking search uses it per node (see {@code BranchAndBoundEngine}).
+ */
+public final class Dominance {
+
+    private Dominance() {
+    }
+
+    /**
+     * Drops every order that is dominated by an order it can't share a load with,
+     * one at a time against what is still left. Such an order can only ever be
+     * in a load instead of its dominator, never next to it, so the optimum
+     * doesn't change.
+     */
+    public static OrderPool reduce(OrderPool pool, int maxWeight, int maxVolume) {
+        int n = pool.size();
+        int[] weight = pool.weights();
+        int[] volume = pool.volumes();
+        long[] payout = pool.payouts();
+        long[] compatibility = pool.compatibility();
+        long kept = n == Long.SIZE ? -1L : (1L << n) - 1;
+
+        for (int j = 0; j < n; j++) {
+            for (long m = kept & ~(1L << j); m != 0; m &= m - 1) {
+                int d = Long.numberOfTrailingZeros(m);
+                boolean apart = (compatibility[d] & (1L << j)) == 0
+                        || weight[d] + (long) weight[j] > maxWeight
+                        || volume[d] + (long) volume[j] > maxVolume;
+                if (apart && dominates(d, j, payout, weight, volume, compatibility)) {
+                    kept &= ~(1L << j);
+                    break;
+                }
+            }
+        }
+        return Long.bitCount(kept) == n ? pool : pool.subset(kept);
+    }
+
+    /**
+     * Whether d dominates j, see the class comment. The arrays only need to be
+     * in the same index space, pool or search order.
+     */
+    static boolean dominates(int d, int j, long[] payout, int[] weight, int[] volume, long[] compatibility) {
+        if (payout[d] < payout[j] || weight[d] > weight[j] || volume[d] > volume[j]) {
+            return false;
+        }
+        // d has to fit next to everything j fits next to, apart from the two of them
+        long others = compatibility[j] & ~(1L << j) & ~(1L << d);
+        if ((others & ~compatibility[d]) != 0) {
+            return false;
+        }
+        boolean tie = payout[d] == payout[j] && weight[d] == weight[j] && volume[d] == volume[j];
+        return !tie || d < j;
+    }
+}
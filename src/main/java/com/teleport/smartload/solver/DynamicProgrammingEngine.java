@@ -0,0 +1,230 @@
+package com.teleport.smartload.solver;
+
+/**
+ * 2D 0/1 knapsack over the (weight, volume) grid.
+ * Weights and volumes are first divided by their GCD (truck and order sizes are
+ * usually round numbers), and capacity past the total size of the class is cut
+ * off, so the grid is often tiny compared to 44000 x 3000. The table is a single
+ * rolling long[] updated in place from the far corner, with the selection of each
+ * cell carried along as a bitmask, so no per-item layers are kept.
+ * <p>
+ * When the grid is over {@code maxCells} and rounding is enabled, order sizes are
+ * rounded up and capacities down to a coarser bucket. Every load it returns still
+ * fits the real truck; it's the optimum for a truck that is smaller by at most one
+ * bucket per order in each dimension, so it may miss the true optimum. Rounded
+ * results report the LP bound as their upper bound.
+ * <p>
+ * Like meet-in-the-middle it needs every class to be a clique.
+ * <p>
+ * The budget is checked once per order. When it runs out, the classes that were
+ * not finished fall back to the greedy load.
+ */
+public final class DynamicProgrammingEngine implements SolverEngine {
+
+    public static final String NAME = "dynamic-programming";
+
+    private final long maxCells;
+    private final boolean rounding;
+
+    public DynamicProgrammingEngine(long maxCells, boolean rounding) {
+        this.maxCells = maxCells;
+        this.rounding = rounding;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    public long maxCells() {
+        return maxCells;
+    }
+
+    public boolean isRounding() {
+        return rounding;
+    }
+
+    /**
+     * Size of the table an exact solve would need, used by the engine cost model
+     */
+    public long gridCells(OrderPool pool, int maxWeight, int maxVolume) {
+        long cells = 0;
+        for (int[] members : pool.compatibilityClasses()) {
+            Grid grid = Grid.exact(pool, members, maxWeight, maxVolume);
+            cells = Math.max(cells, grid.cells());
+        }
+        return cells;
+    }
+
+    @Override
+    public Solution solve(OrderPool pool, int maxWeight, int maxVolume, SolveBudget budget, SolveStats stats) {
+        if (!pool.classesAreCliques()) {
+            throw new IllegalArgumentException(NAME + " needs every pair inside a class to be compatible");
+        }
+        Solution best = Solution.EMPTY;
+        boolean exact = true;
+        for (int[] members : pool.compatibilityClasses()) {
+            Grid grid = Grid.exact(pool, members, maxWeight, maxVolume);
+            if (grid.cells() > maxCells) {
+                if (!rounding) {
+                    throw new IllegalStateException("DP grid too large: " + grid.cells() + " cells");
+                }
+                grid = grid.coarsen(maxCells);
+                exact = false;
+            }
+            Solution candidate = solveClass(pool, members, grid, budget, stats);
+            if (candidate.payout() > best.payout()) {
+                best = candidate;
+            }
+        }
+        if (!exact || budget.isExpired()) {
+            Solution estimate = Relaxation.estimate(pool, maxWeight, maxVolume);
+            if (estimate.payout() > best.payout()) {
+                best = estimate;
+            }
+            return new Solution(best.mask(), best.payout(), Math.max(best.payout(), estimate.upperBound()));
+        }
+        return best;
+    }
+
+    private Solution solveClass(OrderPool pool, int[] members, Grid grid, SolveBudget budget, SolveStats stats) {
+        int rowLength = grid.volumeCapacity + 1;
+        int cells = (int) grid.cells();
+        // best payout and its selection for weight <= row and volume <= column
+        long[] best = new long[cells];
+        long[] selection = new long[cells];
+
+        for (int k = 0; k < members.length; k++) {
+            if (budget.isExpired()) {
+                return Solution.EMPTY;
+            }
+            int w = grid.weight[k];
+            int v = grid.volume[k];
+            if (w > grid.weightCapacity || v > grid.volumeCapacity) {
+                stats.capacityPrunes++;
+                continue;
+            }
+            long p = pool.payouts()[members[k]];
+            long bit = 1L << members[k];
+            int shift = w * rowLength + v;
+            long previous = best[cells - 1];
+            stats.nodes += (grid.weightCapacity - w + 1L) * (grid.volumeCapacity - v + 1L);
+
+            // walking down from the far corner reads cells this order hasn't touched yet
+            for (int row = grid.weightCapacity; row >= w; row--) {
+                int base = row * rowLength;
+                for (int col = grid.volumeCapacity; col >= v; col--) {
+                    int cell = base + col;
+                    long candidate = best[cell - shift] + p;
+                    if (candidate > best[cell]) {
+                        best[cell] = candidate;
+                        selection[cell] = selection[cell - shift] | bit;
+                    }
+                }
+            }
+            if (best[cells - 1] > previous) {
+                stats.improvements++;
+            }
+        }
+
+        int corner = cells - 1;
+        return best[corner] == 0 ? Solution.EMPTY : Solution.exact(selection[corner], best[corner]);
+    }
+
+    /**
+     * Order sizes and capacities of one class in grid units
+     */
+    private static final class Grid {
+        private final int[] weight;
+        private final int[] volume;
+        private final int weightCapacity;
+        private final int volumeCapacity;
+        private final int[] originalWeight;
+        private final int[] originalVolume;
+        private final int maxWeight;
+        private final int maxVolume;
+
+        private Grid(int[] weight, int[] volume, int weightCapacity, int volumeCapacity,
+                int[] originalWeight, int[] originalVolume, int maxWeight, int maxVolume) {
+            this.weight = weight;
+            this.volume = volume;
+            this.weightCapacity = weightCapacity;
+            this.volumeCapacity = volumeCapacity;
+            this.originalWeight = originalWeight;
+            this.originalVolume = originalVolume;
+            this.maxWeight = maxWeight;
+            this.maxVolume = maxVolume;
+        }
+
+        static Grid exact(OrderPool pool, int[] members, int maxWeight, int maxVolume) {
+            int[] weight = new int[members.length];
+            int[] volume = new int[members.length];
+            for (int k = 0; k < members.length; k++) {
+                weight[k] = pool.weights()[members[k]];
+                volume[k] = pool.volumes()[members[k]];
+            }
+            return scaled(weight, volume, maxWeight, maxVolume, gcd(weight), gcd(volume));
+        }
+
+        /**
+         * Same class on the coarsest-needed grid that fits in maxCells
+         */
+        Grid coarsen(long maxCells) {
+            // split the reduction evenly between the two dimensions
+            double factor = Math.sqrt((double) cells() / maxCells);
+            int weightBucket = (int) Math.ceil(maxWeight / Math.max(1.0, weightCapacity / factor));
+            int volumeBucket = (int) Math.ceil(maxVolume / Math.max(1.0, volumeCapacity / factor));
+            Grid grid = scaled(originalWeight, originalVolume, maxWeight, maxVolume, weightBucket, volumeBucket);
+            while (grid.cells() > maxCells) {
+                weightBucket++;
+                volumeBucket++;
+                grid = scaled(originalWeight, originalVolume, maxWeight, maxVolume, weightBucket, volumeBucket);
+            }
+            return grid;
+        }
+
+        /**
+         * Divides by the bucket size, rounding orders up and capacity down so every
+         * grid-feasible load is really feasible. Capacity past the class total is dropped.
+         */
+        private static Grid scaled(int[] weight, int[] volume, int maxWeight, int maxVolume,
+                int weightBucket, int volumeBucket) {
+            int[] w = new int[weight.length];
+            int[] v = new int[volume.length];
+            long totalWeight = 0;
+            long totalVolume = 0;
+            for (int k = 0; k < weight.length; k++) {
+                w[k] = ceilDiv(weight[k], weightBucket);
+                v[k] = ceilDiv(volume[k], volumeBucket);
+                totalWeight += w[k];
+                totalVolume += v[k];
+            }
+            int weightCapacity = (int) Math.min(maxWeight / weightBucket, totalWeight);
+            int volumeCapacity = (int) Math.min(maxVolume / volumeBucket, totalVolume);
+            return new Grid(w, v, weightCapacity, volumeCapacity, weight, volume, maxWeight, maxVolume);
+        }
+
+        long cells() {
+            return (weightCapacity + 1L) * (volumeCapacity + 1L);
+        }
+
+        private static int gcd(int[] values) {
+            int g = 0;
+            for (int value : values) {
+                int a = g;
+                int b = value;
+                while (b != 0) {
+                    int t = a % b;
+                    a = b;
+                    b = t;
+                }
+                g = a;
+            }
+            return Math.max(g, 1);
+        }
+
+        private static int ceilDiv(int value, int divisor) {
+            return (value + divisor - 1) / divisor;
+        }
+    }
+}
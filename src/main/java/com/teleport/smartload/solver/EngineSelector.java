@@ -0,0 +1,66 @@
+package com.teleport.smartload.solver;
+
+/**
+ * Picks the engine with the lowest estimated cost for one compatibility class.
+ * Costs are rough operation counts, they only need to rank the engines:
+ * <ul>
+ *   <li>backtracking: 2^n nodes in the worst case, split over the fork/join
+ *       workers for classes big enough to parallelize</li>
+ *   <li>meet-in-the-middle: n * 2^(n/2) for enumerating and merging both halves</li>
+ *   <li>dynamic programming: n * cells of the GCD-reduced grid, or n * maxCells
+ *       when the grid is too big and rounding is enabled</li>
+ * </ul>
+ * So with rounding enabled, a class whose exact grid is over {@code maxCells}
+ * goes to rounded DP whenever that undercuts both exact engines, typically
+ * irregular sizes in the 40s, where meet-in-the-middle takes a second or more.
+ * Pools whose classes aren't cliques (non-transitive compatibility rules) always
+ * go to backtracking, the only engine that checks compatibility per node.
+ */
+public final class EngineSelector {
+
+    private final SolverEngine branchAndBound;
+    private final ParallelBranchAndBoundEngine parallelBranchAndBound;
+    private final SolverEngine meetInTheMiddle;
+    private final DynamicProgrammingEngine dynamicProgramming;
+
+    public EngineSelector(SolverEngine branchAndBound, ParallelBranchAndBoundEngine parallelBranchAndBound,
+            SolverEngine meetInTheMiddle, DynamicProgrammingEngine dynamicProgramming) {
+        this.branchAndBound = branchAndBound;
+        this.parallelBranchAndBound = parallelBranchAndBound;
+        this.meetInTheMiddle = meetInTheMiddle;
+        this.dynamicProgramming = dynamicProgramming;
+    }
+
+    public SolverEngine select(OrderPool pool, int maxWeight, int maxVolume) {
+        int n = pool.size();
+        boolean parallel = n >= ParallelBranchAndBoundEngine.MIN_POOL_SIZE;
+        if (!pool.classesAreCliques()) {
+            return parallel ? parallelBranchAndBound : branchAndBound;
+        }
+        long cells = dynamicProgramming.gridCells(pool, maxWeight, maxVolume);
+
+        double backtrackingCost = parallel
+                ? Math.pow(2, n) / parallelBranchAndBound.parallelism()
+                : Math.pow(2, n);
+        double meetInTheMiddleCost = n <= MeetInTheMiddleEngine.MAX_CLASS_SIZE
+                ? n * Math.pow(2, n / 2.0)
+                : Double.POSITIVE_INFINITY;
+        double dynamicProgrammingCost;
+        if (cells <= dynamicProgramming.maxCells()) {
+            dynamicProgrammingCost = (double) n * cells;
+        } else if (dynamicProgramming.isRounding()) {
+            // coarsened until it fits, not exact any more
+            dynamicProgrammingCost = (double) n * dynamicProgramming.maxCells();
+        } else {
+            dynamicProgrammingCost = Double.POSITIVE_INFINITY;
+        }
+
+        if (dynamicProgrammingCost <= backtrackingCost && dynamicProgrammingCost <= meetInTheMiddleCost) {
+            return dynamicProgramming;
+        }
+        if (backtrackingCost > meetInTheMiddleCost) {
+            return meetInTheMiddle;
+        }
+        return parallel ? parallelBranchAndBound : branchAndBound;
+    }
+}
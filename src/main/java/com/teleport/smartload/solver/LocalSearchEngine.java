@@ -0,0 +1,403 @@
+package com.teleport.smartload.solver;
+
+import com.teleport.smartload.model.Order;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Heuristic for compatibility classes far beyond what the exact engines can
+ * search, thousands of orders rather than dozens. Selections are boolean arrays
+ * instead of bitmasks, so there is no size limit.
+ * <p>
+ * Starts from the surrogate-density greedy load the branch and bound also
+ * starts from, then applies improving moves until none is left:
+ * <ul>
+ *   <li>swap: replace one loaded order by one left out that pays more and fits</li>
+ *   <li>drop and refill: take one order off and greedily refill the freed room,
+ *       which covers one-for-many exchanges</li>
+ *   <li>pair swap: replace two loaded orders by one that pays more than both</li>
+ * </ul>
+ * The answer carries an LP bound over the whole class, the tightest of the
+ * weight, volume and surrogate relaxations, so callers
+ * see how far from optimal it might be; when payout meets the bound the load
+ * is proven optimal.
+ * <p>
+ * Pairwise rule vetoes are tracked as a per-order conflict count against the
+ * current load. The orders one order conflicts with are found with one rule
+ * call per order the first time it is loaded and kept, so loading or unloading
+ * it again only touches those. A move still costs O(n): swaps scan the orders
+ * by payout, and a refill walks them by density.
+ */
+public final class LocalSearchEngine {
+
+    public static final String NAME = "local-search";
+
+    /** Moves evaluated between budget checks */
+    private static final int CHECK_INTERVAL = 1 << 12;
+
+    /**
+     * Load picked by the heuristic
+     *
+     * @param selected indices into the orders passed in, ascending
+     */
+    public record Result(int[] selected, long payout, long upperBound) {
+
+        public boolean isOptimal() {
+            return payout >= upperBound;
+        }
+    }
+
+    public String name() {
+        return NAME;
+    }
+
+    public Result solve(List<Order> orders, CompatibilityRule rule, int maxWeight, int maxVolume,
+            SolveBudget budget, SolveStats stats) {
+        Search search = new Search(orders, rule, maxWeight, maxVolume, budget, stats);
+        search.fill(-1);
+        if (search.loadPayout < search.upperBound) {
+            search.improve();
+        }
+        return new Result(search.selected(), search.loadPayout, Math.max(search.loadPayout, search.upperBound));
+    }
+
+    private static final class Search {
+        private final List<Order> orders;
+        private final CompatibilityRule rule;
+        private final int n;
+        private final int maxWeight;
+        private final int maxVolume;
+        private final SolveBudget budget;
+        private final SolveStats stats;
+
+        private final int[] weight;
+        private final int[] volume;
+        private final long[] payout;
+        // indices by decreasing surrogate density, ties keep list order
+        private final int[] byDensity;
+        // indices by decreasing payout, so a swap scan can stop at the first order that can't gain
+        private final int[] byPayout;
+        // loaded orders this one can't ride with, zero means it can join
+        private final int[] conflicts;
+        // orders each one can't ride with, worked out the first time it is loaded
+        private final int[][] conflictRows;
+        private final boolean[] loaded;
+        private final long upperBound;
+
+        private long currentWeight;
+        private long currentVolume;
+        long loadPayout;
+        private boolean stopped;
+
+        Search(List<Order> orders, CompatibilityRule rule, int maxWeight, int maxVolume, SolveBudget budget,
+                SolveStats stats) {
+            this.orders = orders;
+            this.rule = rule;
+            this.n = orders.size();
+            this.maxWeight = maxWeight;
+            this.maxVolume = maxVolume;
+            this.budget = budget;
+            this.stats = stats;
+            this.weight = new int[n];
+            this.volume = new int[n];
+            this.payout = new long[n];
+            this.conflicts = new int[n];
+            this.conflictRows = new int[n][];
+            this.loaded = new boolean[n];
+
+            long[] surrogate = new long[n];
+            long[] weights = new long[n];
+            long[] volumes = new long[n];
+            for (int i = 0; i < n; i++) {
+                Order o = orders.get(i);
+                weight[i] = o.getWeightLbs();
+                volume[i] = o.getVolumeCuft();
+                payout[i] = o.getPayoutCents();
+                weights[i] = Math.max(1, weight[i]);
+                volumes[i] = Math.max(1, volume[i]);
+                surrogate[i] = Math.max(1L, weight[i] * (long) maxVolume + volume[i] * (long) maxWeight);
+            }
+            this.byDensity = byDensity(surrogate);
+            this.byPayout = byDensity(null);
+
+            // each constraint on its own and the surrogate of both are all relaxations, the tightest wins
+            long bound = lpBound(byDensity, surrogate, maxWeight * (long) maxVolume * 2);
+            bound = Math.min(bound, lpBound(byDensity(weights), weights, maxWeight));
+            this.upperBound = Math.min(bound, lpBound(byDensity(volumes), volumes, maxVolume));
+        }
+
+        /**
+         * Indices by decreasing payout per unit of {@code size} (per order when null),
+         * ties keep list order
+         */
+        private int[] byDensity(long[] size) {
+            double[] density = new double[n];
+            for (int i = 0; i < n; i++) {
+                density[i] = size == null ? payout[i] : payout[i] / (double) size[i];
+            }
+            return descending(density);
+        }
+
+        /**
+         * Stable bottom-up merge sort of the indices by key, no boxing
+         */
+        private static int[] descending(double[] key) {
+            int n = key.length;
+            int[] sorted = new int[n];
+            int[] buffer = new int[n];
+            for (int i = 0; i < n; i++) {
+                sorted[i] = i;
+            }
+            for (int width = 1; width < n; width *= 2) {
+                for (int lo = 0; lo < n; lo += 2 * width) {
+                    int mid = Math.min(lo + width, n);
+                    int hi = Math.min(lo + 2 * width, n);
+                    int left = lo;
+                    int right = mid;
+                    int k = lo;
+                    while (left < mid && right < hi) {
+                        // the right run only goes first when strictly bigger, so ties stay in order
+                        buffer[k++] = key[sorted[right]] > key[sorted[left]] ? sorted[right++] : sorted[left++];
+                    }
+                    while (left < mid) {
+                        buffer[k++] = sorted[left++];
+                    }
+                    while (right < hi) {
+                        buffer[k++] = sorted[right++];
+                    }
+                }
+                int[] swap = sorted;
+                sorted = buffer;
+                buffer = swap;
+            }
+            return sorted;
+        }
+
+        /**
+         * Fractional knapsack of one capacity, ignoring compatibility. Orders too big
+         * for the truck on their own are left out.
+         */
+        private long lpBound(int[] order, long[] size, long capacity) {
+            long bound = 0;
+            for (int i : order) {
+                if (weight[i] > maxWeight || volume[i] > maxVolume) {
+                    continue;
+                }
+                if (size[i] <= capacity) {
+                    capacity -= size[i];
+                    bound += payout[i];
+                } else {
+                    // payouts are whole cents, so rounding the fraction up keeps the bound valid
+                    return bound + (long) Math.ceil(payout[i] * ((double) capacity / size[i]));
+                }
+            }
+            return bound;
+        }
+
+        private boolean fits(int i) {
+            return !loaded[i] && conflicts[i] == 0
+                    && currentWeight + weight[i] <= maxWeight && currentVolume + volume[i] <= maxVolume;
+        }
+
+        private void load(int i) {
+            loaded[i] = true;
+            currentWeight += weight[i];
+            currentVolume += volume[i];
+            loadPayout += payout[i];
+            updateConflicts(i, 1);
+        }
+
+        private void unload(int i) {
+            loaded[i] = false;
+            currentWeight -= weight[i];
+            currentVolume -= volume[i];
+            loadPayout -= payout[i];
+            updateConflicts(i, -1);
+        }
+
+        private void updateConflicts(int i, int delta) {
+            for (int j : conflictRow(i)) {
+                conflicts[j] += delta;
+            }
+        }
+
+        private int[] conflictRow(int i) {
+            int[] row = conflictRows[i];
+            if (row == null) {
+                Order order = orders.get(i);
+                row = new int[4];
+                int count = 0;
+                for (int j = 0; j < n; j++) {
+                    if (j != i && !rule.compatible(order, orders.get(j))) {
+                        if (count == row.length) {
+                            row = Arrays.copyOf(row, 2 * count);
+                        }
+                        row[count++] = j;
+                    }
+                }
+                row = Arrays.copyOf(row, count);
+                conflictRows[i] = row;
+            }
+            return row;
+        }
+
+        /**
+         * Adds every order that still fits, in density order, except {@code skip}
+         */
+        void fill(int skip) {
+            for (int i : byDensity) {
+                if (i != skip && fits(i)) {
+                    load(i);
+                }
+            }
+        }
+
+        /**
+         * Applies the best swap, or failing that the first improving drop and
+         * refill or pair swap, until none helps, the bound is met or time runs out
+         */
+        void improve() {
+            while (!stopped && loadPayout < upperBound && (swap() || dropAndRefill() || pairSwap())) {
+                stats.improvements++;
+            }
+        }
+
+        private boolean swap() {
+            int bestOut = -1;
+            int bestIn = -1;
+            long bestGain = 0;
+            for (int out = 0; out < n; out++) {
+                if (!loaded[out]) {
+                    continue;
+                }
+                Order leaving = orders.get(out);
+                long weightLeft = maxWeight - currentWeight + weight[out];
+                long volumeLeft = maxVolume - currentVolume + volume[out];
+                for (int in : byPayout) {
+                    if (tick()) {
+                        return false;
+                    }
+                    long gain = payout[in] - payout[out];
+                    if (gain <= bestGain) {
+                        break;
+                    }
+                    if (loaded[in] || weight[in] > weightLeft || volume[in] > volumeLeft) {
+                        continue;
+                    }
+                    // the leaving order's own veto doesn't count once it's gone
+                    int blocking = conflicts[in] == 0
+                            ? 0
+                            : conflicts[in] - (rule.compatible(leaving, orders.get(in)) ? 0 : 1);
+                    if (blocking == 0) {
+                        bestOut = out;
+                        bestIn = in;
+                        bestGain = gain;
+                    }
+                }
+            }
+            if (bestOut < 0) {
+                return false;
+            }
+            unload(bestOut);
+            load(bestIn);
+            fill(-1);
+            return true;
+        }
+
+        /**
+         * Replaces two loaded orders by one bigger order that pays more than both,
+         * the move drop and refill can't make
+         */
+        private boolean pairSwap() {
+            int[] load = selected();
+            for (int x = 0; x < load.length; x++) {
+                for (int y = x + 1; y < load.length; y++) {
+                    int first = load[x];
+                    int second = load[y];
+                    long freedPayout = payout[first] + payout[second];
+                    long weightLeft = maxWeight - currentWeight + weight[first] + weight[second];
+                    long volumeLeft = maxVolume - currentVolume + volume[first] + volume[second];
+                    for (int in : byPayout) {
+                        if (tick()) {
+                            return false;
+                        }
+                        if (payout[in] <= freedPayout) {
+                            break;
+                        }
+                        if (loaded[in] || weight[in] > weightLeft || volume[in] > volumeLeft) {
+                            continue;
+                        }
+                        unload(first);
+                        unload(second);
+                        if (conflicts[in] == 0) {
+                            load(in);
+                            fill(-1);
+                            return true;
+                        }
+                        load(first);
+                        load(second);
+                    }
+                }
+            }
+            return false;
+        }
+
+        private boolean dropAndRefill() {
+            for (int out = 0; out < n; out++) {
+                if (!loaded[out]) {
+                    continue;
+                }
+                if (tick()) {
+                    return false;
+                }
+                long before = loadPayout;
+                boolean[] snapshot = loaded.clone();
+                unload(out);
+                fill(out);
+                if (loadPayout > before) {
+                    return true;
+                }
+                restore(snapshot);
+            }
+            return false;
+        }
+
+        private void restore(boolean[] snapshot) {
+            for (int i = 0; i < n; i++) {
+                if (loaded[i] && !snapshot[i]) {
+                    unload(i);
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                if (!loaded[i] && snapshot[i]) {
+                    load(i);
+                }
+            }
+        }
+
+        private boolean tick() {
+            if ((++stats.nodes & (CHECK_INTERVAL - 1)) == 0 && budget.isExpired()) {
+                stopped = true;
+            }
+            return stopped;
+        }
+
+        int[] selected() {
+            int count = 0;
+            for (boolean b : loaded) {
+                if (b) {
+                    count++;
+                }
+            }
+            int[] selected = new int[count];
+            int k = 0;
+            for (int i = 0; i < n; i++) {
+                if (loaded[i]) {
+                    selected[k++] = i;
+                }
+            }
+            return selected;
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package com.teleport.smartload.solver;
+
+import java.util.Arrays;
+
+/**
+ * Exact solver for compatibility classes too big to backtrack (roughly 23-45
+ * orders). Each class is split in two halves and every feasible, non-dominated
+ * subset of each half is enumerated. The halves are then joined with a sweep
+ * over weight and a Fenwick tree of prefix maxima over volume, which answers
+ * "best left-half payout that still fits next to this right-half subset"
+ * against the 2D dominance frontier in O(log n). Cost grows as 2^(n/2) instead
+ * of 2^n. Any subset of a class is taken to be compatible, so pools with
+ * non-clique classes are refused.
+ * <p>
+ * The budget is checked every few thousand merge and sweep steps. A class that
+ * runs out of time keeps the best pair joined so far, starting from the greedy
+ * load.
+ */
+public final class MeetInTheMiddleEngine implements SolverEngine {
+
+    public static final String NAME = "meet-in-the-middle";
+
+    /** Half masks are stored as ints */
+    public static final int MAX_CLASS_SIZE = 2 * (Integer.SIZE - 1);
+
+    private static final int CHECK_INTERVAL = 1 << 12;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Solution solve(OrderPool pool, int maxWeight, int maxVolume, SolveBudget budget, SolveStats stats) {
+        if (!pool.classesAreCliques()) {
+            throw new IllegalArgumentException(NAME + " needs every pair inside a class to be compatible");
+        }
+        Solution best = Solution.EMPTY;
+        // orders of different classes can't mix, join each class on its own
+        for (int[] members : pool.compatibilityClasses()) {
+            Solution candidate = solveClass(pool, members, maxWeight, maxVolume, budget, stats);
+            if (candidate.payout() > best.payout()) {
+                best = candidate;
+            }
+        }
+        if (budget.isExpired()) {
+            long upperBound = Relaxation.estimate(pool, maxWeight, maxVolume).upperBound();
+            return new Solution(best.mask(), best.payout(), Math.max(best.payout(), upperBound));
+        }
+        return best;
+    }
+
+    private Solution solveClass(OrderPool pool, int[] members, int maxWeight, int maxVolume, SolveBudget budget,
+            SolveStats stats) {
+        if (members.length > MAX_CLASS_SIZE) {
+            throw new IllegalArgumentException("Class too large for meet-in-the-middle: " + members.length);
+        }
+        int split = members.length / 2;
+        int[] left = Arrays.copyOfRange(members, 0, split);
+        int[] right = Arrays.copyOfRange(members, split, members.length);
+
+        // start from the density-greedy load so weak subsets are skipped from the first step
+        long greedyMask = greedy(pool, members, maxWeight, maxVolume);
+        long bestPayout = pool.payoutOf(greedyMask);
+
+        // both halves come out sorted by weight, or null when the budget ran out
+        Subsets a = Subsets.enumerate(pool, left, maxWeight, maxVolume, budget, stats);
+        Subsets b = a == null ? null : Subsets.enumerate(pool, right, maxWeight, maxVolume, budget, stats);
+        if (b == null) {
+            return Solution.exact(greedyMask, bestPayout);
+        }
+
+        VolumeIndex volumes = VolumeIndex.of(a, maxVolume);
+        long[] treePayout = new long[volumes.size() + 1];
+        int[] treeIndex = new int[volumes.size() + 1];
+        Arrays.fill(treePayout, -1L);
+
+        // best right-half payout among the j lightest subsets, a cheap 1D bound for left subsets
+        long[] rightPrefixMax = new long[b.size];
+        for (int j = 0; j < b.size; j++) {
+            rightPrefixMax[j] = Math.max(j > 0 ? rightPrefixMax[j - 1] : 0L, b.payout[j]);
+        }
+
+        int bestA = -1;
+        int bestB = -1;
+        int inserted = 0;
+        int rightLimit = b.size - 1;
+        long leftMax = 0;
+
+        // walk right-half subsets from heaviest to lightest, so the weight left for the
+        // left half only grows and each left subset is inserted exactly once
+        for (int j = b.size - 1; j >= 0; j--) {
+            if ((j & (CHECK_INTERVAL - 1)) == 0 && budget.isExpired()) {
+                break;
+            }
+            int weightLeft = maxWeight - b.weight[j];
+            while (inserted < a.size && a.weight[inserted] <= weightLeft) {
+                int i = inserted++;
+                leftMax = Math.max(leftMax, a.payout[i]);
+                while (rightLimit >= 0 && b.weight[rightLimit] > maxWeight - a.weight[i]) {
+                    rightLimit--;
+                }
+                // no right subset can lift this one above the incumbent
+                if (rightLimit < 0 || a.payout[i] + rightPrefixMax[rightLimit] <= bestPayout) {
+                    stats.boundPrunes++;
+                    continue;
+                }
+                for (int r = volumes.rank(a.volume[i]); r <= volumes.size(); r += r & -r) {
+                    if (a.payout[i] > treePayout[r]) {
+                        treePayout[r] = a.payout[i];
+                        treeIndex[r] = i;
+                    }
+                }
+            }
+            if (b.payout[j] + leftMax <= bestPayout) {
+                stats.boundPrunes++;
+                continue;
+            }
+
+            // best left subset with volume <= what the right subset leaves over
+            long leftPayout = -1;
+            int leftIndex = 0;
+            for (int r = volumes.rankAtMost(maxVolume - b.volume[j]); r > 0; r -= r & -r) {
+                if (treePayout[r] > leftPayout) {
+                    leftPayout = treePayout[r];
+                    leftIndex = treeIndex[r];
+                }
+            }
+            if (leftPayout >= 0 && leftPayout + b.payout[j] > bestPayout) {
+                bestPayout = leftPayout + b.payout[j];
+                bestA = leftIndex;
+                bestB = j;
+                stats.improvements++;
+            }
+        }
+
+        if (bestA < 0) {
+            return greedyMask == 0 ? Solution.EMPTY : Solution.exact(greedyMask, bestPayout);
+        }
+        long mask = toPoolMask(a.mask[bestA], left) | toPoolMask(b.mask[bestB], right);
+        return Solution.exact(mask, bestPayout);
+    }
+
+    /**
+     * Takes orders in pool order while they fit, the pool is sorted by density so this is a decent first load
+     */
+    private static long greedy(OrderPool pool, int[] members, int maxWeight, int maxVolume) {
+        long mask = 0;
+        int weight = 0;
+        int volume = 0;
+        for (int i : members) {
+            if (weight + pool.weights()[i] <= maxWeight && volume + pool.volumes()[i] <= maxVolume) {
+                weight += pool.weights()[i];
+                volume += pool.volumes()[i];
+                mask |= 1L << i;
+            }
+        }
+        return mask;
+    }
+
+    private static long toPoolMask(int halfMask, int[] members) {
+        long mask = 0;
+        for (int m = halfMask; m != 0; m &= m - 1) {
+            mask |= 1L << members[Integer.numberOfTrailingZeros(m)];
+        }
+        return mask;
+    }
+
+    /**
+     * Maps volumes to 1-based Fenwick positions. Small trucks index by volume
+     * directly, otherwise the left half's volumes are compressed.
+     */
+    private static final class VolumeIndex {
+        static final int DIRECT_LIMIT = 1 << 16;
+
+        private final int[] sorted;
+        private final int size;
+
+        private VolumeIndex(int[] sorted, int size) {
+            this.sorted = sorted;
+            this.size = size;
+        }
+
+        static VolumeIndex of(Subsets subsets, int maxVolume) {
+            if (maxVolume < DIRECT_LIMIT) {
+                return new VolumeIndex(null, maxVolume + 1);
+            }
+            int[] volumes = Arrays.copyOf(subsets.volume, subsets.size);
+            Arrays.sort(volumes);
+            int distinct = 0;
+            for (int i = 0; i < volumes.length; i++) {
+                if (i == 0 || volumes[i] != volumes[i - 1]) {
+                    volumes[distinct++] = volumes[i];
+                }
+            }
+            return new VolumeIndex(volumes, distinct);
+        }
+
+        int size() {
+            return size;
+        }
+
+        int rank(int volume) {
+            return sorted == null ? volume + 1 : Arrays.binarySearch(sorted, 0, size, volume) + 1;
+        }
+
+        // number of positions holding a volume <= limit
+        int rankAtMost(int limit) {
+            if (sorted == null) {
+                return Math.min(limit + 1, size);
+            }
+            int lo = 0;
+            int hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (sorted[mid] <= limit) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+
+    /**
+     * Every subset of one half that fits the truck and isn't dominated, stored as
+     * parallel arrays sorted by weight. Built Horowitz-Sahni style: adding an order
+     * merges the current list with a shifted copy of itself, so the result stays
+     * sorted without a separate sort.
+     * A subset that is no lighter, no smaller and pays no more than one already kept
+     * can never beat it in any combination, so it is dropped on the spot. That keeps
+     * each half down to its (weight, volume) dominance frontier.
+     */
+    private static final class Subsets {
+        private int size;
+        private int[] weight;
+        private int[] volume;
+        private long[] payout;
+        private int[] mask;
+
+        // prefix maxima of payout by volume for the frontier check, null for huge trucks
+        private long[] frontier;
+        private SolveStats stats;
+
+        private Subsets(int capacity) {
+            weight = new int[capacity];
+            volume = new int[capacity];
+            payout = new long[capacity];
+            mask = new int[capacity];
+        }
+
+        static Subsets enumerate(OrderPool pool, int[] members, int maxWeight, int maxVolume,
+                SolveBudget budget, SolveStats stats) {
+            Subsets current = new Subsets(16);
+            current.size = 1; // the empty subset
+            current.stats = stats;
+            Subsets next = new Subsets(16);
+            next.stats = stats;
+            long[] frontier = maxVolume < VolumeIndex.DIRECT_LIMIT ? new long[maxVolume + 2] : null;
+            next.frontier = frontier;
+
+            for (int k = 0; k < members.length; k++) {
+                int i = members[k];
+                if (!next.mergeWith(current, pool.weights()[i], pool.volumes()[i], pool.payouts()[i], 1 << k,
+                        maxWeight, maxVolume, budget)) {
+                    return null;
+                }
+                Subsets swap = current;
+                current = next;
+                next = swap;
+                next.frontier = frontier;
+            }
+            return current;
+        }
+
+        /**
+         * Fills this list with source plus every source subset extended by one order
+         *
+         * @return false when the budget ran out, a late merge over a big half takes a while
+         */
+        private boolean mergeWith(Subsets source, int w, int v, long p, int bit, int maxWeight, int maxVolume,
+                SolveBudget budget) {
+            if (budget.isExpired()) {
+                return false;
+            }
+            ensureCapacity(source.size * 2);
+            size = 0;
+            if (frontier != null) {
+                Arrays.fill(frontier, -1L);
+            }
+            int x = 0;
+            int y = 0;
+            int steps = 0;
+            while (x < source.size || y < source.size) {
+                if ((++steps & (CHECK_INTERVAL - 1)) == 0 && budget.isExpired()) {
+                    return false;
+                }
+                // skip extensions that don't fit; weight is sorted, so once it overflows the rest do too
+                while (y < source.size && (source.weight[y] + w > maxWeight
+                        || source.volume[y] + v > maxVolume)) {
+                    if (source.weight[y] + w > maxWeight) {
+                        stats.capacityPrunes += source.size - y;
+                        y = source.size;
+                    } else {
+                        stats.capacityPrunes++;
+                        y++;
+                    }
+                }
+                if (y < source.size && (x == source.size || source.weight[y] + w < source.weight[x])) {
+                    emit(source.weight[y] + w, source.volume[y] + v, source.payout[y] + p, source.mask[y] | bit);
+                    y++;
+                } else if (x < source.size) {
+                    emit(source.weight[x], source.volume[x], source.payout[x], source.mask[x]);
+                    x++;
+                }
+            }
+            return true;
+        }
+
+        private void emit(int w, int v, long p, int m) {
+            if (frontier != null) {
+                // everything emitted so far is no heavier, so a smaller-volume entry paying as much dominates
+                for (int r = v + 1; r > 0; r -= r & -r) {
+                    if (frontier[r] >= p) {
+                        stats.boundPrunes++;
+                        return;
+                    }
+                }
+                for (int r = v + 1; r < frontier.length; r += r & -r) {
+                    if (p > frontier[r]) {
+                        frontier[r] = p;
+                    }
+                }
+            }
+            weight[size] = w;
+            volume[size] = v;
+            payout[size] = p;
+            mask[size] = m;
+            size++;
+            stats.nodes++;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (weight.length < capacity) {
+                weight = new int[capacity];
+                volume = new int[capacity];
+                payout = new long[capacity];
+                mask = new int[capacity];
+            }
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.teleport.smartload.solver;
+
+import com.teleport.smartload.model.Order;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Column layout of the orders handed to a solver engine.
+ * The engines only ever touch the primitive arrays, the {@link Order} objects
+ * are kept around so the final selection can be mapped back to order IDs.
+ * Index i in every array refers to the same order, and bit i of a selection mask
+ * refers to that order too.
+ * <p>
+ * Compatibility is precomputed into one bit row per order: bit j of row i is
+ * set when orders i and j may share a truck. A load can take order i exactly
+ * when {@code (compatibility[i] & load) == load}.
+ */
+public final class OrderPool {
+
+    /** Selections are tracked as long bitmasks, so a pool can't be bigger than this */
+    public static final int MAX_SIZE = Long.SIZE;
+
+    public static final OrderPool EMPTY = of(List.of());
+
+    private final Order[] orders;
+    private final int[] weight;
+    private final int[] volume;
+    private final long[] payout;
+    private final long[] compatibility;
+    private final int[][] classes;
+    private final boolean cliques;
+
+    private OrderPool(Order[] orders, int[] weight, int[] volume, long[] payout, long[] compatibility) {
+        this.orders = orders;
+        this.weight = weight;
+        this.volume = volume;
+        this.payout = payout;
+        this.compatibility = compatibility;
+        this.classes = components(compatibility);
+        this.cliques = allCliques(classes, compatibility);
+    }
+
+    public static OrderPool of(List<Order> orders) {
+        return of(orders, CompatibilityRule.LANE_AND_HAZMAT);
+    }
+
+    /**
+     * Converts the orders into parallel arrays, keeping the list order.
+     * Rule groups get small integer ids so pairs are only handed to the rule
+     * when their groups match.
+     */
+    public static OrderPool of(List<Order> orders, CompatibilityRule rule) {
+        int n = orders.size();
+        if (n > MAX_SIZE) {
+            throw new IllegalArgumentException("Order pool too large: " + n + " > " + MAX_SIZE);
+        }
+
+        Order[] items = new Order[n];
+        int[] weight = new int[n];
+        int[] volume = new int[n];
+        long[] payout = new long[n];
+        int[] group = new int[n];
+        Map<Object, Integer> groupIds = new HashMap<>();
+
+        for (int i = 0; i < n; i++) {
+            Order order = orders.get(i);
+            items[i] = order;
+            weight[i] = order.getWeightLbs();
+            volume[i] = order.getVolumeCuft();
+            payout[i] = order.getPayoutCents();
+            group[i] = groupIds.computeIfAbsent(rule.groupKey(order), k -> groupIds.size());
+        }
+
+        long[] compatibility = new long[n];
+        for (int i = 0; i < n; i++) {
+            compatibility[i] |= 1L << i;
+            for (int j = i + 1; j < n; j++) {
+                if (group[i] == group[j] && rule.compatible(items[i], items[j])) {
+                    compatibility[i] |= 1L << j;
+                    compatibility[j] |= 1L << i;
+                }
+            }
+        }
+        return new OrderPool(items, weight, volume, payout, compatibility);
+    }
+
+    /**
+     * The orders whose bits are set in {@code keep}, in pool order, with their
+     * compatibility rows carried over
+     */
+    public OrderPool subset(long keep) {
+        int[] members = members(keep);
+        int n = members.length;
+        Order[] items = new Order[n];
+        int[] subWeight = new int[n];
+        int[] subVolume = new int[n];
+        long[] subPayout = new long[n];
+        long[] subCompatibility = new long[n];
+        for (int k = 0; k < n; k++) {
+            int i = members[k];
+            items[k] = orders[i];
+            subWeight[k] = weight[i];
+            subVolume[k] = volume[i];
+            subPayout[k] = payout[i];
+            for (int j = 0; j < n; j++) {
+                if ((compatibility[i] & (1L << members[j])) != 0) {
+                    subCompatibility[k] |= 1L << j;
+                }
+            }
+        }
+        return new OrderPool(items, subWeight, subVolume, subPayout, subCompatibility);
+    }
+
+    public int size() {
+        return orders.length;
+    }
+
+    public Order order(int index) {
+        return orders[index];
+    }
+
+    public int[] weights() {
+        return weight;
+    }
+
+    public int[] volumes() {
+        return volume;
+    }
+
+    public long[] payouts() {
+        return payout;
+    }
+
+    /**
+     * Bit row per order, see the class comment. Every row has its own bit set.
+     */
+    public long[] compatibility() {
+        return compatibility;
+    }
+
+    public long payoutOf(long mask) {
+        long total = 0;
+        for (long m = mask; m != 0; m &= m - 1) {
+            total += payout[Long.numberOfTrailingZeros(m)];
+        }
+        return total;
+    }
+
+    /**
+     * Pool indices grouped into connected components of the compatibility rows,
+     * in order of first appearance, each in ascending order. Orders of different
+     * classes can never share a load, so each class can be solved on its own.
+     */
+    public int[][] compatibilityClasses() {
+        return classes;
+    }
+
+    /**
+     * Whether every pair inside each class is compatible. Holds for the default
+     * rule; engines that pick freely inside a class rely on it.
+     */
+    public boolean classesAreCliques() {
+        return cliques;
+    }
+
+    private static int[][] components(long[] compatibility) {
+        int n = compatibility.length;
+        long unseen = n == Long.SIZE ? -1L : (1L << n) - 1;
+        int[][] components = new int[n][];
+        int count = 0;
+        while (unseen != 0) {
+            long component = Long.lowestOneBit(unseen);
+            long frontier = component;
+            while (frontier != 0) {
+                long reached = 0;
+                for (long m = frontier; m != 0; m &= m - 1) {
+                    reached |= compatibility[Long.numberOfTrailingZeros(m)];
+                }
+                frontier = reached & ~component;
+                component |= reached;
+            }
+            unseen &= ~component;
+            components[count++] = members(component);
+        }
+        return Arrays.copyOf(components, count);
+    }
+
+    private static int[] members(long mask) {
+        int[] members = new int[Long.bitCount(mask)];
+        int k = 0;
+        for (long m = mask; m != 0; m &= m - 1) {
+            members[k++] = Long.numberOfTrailingZeros(m);
+        }
+        return members;
+    }
+
+    private static boolean allCliques(int[][] classes, long[] compatibility) {
+        for (int[] members : classes) {
+            long mask = 0;
+            for (int i : members) {
+                mask |= 1L << i;
+            }
+            for (int i : members) {
+                if ((compatibility[i] & mask) != mask) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
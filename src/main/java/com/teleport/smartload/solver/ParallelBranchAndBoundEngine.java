@@ -0,0 +1,161 @@
+package com.teleport.smartload.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link BranchAndBoundEngine} with the top levels of the search tree split into
+ * fork/join tasks. Workers share the best payout through an {@link AtomicLong}, so
+ * a good load found on one core prunes the subtrees every other core is searching.
+ * <p>
+ * Results are combined in depth-first order and a later subtree only wins with a
+ * strictly higher payout, which is exactly what the sequential search returns.
+ * The same problem gives the same load no matter how the tasks get scheduled,
+ * as long as the budget doesn't run out.
+ */
+public final class ParallelBranchAndBoundEngine implements SolverEngine {
+
+    public static final String NAME = "parallel-branch-and-bound";
+
+    /** Smaller classes finish before the tasks would even be stolen */
+    public static final int MIN_POOL_SIZE = 24;
+
+    /** Levels of the tree that become tasks; two levels give up to ~n^2/2 tasks */
+    private static final int SPLIT_DEPTH = 2;
+
+    /** Subtrees over fewer orders than this are searched sequentially */
+    private static final int MIN_SPLIT_REMAINING = 8;
+
+    private final ForkJoinPool forkJoinPool;
+
+    public ParallelBranchAndBoundEngine(ForkJoinPool forkJoinPool) {
+        this.forkJoinPool = forkJoinPool;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    public int parallelism() {
+        return forkJoinPool.getParallelism();
+    }
+
+    @Override
+    public Solution solve(OrderPool pool, int maxWeight, int maxVolume, SolveBudget budget, SolveStats stats) {
+        return solve(pool, maxWeight, maxVolume, budget, stats, 0L);
+    }
+
+    @Override
+    public Solution solve(OrderPool pool, int maxWeight, int maxVolume, SolveBudget budget, SolveStats stats,
+            long warmStart) {
+        if (pool.size() == 0) {
+            return Solution.EMPTY;
+        }
+        BranchAndBoundEngine.Problem problem = new BranchAndBoundEngine.Problem(pool, maxWeight, maxVolume);
+        // seed like the sequential search, so ties resolve the same way
+        long seedMask = problem.incumbent(warmStart);
+        long seedPayout = problem.payoutOf(seedMask);
+        NodeTask root = new NodeTask(problem, new AtomicLong(seedPayout), budget, stats, 0, 0L, 0L, 0, 0, 0);
+        Solution best = forkJoinPool.invoke(root);
+        if (best.payout() <= seedPayout) {
+            best = new Solution(seedMask, seedPayout, best.upperBound());
+        }
+        long upperBound = budget.isExpired()
+                ? Math.max(best.payout(), problem.rootBound())
+                : best.payout();
+        return new Solution(problem.toPoolMask(best.mask()), best.payout(), upperBound);
+    }
+
+    /**
+     * Searches the subtree under one node; masks are in search order until the very end
+     */
+    private static final class NodeTask extends RecursiveTask<Solution> {
+        private final BranchAndBoundEngine.Problem problem;
+        private final AtomicLong incumbent;
+        private final SolveBudget budget;
+        // shared by all tasks, each leaf search counts locally and adds its totals once
+        private final SolveStats stats;
+        private final int index;
+        private final long mask;
+        private final long payout;
+        private final int weight;
+        private final int volume;
+        private final int depth;
+
+        NodeTask(BranchAndBoundEngine.Problem problem, AtomicLong incumbent, SolveBudget budget, SolveStats stats,
+                int index, long mask, long payout, int weight, int volume, int depth) {
+            this.problem = problem;
+            this.incumbent = incumbent;
+            this.budget = budget;
+            this.stats = stats;
+            this.index = index;
+            this.mask = mask;
+            this.payout = payout;
+            this.weight = weight;
+            this.volume = volume;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Solution compute() {
+            if (depth >= SPLIT_DEPTH || problem.n - index < MIN_SPLIT_REMAINING) {
+                // a leaf search only polls the budget after its first thousand nodes
+                if (budget.isExpired()) {
+                    return Solution.exact(mask, payout);
+                }
+                SolveStats local = new SolveStats();
+                BranchAndBoundEngine.Search search = new BranchAndBoundEngine.Search(problem, incumbent, budget, local);
+                search.run(index, mask, payout, weight, volume);
+                stats.add(local);
+                return Solution.exact(search.bestMask, search.bestPayout);
+            }
+
+            // this node's own load comes first in depth-first order
+            SolveStats local = new SolveStats();
+            local.nodes++;
+            Solution best = Solution.exact(mask, payout);
+            BranchAndBoundEngine.Search.publish(incumbent, payout);
+            if (budget.isExpired()) {
+                stats.add(local);
+                return best;
+            }
+
+            long bound = payout + Math.min(problem.suffixPayouts[index],
+                    problem.fractionalBound(index, weight, volume, mask));
+            if (bound < incumbent.get()) {
+                local.boundPrunes++;
+                stats.add(local);
+                return best;
+            }
+
+            List<NodeTask> children = new ArrayList<>();
+            for (int i = index; i < problem.n; i++) {
+                if (!problem.compatible(i, mask)) {
+                    local.compatibilityPrunes++;
+                } else if (!problem.fitsCapacity(i, weight, volume)) {
+                    local.capacityPrunes++;
+                } else if (problem.passesOverDominator(i, mask)) {
+                    local.dominancePrunes++;
+                } else {
+                    children.add(new NodeTask(problem, incumbent, budget, stats, i + 1, mask | (1L << i),
+                            payout + problem.payout[i], weight + problem.weight[i], volume + problem.volume[i],
+                            depth + 1));
+                }
+            }
+            stats.add(local);
+            invokeAll(children);
+
+            for (NodeTask child : children) {
+                Solution candidate = child.join();
+                if (candidate.payout() > best.payout()) {
+                    best = candidate;
+                }
+            }
+            return best;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.teleport.smartload.solver;
+
+/**
+ * Cheap answers that don't need a search: the density-greedy load as a lower
+ * bound and the surrogate LP relaxation as an upper bound.
+ * Used when the budget is gone before an engine gets to run.
+ */
+public final class Relaxation {
+
+    private Relaxation() {
+    }
+
+    public static Solution estimate(OrderPool pool, int maxWeight, int maxVolume) {
+        if (pool.size() == 0) {
+            return Solution.EMPTY;
+        }
+        BranchAndBoundEngine.Problem problem = new BranchAndBoundEngine.Problem(pool, maxWeight, maxVolume);
+        long greedy = problem.greedy();
+        long payout = problem.payoutOf(greedy);
+        return new Solution(problem.toPoolMask(greedy), payout, Math.max(payout, problem.rootBound()));
+    }
+}
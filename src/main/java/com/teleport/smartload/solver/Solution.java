@@ -0,0 +1,23 @@
+package com.teleport.smartload.solver;
+
+/**
+ * Best selection found by an engine: bit i of the mask is set when
+ * order i of the {@link OrderPool} is on the truck.
+ * {@code upperBound} is the highest payout any load could reach; it equals the
+ * payout when the search finished, and is a relaxation bound when it was cut short.
+ */
+public record Solution(long mask, long payout, long upperBound) {
+
+    public static final Solution EMPTY = exact(0L, 0L);
+
+    /**
+     * A selection the engine proved optimal
+     */
+    public static Solution exact(long mask, long payout) {
+        return new Solution(mask, payout, payout);
+    }
+
+    public boolean isOptimal() {
+        return payout >= upperBound;
+    }
+}
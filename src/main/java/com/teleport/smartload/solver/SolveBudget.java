@@ -0,0 +1,50 @@
+package com.teleport.smartload.solver;
+
+/**
+ * Wall-clock limit for a solve. Engines poll {@link #isExpired()} every
+ * thousand or so nodes and return their best load so far once it trips.
+ * One budget can be shared by all the classes and worker threads of a request.
+ * <p>
+ * A budget also expires when its {@link CancellationToken} is cancelled, the
+ * same check covers a caller that gave up.
+ */
+public final class SolveBudget {
+
+    public static final SolveBudget UNLIMITED = new SolveBudget(Long.MAX_VALUE, false, CancellationToken.NONE);
+
+    private final long deadlineNanos;
+    private final boolean bounded;
+    private final CancellationToken token;
+    private volatile boolean expired;
+
+    private SolveBudget(long deadlineNanos, boolean bounded, CancellationToken token) {
+        this.deadlineNanos = deadlineNanos;
+        this.bounded = bounded;
+        this.token = token;
+    }
+
+    public static SolveBudget ofMillis(long millis) {
+        return ofMillis(millis, CancellationToken.NONE);
+    }
+
+    public static SolveBudget ofMillis(long millis, CancellationToken token) {
+        return new SolveBudget(System.nanoTime() + millis * 1_000_000L, true, token);
+    }
+
+    /**
+     * No deadline, only expires when {@code token} is cancelled
+     */
+    public static SolveBudget until(CancellationToken token) {
+        return token == CancellationToken.NONE ? UNLIMITED : new SolveBudget(Long.MAX_VALUE, false, token);
+    }
+
+    public boolean isExpired() {
+        if (expired) {
+            return true;
+        }
+        if (token.isCancelled() || bounded && System.nanoTime() - deadlineNanos >= 0) {
+            expired = true;
+        }
+        return expired;
+    }
+}
@@ -0,0 +1,65 @@
+package com.teleport.smartload.solver;
+
+/**
+ * Counters of one solve. Engines bump the fields directly, so counting costs one
+ * field increment per event and nothing is allocated in the search loop.
+ * An instance belongs to one thread; parallel searches count into their own and
+ * {@link #add} the totals at the end.
+ * <ul>
+ *   <li>nodes: search nodes, enumerated subsets or DP cells, depending on the engine</li>
+ *   <li>bound prunes: subtrees or subsets dropped because they can't beat the incumbent</li>
+ *   <li>capacity prunes: orders skipped because they no longer fit</li>
+ *   <li>compatibility prunes: orders skipped because they can't join the current load</li>
+ *   <li>dominance prunes: orders skipped because a better, smaller order was passed over</li>
+ *   <li>transposition prunes: states already reached with at least the same payout</li>
+ *   <li>improvements: times the incumbent got better</li>
+ * </ul>
+ */
+public final class SolveStats {
+
+    long nodes;
+    long boundPrunes;
+    long capacityPrunes;
+    long compatibilityPrunes;
+    long dominancePrunes;
+    long transpositionPrunes;
+    long improvements;
+
+    public synchronized void add(SolveStats other) {
+        nodes += other.nodes;
+        boundPrunes += other.boundPrunes;
+        capacityPrunes += other.capacityPrunes;
+        compatibilityPrunes += other.compatibilityPrunes;
+        dominancePrunes += other.dominancePrunes;
+        transpositionPrunes += other.transpositionPrunes;
+        improvements += other.improvements;
+    }
+
+    public synchronized long getNodes() {
+        return nodes;
+    }
+
+    public synchronized long getBoundPrunes() {
+        return boundPrunes;
+    }
+
+    public synchronized long getCapacityPrunes() {
+        return capacityPrunes;
+    }
+
+    public synchronized long getCompatibilityPrunes() {
+        return compatibilityPrunes;
+    }
+
+    public synchronized long getDominancePrunes() {
+        return dominancePrunes;
+    }
+
+    public synchronized long getTranspositionPrunes() {
+        return transpositionPrunes;
+    }
+
+    public synchronized long getImprovements() {
+        return improvements;
+    }
+}
@@ -0,0 +1,43 @@
+package com.teleport.smartload.solver;
+
+/**
+ * Exact search over an {@link OrderPool}.
+ * Implementations must be stateless so one instance can serve concurrent requests.
+ */
+public interface SolverEngine {
+
+    String name();
+
+    /**
+     * Returns the highest-payout selection that fits the capacity and only
+     * combines orders that are pairwise compatible in the pool.
+     * If the budget runs out first, returns the best load found so far with a
+     * proven upper bound instead. Search counters are added to {@code stats}.
+     */
+    Solution solve(OrderPool pool, int maxWeight, int maxVolume, SolveBudget budget, SolveStats stats);
+
+    /**
+     * Same as the plain solve, starting from a known feasible load ({@code warmStart},
+     * a pool mask). The answer is never worse than the warm start. Engines that can't
+     * search from an incumbent just compare against it at the end.
+     */
+    default Solution solve(OrderPool pool, int maxWeight, int maxVolume, SolveBudget budget, SolveStats stats,
+            long warmStart) {
+        Solution solution = solve(pool, maxWeight, maxVolume, budget, stats);
+        long warmPayout = 0;
+        for (long m = warmStart; m != 0; m &= m - 1) {
+            warmPayout += pool.payouts()[Long.numberOfTrailingZeros(m)];
+        }
+        return warmPayout > solution.payout()
+                ? new Solution(warmStart, warmPayout, Math.max(warmPayout, solution.upperBound()))
+                : solution;
+    }
+
+    default Solution solve(OrderPool pool, int maxWeight, int maxVolume, SolveBudget budget) {
+        return solve(pool, maxWeight, maxVolume, budget, new SolveStats());
+    }
+
+    default Solution solve(OrderPool pool, int maxWeight, int maxVolume) {
+        return solve(pool, maxWeight, maxVolume, SolveBudget.UNLIMITED);
+    }
+}
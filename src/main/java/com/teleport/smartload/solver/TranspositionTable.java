@@ -0,0 +1,77 @@
+package com.teleport.smartload.solver;
+
+import java.util.Arrays;
+
+/**
+ * Search states one backtracking search has already been through. A state is
+ * the next index, the capacity used so far and which of the remaining orders can
+ * still join the load. Two nodes with the same state have the same feasible
+ * completions, but not always the same ones the search will try: the dominance
+ * prune also looks at which orders below the index were passed over. Dropping
+ * the node reached with less payout is still safe. Any completion it has fits
+ * after the first node and pays no less there, and where dominance blocks one,
+ * swapping the dominated order for its dominator gives a load that pays no
+ * less, so an optimum stays reachable.
+ * <p>
+ * Direct-mapped with always-replace, so memory stays fixed at {@link #SIZE}
+ * entries and a collision only costs a missed prune. Each thread keeps one
+ * table; a new search bumps the generation instead of clearing the arrays.
+ * Searches never nest on a thread, the fork/join tasks only search at the leaves.
+ */
+final class TranspositionTable {
+
+    static final int SIZE = 1 << 14;
+
+    /** Generations live above the 7 index bits of a tag */
+    private static final int MAX_GENERATION = 1 << 24;
+
+    private static final ThreadLocal<TranspositionTable> PER_THREAD =
+            ThreadLocal.withInitial(TranspositionTable::new);
+
+    private final int[] tags = new int[SIZE];
+    private final long[] capacities = new long[SIZE];
+    private final long[] options = new long[SIZE];
+    private final long[] payouts = new long[SIZE];
+    private int generation;
+
+    private TranspositionTable() {
+    }
+
+    /**
+     * This thread's table, emptied for a new search
+     */
+    static TranspositionTable acquire() {
+        TranspositionTable table = PER_THREAD.get();
+        if (++table.generation == MAX_GENERATION) {
+            Arrays.fill(table.tags, 0);
+            table.generation = 1;
+        }
+        return table;
+    }
+
+    /**
+     * Records the state and returns true when it was already reached with at
+     * least {@code payout}
+     *
+     * @param remaining orders at or after {@code index} that can still join the load
+     */
+    boolean seenNoWorse(int index, int weight, int volume, long remaining, long payout) {
+        long capacity = (long) weight << 32 | (volume & 0xffffffffL);
+        int tag = generation << 7 | index;
+        long hash = capacity * 0x9E3779B97F4A7C15L ^ remaining * 0xC2B2AE3D27D4EB4FL ^ index;
+        int slot = (int) (hash ^ (hash >>> 29)) & (SIZE - 1);
+
+        if (tags[slot] == tag && capacities[slot] == capacity && options[slot] == remaining) {
+            if (payouts[slot] >= payout) {
+                return true;
+            }
+            payouts[slot] = payout;
+            return false;
+        }
+        tags[slot] = tag;
+        capacities[slot] = capacity;
+        options[slot] = remaining;
+        payouts[slot] = payout;
+        return false;
+    }
+}
@@ -0,0 +1,30 @@
+package com.teleport.smartload.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Limits how many orders may share one lane and hazmat class.
+ * The search is exponential in the size of a class, not in the size of the
+ * whole request, so mixed-lane pools can be much larger than this limit.
+ */
+@Documented
+@Constraint(validatedBy = MaxOrdersPerClassValidator.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface MaxOrdersPerClass {
+
+    String message() default "Too many orders for one lane and hazmat class";
+
+    int value();
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
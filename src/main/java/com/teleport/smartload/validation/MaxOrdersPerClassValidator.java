@@ -0,0 +1,60 @@
+package com.teleport.smartload.validation;
+
+import com.teleport.smartload.model.Order;
+import com.teleport.smartload.solver.CompatibilityRule;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts classes with the same {@link CompatibilityRule} the service partitions
+ * by, the application's bean if it defines one, lane and hazmat otherwise
+ */
+public class MaxOrdersPerClassValidator implements ConstraintValidator<MaxOrdersPerClass, List<Order>> {
+
+    private final CompatibilityRule rule;
+    private int max;
+
+    // outside Spring, e.g. a plain Validation.buildDefaultValidatorFactory()
+    public MaxOrdersPerClassValidator() {
+        this(CompatibilityRule.LANE_AND_HAZMAT);
+    }
+
+    @Autowired
+    public MaxOrdersPerClassValidator(ObjectProvider<CompatibilityRule> compatibilityRules) {
+        this(compatibilityRules.getIfAvailable(() -> CompatibilityRule.LANE_AND_HAZMAT));
+    }
+
+    public MaxOrdersPerClassValidator(CompatibilityRule rule) {
+        this.rule = rule;
+    }
+
+    @Override
+    public void initialize(MaxOrdersPerClass annotation) {
+        this.max = annotation.value();
+    }
+
+    @Override
+    public boolean isValid(List<Order> orders, ConstraintValidatorContext context) {
+        // a single class can't be bigger than the whole list
+        if (orders == null || orders.size() <= max) {
+            return true;
+        }
+
+        Map<Object, Integer> counts = new HashMap<>();
+        for (Order order : orders) {
+            if (order == null) {
+                continue;
+            }
+            if (counts.merge(rule.groupKey(order), 1, Integer::sum) > max) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,18 +1,34 @@
 package com.teleport.smartload.controller;
 
+import com.teleport.smartload.config.SolverProperties;
+import com.teleport.smartload.dto.FleetOptimizeRequest;
+import com.teleport.smartload.dto.FleetOptimizeResponse;
 import com.teleport.smartload.dto.OptimizeRequest;
 import com.teleport.smartload.dto.OptimizeResponse;
 import com.teleport.smartload.model.Order;
 import com.teleport.smartload.model.Truck;
+import com.teleport.smartload.exception.GlobalExceptionHandler;
+import com.teleport.smartload.exception.SolverOverloadedException;
 import com.teleport.smartload.service.LoadOptimizerService;
+import com.teleport.smartload.service.SolverAdmission;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -22,11 +38,29 @@ class LoadOptimizerControllerTest {
 
     private LoadOptimizerController controller;
     private LoadOptimizerService mockService;
+    private ThreadPoolExecutor executor;
 
     @BeforeEach
     void setUp() {
         mockService = mock(LoadOptimizerService.class);
-        controller = new LoadOptimizerController(mockService);
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+        controller = new LoadOptimizerController(mockService, new SolverAdmission(executor, new SolverProperties()),
+                new SolverProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    // the controller answers asynchronously, wait for the deferred result
+    @SuppressWarnings("unchecked")
+    private static <T> ResponseEntity<T> await(DeferredResult<ResponseEntity<T>> result) throws InterruptedException {
+        for (int i = 0; i < 1000 && !result.hasResult(); i++) {
+            Thread.sleep(5);
+        }
+        assertTrue(result.hasResult(), "No result within 5s");
+        return (ResponseEntity<T>) result.getResult();
     }
 
     private Order createOrder(String id, long payoutCents, int weightLbs, int volumeCuft) {
@@ -36,7 +70,7 @@ class LoadOptimizerControllerTest {
 
     @Test
     @DisplayName("optimize should return 200 OK with response from service")
-    void optimizeReturnsOk() {
+    void optimizeReturnsOk() throws InterruptedException {
         Truck truck = new Truck("truck-1", 44000, 3000);
         Order order = createOrder("ord-1", 100000, 20000, 1500);
         OptimizeRequest request = new OptimizeRequest(truck, List.of(order));
@@ -45,7 +79,7 @@ class LoadOptimizerControllerTest {
                 "truck-1", List.of("ord-1"), 100000, 20000, 1500, 45.45, 50.0);
         when(mockService.optimize(any(OptimizeRequest.class))).thenReturn(expectedResponse);
 
-        ResponseEntity<OptimizeResponse> response = controller.optimize(request);
+        ResponseEntity<OptimizeResponse> response = await(controller.optimize(request));
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -56,7 +90,7 @@ class LoadOptimizerControllerTest {
 
     @Test
     @DisplayName("optimize should delegate to service")
-    void optimizeDelegatesToService() {
+    void optimizeDelegatesToService() throws InterruptedException {
         Truck truck = new Truck("truck-1", 44000, 3000);
         OptimizeRequest request = new OptimizeRequest(truck, List.of());
 
@@ -64,14 +98,14 @@ class LoadOptimizerControllerTest {
                 "truck-1", List.of(), 0, 0, 0, 0.0, 0.0);
         when(mockService.optimize(any(OptimizeRequest.class))).thenReturn(expectedResponse);
 
-        controller.optimize(request);
+        await(controller.optimize(request));
 
         verify(mockService, times(1)).optimize(request);
     }
 
     @Test
     @DisplayName("optimize should return response with correct structure")
-    void optimizeReturnsCorrectStructure() {
+    void optimizeReturnsCorrectStructure() throws InterruptedException {
         Truck truck = new Truck("truck-1", 44000, 3000);
         Order order = createOrder("ord-1", 100000, 22000, 1500);
         OptimizeRequest request = new OptimizeRequest(truck, List.of(order));
@@ -80,11 +114,90 @@ class LoadOptimizerControllerTest {
                 "truck-1", List.of("ord-1"), 100000, 22000, 1500, 50.0, 50.0);
         when(mockService.optimize(any(OptimizeRequest.class))).thenReturn(expectedResponse);
 
-        ResponseEntity<OptimizeResponse> response = controller.optimize(request);
+        ResponseEntity<OptimizeResponse> response = await(controller.optimize(request));
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals(50.0, response.getBody().getUtilizationWeightPercent());
         assertEquals(50.0, response.getBody().getUtilizationVolumePercent());
     }
+
+    @Test
+    @DisplayName("optimizeFleet should return 200 OK with response from service")
+    void optimizeFleetReturnsOk() throws InterruptedException {
+        Truck truck1 = new Truck("truck-1", 44000, 3000);
+        Truck truck2 = new Truck("truck-2", 44000, 3000);
+        Order order = createOrder("ord-1", 100000, 20000, 1500);
+        FleetOptimizeRequest request = new FleetOptimizeRequest(List.of(truck1, truck2), List.of(order));
+
+        FleetOptimizeResponse expectedResponse = new FleetOptimizeResponse(List.of(
+                new OptimizeResponse("truck-1", List.of("ord-1"), 100000, 20000, 1500, 45.45, 50.0),
+                new OptimizeResponse("truck-2", List.of(), 0, 0, 0, 0.0, 0.0)), 100000, List.of());
+        when(mockService.optimizeFleet(any(FleetOptimizeRequest.class))).thenReturn(expectedResponse);
+
+        ResponseEntity<FleetOptimizeResponse> response = await(controller.optimizeFleet(request));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(2, response.getBody().getAssignments().size());
+        assertEquals(100000, response.getBody().getTotalPayoutCents());
+        verify(mockService, times(1)).optimizeFleet(request);
+    }
+
+    @Test
+    @DisplayName("optimize should answer 429 with Retry-After when the solver pool is full")
+    void optimizeRejectsWhenPoolIsFull() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        executor.execute(() -> { });
+        OptimizeRequest request = new OptimizeRequest(new Truck("truck-1", 44000, 3000), List.of());
+
+        SolverOverloadedException ex = assertThrows(SolverOverloadedException.class,
+                () -> controller.optimize(request));
+        release.countDown();
+
+        ResponseEntity<Map<String, Object>> response = new GlobalExceptionHandler().handleOverloaded(ex);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(429, response.getBody().get("status"));
+        verifyNoInteractions(mockService);
+    }
+
+    @Test
+    @DisplayName("optimize should solve identical concurrent requests once and keep nothing afterwards")
+    void optimizeCoalescesIdenticalRequests() throws InterruptedException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        controller = new LoadOptimizerController(mockService,
+                new SolverAdmission(executor, new SolverProperties(), meterRegistry), new SolverProperties());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        OptimizeResponse solved = new OptimizeResponse("truck-1", List.of("ord-1"), 100000, 20000, 1500, 45.45, 50.0);
+        when(mockService.optimize(any(OptimizeRequest.class))).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return solved;
+        });
+        // separate but equal request objects, like a client retry
+        Supplier<OptimizeRequest> request = () -> new OptimizeRequest(new Truck("truck-1", 44000, 3000),
+                List.of(createOrder("ord-1", 100000, 20000, 1500)));
+
+        DeferredResult<ResponseEntity<OptimizeResponse>> first = controller.optimize(request.get());
+        started.await();
+        DeferredResult<ResponseEntity<OptimizeResponse>> retry = controller.optimize(request.get());
+        release.countDown();
+
+        assertSame(solved, await(first).getBody());
+        assertSame(solved, await(retry).getBody());
+        verify(mockService, times(1)).optimize(any());
+        assertEquals(1.0, meterRegistry.get("smartload.solver.coalesced").counter().count());
+
+        await(controller.optimize(request.get()));
+        verify(mockService, times(2)).optimize(any());
+    }
 }
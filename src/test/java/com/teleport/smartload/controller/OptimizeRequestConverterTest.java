@@ -0,0 +1,136 @@
+package com.teleport.smartload.controller;
+
+import com.teleport.smartload.dto.OptimizeRequest;
+import com.teleport.smartload.model.Order;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimizeRequestConverterTest {
+
+    private static final String TRUCK = "\"truck\": {\"id\": \"truck-1\", \"max_weight_lbs\": 44000, \"max_volume_cuft\": 3000}";
+
+    private static ValidatorFactory factory;
+    private static Validator validator;
+    private static JsonMapper jsonMapper;
+    private static OptimizeRequestConverter converter;
+
+    @BeforeAll
+    static void setUp() {
+        factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+        jsonMapper = JsonMapper.builder().build();
+        converter = new OptimizeRequestConverter(jsonMapper, validator);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        factory.close();
+    }
+
+    private static String order(String id, String fields) {
+        return "{\"id\": \"" + id + "\", \"payout_cents\": 250000, \"weight_lbs\": 18000, \"volume_cuft\": 1200,"
+                + " \"origin\": \"Los Angeles, CA\", \"destination\": \"Dallas, TX\", \"pickup_date\": \"2025-12-05\","
+                + " \"delivery_date\": \"2025-12-09\", \"is_hazmat\": false" + fields + "}";
+    }
+
+    private static OptimizeRequest read(String json) throws IOException {
+        MockHttpInputMessage message = new MockHttpInputMessage(json.getBytes(StandardCharsets.UTF_8));
+        message.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return converter.read(OptimizeRequest.class, message);
+    }
+
+    private static Map<String, String> details(Iterable<? extends ConstraintViolation<?>> violations) {
+        Map<String, String> details = new TreeMap<>();
+        violations.forEach(v -> details.put(v.getPropertyPath().toString(), v.getMessage()));
+        return details;
+    }
+
+    private static void assertSameRequest(OptimizeRequest expected, OptimizeRequest actual) {
+        assertEquals(expected.getTruck().getId(), actual.getTruck().getId());
+        assertEquals(expected.getTruck().getMaxWeightLbs(), actual.getTruck().getMaxWeightLbs());
+        assertEquals(expected.getTruck().getMaxVolumeCuft(), actual.getTruck().getMaxVolumeCuft());
+        assertEquals(expected.getTimeBudgetMs(), actual.getTimeBudgetMs());
+        assertEquals(expected.getTopK(), actual.getTopK());
+        assertEquals(expected.getOrders().size(), actual.getOrders().size());
+        for (int i = 0; i < expected.getOrders().size(); i++) {
+            Order e = expected.getOrders().get(i);
+            Order a = actual.getOrders().get(i);
+            assertEquals(e.getId(), a.getId());
+            assertEquals(e.getPayoutCents(), a.getPayoutCents());
+            assertEquals(e.getWeightLbs(), a.getWeightLbs());
+            assertEquals(e.getVolumeCuft(), a.getVolumeCuft());
+            assertEquals(e.getOrigin(), a.getOrigin());
+            assertEquals(e.getDestination(), a.getDestination());
+            assertEquals(e.getPickupDate(), a.getPickupDate());
+            assertEquals(e.getDeliveryDate(), a.getDeliveryDate());
+            assertEquals(e.isHazmat(), a.isHazmat());
+        }
+    }
+
+    @Test
+    @DisplayName("Should read plain bodies without the fallback and match Jackson")
+    void matchesJacksonOnFastPath() throws IOException {
+        String json = "{" + TRUCK + ", \"orders\": [" + order("ord-1", "") + ", "
+                + order("ord-2", ", \"is_hazmat\": true").replace("\"is_hazmat\": false, ", "")
+                + "], \"time_budget_ms\": 500, \"top_k\": 3}";
+
+        assertNotNull(converter.parse(json.getBytes(StandardCharsets.UTF_8)));
+        assertSameRequest(jsonMapper.readValue(json, OptimizeRequest.class), read(json));
+    }
+
+    @Test
+    @DisplayName("Should hand unusual bodies to Jackson and still get the same request")
+    void fallsBackForUnusualShapes() throws IOException {
+        String json = "{" + TRUCK + ", \"note\": \"extra\", \"orders\": [" + order("ord-1", "") + "]}";
+        String isoDateTime = "{" + TRUCK + ", \"orders\": ["
+                + order("ord-1", "").replace("\"2025-12-05\"", "\"2025-12-05T08:00:00\"") + "]}";
+        String missingWeight = "{" + TRUCK + ", \"orders\": ["
+                + order("ord-1", "").replace("\"weight_lbs\": 18000, ", "") + "]}";
+
+        assertNull(converter.parse(json.getBytes(StandardCharsets.UTF_8)));
+        assertSameRequest(jsonMapper.readValue(json, OptimizeRequest.class), read(json));
+        assertNull(converter.parse(isoDateTime.getBytes(StandardCharsets.UTF_8)));
+        assertNull(converter.parse(missingWeight.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    @DisplayName("Should report the same violations as the validator")
+    void reportsValidatorViolations() throws IOException {
+        String json = "{\"truck\": {\"id\": \" \", \"max_weight_lbs\": 0, \"max_volume_cuft\": 3000}, \"orders\": ["
+                + order("ord-1", ", \"weight_lbs\": -5").replace("\"weight_lbs\": 18000, ", "")
+                + ", {\"id\": \"ord-2\", \"payout_cents\": 1, \"weight_lbs\": 10, \"volume_cuft\": 10,"
+                + " \"origin\": \"LA\", \"is_hazmat\": false}], \"top_k\": 21}";
+        OptimizeRequest bound = jsonMapper.readValue(json, OptimizeRequest.class);
+
+        ConstraintViolationException ex = assertThrows(ConstraintViolationException.class, () -> read(json));
+
+        assertEquals(details(validator.validate(bound)), details(ex.getConstraintViolations()));
+        assertEquals("Pickup date is required", details(ex.getConstraintViolations()).get("orders[1].pickupDate"));
+    }
+
+    @Test
+    @DisplayName("Should reject malformed JSON like the Jackson converter")
+    void rejectsMalformedJson() {
+        assertThrows(HttpMessageNotReadableException.class, () -> read("{" + TRUCK + ", \"orders\": ["));
+        assertThrows(HttpMessageNotReadableException.class,
+                () -> read("{" + TRUCK + ", \"orders\": [" + order("ord-1", "") + "]} trailing"));
+    }
+}
@@ -0,0 +1,266 @@
+package com.teleport.smartload.service;
+
+import com.teleport.smartload.dto.BatchItemResponse;
+import com.teleport.smartload.dto.OptimizeRequest;
+import com.teleport.smartload.model.Order;
+import com.teleport.smartload.model.Truck;
+import com.teleport.smartload.solver.CancellationToken;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class BatchOptimizeServiceTest {
+
+    private ValidatorFactory validatorFactory;
+    private ThreadPoolExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        executor = new ThreadPoolExecutor(2, 2, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+        validatorFactory.close();
+    }
+
+    private BatchOptimizeService batchService(LoadOptimizerService optimizerService) {
+        return new BatchOptimizeService(optimizerService, validatorFactory.getValidator(), JsonMapper.shared(),
+                executor);
+    }
+
+    private OptimizeRequest request(String truckId, long payout) {
+        Order order = new Order("ord-" + truckId, payout, 10000, 500, "LA", "Dallas",
+                LocalDate.now(), LocalDate.now().plusDays(3), false);
+        return new OptimizeRequest(new Truck(truckId, 44000, 3000), List.of(order));
+    }
+
+    @Test
+    @DisplayName("Should return results in request order")
+    void keepsRequestOrder() {
+        List<OptimizeRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            requests.add(request("truck-" + i, 1000 + i));
+        }
+
+        List<BatchItemResponse> results = batchService(new LoadOptimizerServiceImpl()).optimizeAll(requests);
+
+        assertEquals(20, results.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i, results.get(i).getIndex());
+            assertEquals(200, results.get(i).getStatus());
+            assertEquals("truck-" + i, results.get(i).getResult().getTruckId());
+            assertEquals(1000 + i, results.get(i).getResult().getTotalPayoutCents());
+        }
+    }
+
+    @Test
+    @DisplayName("Should report validation errors per item without failing the batch")
+    void reportsValidationErrorsPerItem() {
+        OptimizeRequest missingTruck = new OptimizeRequest(null, List.of());
+
+        List<BatchItemResponse> results = batchService(new LoadOptimizerServiceImpl())
+                .optimizeAll(Arrays.asList(request("truck-1", 1000), missingTruck, null));
+
+        assertEquals(200, results.get(0).getStatus());
+        assertEquals(400, results.get(1).getStatus());
+        assertEquals("Validation failed", results.get(1).getError());
+        assertEquals("Truck is required", results.get(1).getDetails().get("truck"));
+        assertEquals(400, results.get(2).getStatus());
+    }
+
+    @Test
+    @DisplayName("Should report solver failures per item")
+    void reportsSolverFailuresPerItem() {
+        LoadOptimizerService failing = mock(LoadOptimizerService.class);
+        when(failing.optimize(any(OptimizeRequest.class))).thenThrow(new IllegalStateException("boom"));
+
+        List<BatchItemResponse> results = batchService(failing).optimizeAll(List.of(request("truck-1", 1000)));
+
+        assertEquals(500, results.get(0).getStatus());
+        assertEquals("Internal server error", results.get(0).getError());
+        assertEquals("boom", results.get(0).getMessage());
+    }
+
+    @Test
+    @DisplayName("Should stream one result line per request line, in order")
+    void streamsNdjsonInOrder() throws IOException {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            input.append(JsonMapper.shared().writeValueAsString(request("truck-" + i, 1000 + i))).append('\n');
+            if (i == 5) {
+                input.append('\n');
+            }
+        }
+        input.append("{not json\n");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        batchService(new LoadOptimizerServiceImpl()).optimizeStream(
+                new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.UTF_8)), output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(21, lines.length);
+        for (int i = 0; i < 20; i++) {
+            JsonNode line = JsonMapper.shared().readTree(lines[i]);
+            assertEquals(i, line.get("index").asInt());
+            assertEquals(200, line.get("status").asInt());
+            assertEquals("truck-" + i, line.get("result").get("truck_id").asString());
+        }
+        JsonNode malformed = JsonMapper.shared().readTree(lines[20]);
+        assertEquals(20, malformed.get("index").asInt());
+        assertEquals(400, malformed.get("status").asInt());
+    }
+
+    @Test
+    @DisplayName("Should not reject its own items when the solver queue is small")
+    void waitsForOwnItemsOnSmallQueue() throws IOException {
+        executor.shutdown();
+        executor = new ThreadPoolExecutor(4, 4, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+        LoadOptimizerService slow = mock(LoadOptimizerService.class);
+        when(slow.optimize(any(OptimizeRequest.class))).thenAnswer(invocation -> {
+            Thread.sleep(5);
+            return new LoadOptimizerServiceImpl().optimize(invocation.getArgument(0));
+        });
+        List<OptimizeRequest> requests = new ArrayList<>();
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            requests.add(request("truck-" + i, 1000 + i));
+            input.append(JsonMapper.shared().writeValueAsString(requests.get(i))).append('\n');
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        List<BatchItemResponse> results = batchService(slow).optimizeAll(requests);
+        batchService(slow).optimizeStream(
+                new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.UTF_8)), output);
+
+        assertTrue(results.stream().allMatch(result -> result.getStatus() == 200));
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(40, lines.length);
+        for (String line : lines) {
+            assertEquals(200, JsonMapper.shared().readTree(line).get("status").asInt());
+        }
+    }
+
+    @Test
+    @DisplayName("Should stop solving a stream once its client is gone")
+    void stopsStreamWhenClientIsGone() throws Exception {
+        AtomicInteger solves = new AtomicInteger();
+        LoadOptimizerService counting = mock(LoadOptimizerService.class);
+        when(counting.optimize(any(OptimizeRequest.class))).thenAnswer(invocation -> {
+            solves.incrementAndGet();
+            Thread.sleep(2);
+            return new LoadOptimizerServiceImpl().optimize(invocation.getArgument(0));
+        });
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            input.append(JsonMapper.shared().writeValueAsString(request("truck-" + i, 1000 + i))).append('\n');
+        }
+        // the client hangs up after reading three lines
+        OutputStream hangsUp = new OutputStream() {
+            private int lines;
+
+            @Override
+            public void write(int b) throws IOException {
+                if (b == '\n' && ++lines == 3) {
+                    throw new IOException("Broken pipe");
+                }
+            }
+        };
+        CancellationToken token = new CancellationToken();
+
+        assertThrows(IOException.class, () -> batchService(counting).optimizeStream(
+                new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.UTF_8)), hangsUp, token));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertTrue(token.isCancelled());
+        // three written, plus at most the window of lines already started
+        assertTrue(solves.get() <= 3 + 4, "solved " + solves.get() + " of 200");
+    }
+
+    @Test
+    @DisplayName("Should not start items after the batch is cancelled")
+    void skipsItemsAfterCancel() throws Exception {
+        CancellationToken token = new CancellationToken();
+        AtomicInteger solves = new AtomicInteger();
+        LoadOptimizerService cancelling = mock(LoadOptimizerService.class);
+        when(cancelling.optimize(any(OptimizeRequest.class))).thenAnswer(invocation -> {
+            if (solves.incrementAndGet() == 5) {
+                token.cancel();
+            }
+            return new LoadOptimizerServiceImpl().optimize(invocation.getArgument(0));
+        });
+        List<OptimizeRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            requests.add(request("truck-" + i, 1000 + i));
+        }
+
+        List<BatchItemResponse> results = batchService(cancelling).optimizeAll(requests, token);
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(100, results.size());
+        // the one that cancelled and any running next to it, no more
+        assertTrue(solves.get() <= 5 + 1, "solved " + solves.get() + " of 100");
+        assertEquals(503, results.get(99).getStatus());
+        assertEquals("Service unavailable", results.get(99).getError());
+        assertTrue(results.stream().filter(result -> result.getStatus() == 503).count() >= 100 - 4);
+    }
+
+    @Test
+    @DisplayName("Should stop reading a stream once it is cancelled")
+    void stopsStreamOnCancel() throws Exception {
+        CancellationToken token = new CancellationToken();
+        AtomicInteger solves = new AtomicInteger();
+        LoadOptimizerService cancelling = mock(LoadOptimizerService.class);
+        when(cancelling.optimize(any(OptimizeRequest.class))).thenAnswer(invocation -> {
+            if (solves.incrementAndGet() == 5) {
+                token.cancel();
+            }
+            Thread.sleep(2);
+            return new LoadOptimizerServiceImpl().optimize(invocation.getArgument(0));
+        });
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            input.append(JsonMapper.shared().writeValueAsString(request("truck-" + i, 1000 + i))).append('\n');
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        batchService(cancelling).optimizeStream(
+                new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.UTF_8)), output, token);
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertTrue(solves.get() <= 5 + 1, "solved " + solves.get() + " of 200");
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        // lines read before the cancel are still answered, the rest are never read
+        assertTrue(lines.length <= 5 + 1 + 4, "wrote " + lines.length + " lines");
+        assertEquals(503, JsonMapper.shared().readTree(lines[lines.length - 1]).get("status").asInt());
+    }
+}
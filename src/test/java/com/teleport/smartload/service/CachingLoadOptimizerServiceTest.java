@@ -0,0 +1,105 @@
+package com.teleport.smartload.service;
+
+import com.teleport.smartload.config.CacheProperties;
+import com.teleport.smartload.dto.OptimizeRequest;
+import com.teleport.smartload.dto.OptimizeResponse;
+import com.teleport.smartload.model.Order;
+import com.teleport.smartload.model.Truck;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CachingLoadOptimizerServiceTest {
+
+    private LoadOptimizerServiceImpl delegate;
+    private SimpleMeterRegistry meterRegistry;
+    private CachingLoadOptimizerService service;
+
+    private final Order first = createOrder("ord-1", 100000, 15000, 1000);
+    private final Order second = createOrder("ord-2", 80000, 12000, 800);
+
+    @BeforeEach
+    void setUp() {
+        delegate = spy(new LoadOptimizerServiceImpl());
+        meterRegistry = new SimpleMeterRegistry();
+        service = new CachingLoadOptimizerService(delegate, new CacheProperties(), meterRegistry);
+    }
+
+    private static Order createOrder(String id, long payoutCents, int weightLbs, int volumeCuft) {
+        return new Order(id, payoutCents, weightLbs, volumeCuft, "LA", "Dallas",
+                LocalDate.of(2025, 12, 1), LocalDate.of(2025, 12, 4), false);
+    }
+
+    @Test
+    @DisplayName("Should solve an identical request only once")
+    void servesRepeatFromCache() {
+        OptimizeRequest request = new OptimizeRequest(new Truck("truck-1", 44000, 3000), List.of(first, second));
+
+        OptimizeResponse cold = service.optimize(request);
+        OptimizeResponse warm = service.optimize(request);
+
+        verify(delegate, times(1)).optimize(any());
+        assertEquals(cold.getSelectedOrderIds(), warm.getSelectedOrderIds());
+        assertEquals(180000, warm.getTotalPayoutCents());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Should hit for reordered orders and another truck with the same capacity")
+    void canonicalizesRequest() {
+        service.optimize(new OptimizeRequest(new Truck("truck-1", 44000, 3000), List.of(first, second)));
+
+        OptimizeResponse response = service.optimize(
+                new OptimizeRequest(new Truck("truck-2", 44000, 3000), List.of(second, first)));
+
+        verify(delegate, times(1)).optimize(any());
+        assertEquals("truck-2", response.getTruckId());
+    }
+
+    @Test
+    @DisplayName("Should miss when capacity or an order changes")
+    void missesOnDifferentInput() {
+        service.optimize(new OptimizeRequest(new Truck("truck-1", 44000, 3000), List.of(first, second)));
+        service.optimize(new OptimizeRequest(new Truck("truck-1", 40000, 3000), List.of(first, second)));
+        service.optimize(new OptimizeRequest(new Truck("truck-1", 44000, 3000),
+                List.of(first, createOrder("ord-2", 80001, 12000, 800))));
+
+        verify(delegate, times(3)).optimize(any());
+    }
+
+    @Test
+    @DisplayName("Should not cache a load that ran out of time")
+    void skipsNonOptimalResults() {
+        OptimizeRequest request = new OptimizeRequest(new Truck("truck-1", 44000, 3000), List.of(first, second));
+        OptimizeResponse partial = new OptimizeResponse("truck-1", List.of("ord-1"), 100000, 15000, 1000,
+                34.09, 33.33, false, 180000, 44.44);
+        doReturn(partial).when(delegate).optimize(any());
+
+        service.optimize(request);
+        service.optimize(request);
+
+        verify(delegate, times(2)).optimize(any());
+    }
+
+    @Test
+    @DisplayName("Should always solve when the cache is disabled")
+    void bypassesWhenDisabled() {
+        CacheProperties properties = new CacheProperties();
+        properties.setEnabled(false);
+        CachingLoadOptimizerService uncached = new CachingLoadOptimizerService(delegate, properties, meterRegistry);
+        OptimizeRequest request = new OptimizeRequest(new Truck("truck-1", 44000, 3000), List.of(first));
+
+        uncached.optimize(request);
+        uncached.optimize(request);
+
+        verify(delegate, times(2)).optimize(any());
+    }
+}
@@ -0,0 +1,49 @@
+package com.teleport.smartload.service;
+
+import com.teleport.smartload.config.JobProperties;
+import com.teleport.smartload.dto.JobResponse;
+import com.teleport.smartload.dto.JobStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpJobCallbackTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should hand the callback off instead of waiting for a receiver that never answers")
+    void doesNotWaitForReceiver() throws Exception {
+        JobProperties properties = new JobProperties();
+        properties.setCallbackTimeout(Duration.ofMillis(300));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        HttpJobCallback callback = new HttpJobCallback(properties, executor, registry);
+
+        // connections are accepted by the kernel but never read or answered
+        try (ServerSocket blackHole = new ServerSocket(0)) {
+            long started = System.nanoTime();
+            callback.deliver("http://localhost:" + blackHole.getLocalPort() + "/hook",
+                    new JobResponse("job-1", JobStatus.SUCCEEDED, 0, Instant.now()));
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) < 200);
+
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1.0, registry.get("smartload.jobs.callbacks").tag("outcome", "failed").counter().count());
+    }
+}
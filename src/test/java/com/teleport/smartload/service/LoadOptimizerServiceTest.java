@@ -1,9 +1,19 @@
 package com.teleport.smartload.service;
 
+import com.teleport.smartload.config.SolverProperties;
+import com.teleport.smartload.dto.AlternativeLoad;
+import com.teleport.smartload.dto.FleetOptimizeRequest;
+import com.teleport.smartload.dto.FleetOptimizeResponse;
+import com.teleport.smartload.dto.LargePoolOptimizeRequest;
 import com.teleport.smartload.dto.OptimizeRequest;
 import com.teleport.smartload.dto.OptimizeResponse;
+import com.teleport.smartload.exception.ClassTooLargeException;
 import com.teleport.smartload.model.Order;
 import com.teleport.smartload.model.Truck;
+import com.teleport.smartload.solver.CancellationToken;
+import com.teleport.smartload.solver.CompatibilityRule;
+import com.teleport.smartload.solver.DynamicProgrammingEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -11,7 +21,13 @@ import org.junit.jupiter.api.Test;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -247,6 +263,208 @@ class LoadOptimizerServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Compatibility Classes")
+    class CompatibilityClasses {
+
+        @Test
+        @DisplayName("Should pick the best class from a mixed-lane pool")
+        void picksBestClassFromMixedPool() {
+            List<Order> orders = new ArrayList<>();
+            String[] destinations = {"Dallas", "Houston", "Phoenix", "Denver", "Austin"};
+            for (int i = 0; i < 100; i++) {
+                String destination = destinations[i % destinations.length];
+                // Phoenix orders pay the most
+                long payout = destination.equals("Phoenix") ? 50000 : 20000;
+                orders.add(createOrder("ord-" + i, payout, 2000, 100, "LA", destination, i % 2 == 0));
+            }
+            OptimizeRequest request = new OptimizeRequest(defaultTruck, orders);
+
+            OptimizeResponse response = service.optimize(request);
+
+            // 10 Phoenix orders per hazmat flag, all of them fit
+            assertEquals(10, response.getSelectedOrderIds().size());
+            assertEquals(500000, response.getTotalPayoutCents());
+        }
+
+        @Test
+        @DisplayName("Should return the best loads across lanes when asked for top_k")
+        void returnsTopKAlternatives() {
+            Order dallasBig = createOrder("dallas-big", 150000, 40000, 2500, "LA", "Dallas", false);
+            Order dallasSmall = createOrder("dallas-small", 60000, 20000, 1000, "LA", "Dallas", false);
+            Order dallasOther = createOrder("dallas-other", 50000, 20000, 1000, "LA", "Dallas", false);
+            Order denver = createOrder("denver", 120000, 30000, 2000, "LA", "Denver", false);
+            OptimizeRequest request = new OptimizeRequest(defaultTruck,
+                    List.of(dallasBig, dallasSmall, dallasOther, denver));
+            request.setTopK(3);
+
+            OptimizeResponse response = service.optimize(request);
+
+            List<AlternativeLoad> alternatives = response.getAlternatives();
+            assertEquals(3, alternatives.size());
+            assertEquals(List.of(150000L, 120000L, 110000L),
+                    alternatives.stream().map(AlternativeLoad::getTotalPayoutCents).toList());
+            assertEquals(List.of("denver"), alternatives.get(1).getSelectedOrderIds());
+            assertEquals(Set.of("dallas-small", "dallas-other"),
+                    new HashSet<>(alternatives.get(2).getSelectedOrderIds()));
+            assertEquals(alternatives.get(0).getSelectedOrderIds(), response.getSelectedOrderIds());
+            assertTrue(response.isOptimal());
+        }
+
+        @Test
+        @DisplayName("Should leave alternatives out without top_k")
+        void omitsAlternativesByDefault() {
+            Order order = createOrder("ord-1", 100000, 20000, 1500, "LA", "Dallas", false);
+
+            assertNull(service.optimize(new OptimizeRequest(defaultTruck, List.of(order))).getAlternatives());
+        }
+
+        @Test
+        @DisplayName("Should load a whole order board through the large-pool path")
+        void optimizesLargePool() {
+            Random random = new Random(41);
+            List<Order> orders = new ArrayList<>();
+            for (int i = 0; i < 3000; i++) {
+                orders.add(createOrder("board-" + i, 1000 + random.nextInt(100000), 500 + random.nextInt(15000),
+                        50 + random.nextInt(1000), "LA", "Dallas", false));
+            }
+            orders.add(createOrder("denver-1", 400000, 40000, 2800, "LA", "Denver", false));
+
+            OptimizeResponse response = service.optimizeLargePool(new LargePoolOptimizeRequest(defaultTruck, orders));
+
+            assertTrue(response.getTotalWeightLbs() <= 44000);
+            assertTrue(response.getTotalVolumeCuft() <= 3000);
+            assertTrue(response.getUpperBoundCents() >= response.getTotalPayoutCents());
+            assertEquals(response.isOptimal(), response.getGapPercent() == 0);
+            // lanes never mix, so the Denver order rides alone or not at all
+            boolean denver = response.getSelectedOrderIds().contains("denver-1");
+            assertTrue(!denver || response.getSelectedOrderIds().size() == 1);
+        }
+
+        @Test
+        @DisplayName("Should solve small classes exactly on the large-pool path")
+        void largePoolSolvesSmallClassesExactly() {
+            Order order1 = createOrder("ord-1", 100000, 15000, 1000, "LA", "Dallas", false);
+            Order order2 = createOrder("ord-2", 80000, 12000, 800, "LA", "Dallas", false);
+            Order order3 = createOrder("ord-3", 120000, 30000, 2000, "LA", "Denver", false);
+
+            OptimizeResponse response = service.optimizeLargePool(
+                    new LargePoolOptimizeRequest(defaultTruck, List.of(order1, order2, order3)));
+
+            assertEquals(180000, response.getTotalPayoutCents());
+            assertTrue(response.isOptimal());
+        }
+
+        @Test
+        @DisplayName("Should let a custom rule combine lanes")
+        void customRuleCombinesLanes() {
+            // one corridor out of LA: any destination may share a truck, hazmat still can't mix
+            CompatibilityRule corridor = Order::isHazmat;
+            LoadOptimizerService corridorService = new LoadOptimizerServiceImpl(
+                    new SolverProperties(), ForkJoinPool.commonPool(), new SimpleMeterRegistry(), corridor);
+            Order dallas = createOrder("dallas", 100000, 15000, 1000, "LA", "Dallas", false);
+            Order denver = createOrder("denver", 90000, 15000, 1000, "LA", "Denver", false);
+            Order hazmat = createOrder("hazmat", 50000, 5000, 500, "LA", "Dallas", true);
+
+            OptimizeResponse response = corridorService.optimize(
+                    new OptimizeRequest(defaultTruck, List.of(dallas, denver, hazmat)));
+
+            assertEquals(Set.of("dallas", "denver"), new HashSet<>(response.getSelectedOrderIds()));
+            assertEquals(190000, response.getTotalPayoutCents());
+        }
+
+        @Test
+        @DisplayName("Should refuse a custom rule class over the limit instead of failing the pool")
+        void customRuleClassOverLimit() {
+            LoadOptimizerService corridorService = new LoadOptimizerServiceImpl(
+                    new SolverProperties(), ForkJoinPool.commonPool(), new SimpleMeterRegistry(), Order::isHazmat);
+            List<Order> orders = new ArrayList<>();
+            for (int i = 0; i < 70; i++) {
+                orders.add(createOrder("ord-" + i, 30000, 4000, 200, "LA", "City-" + (i % 2), false));
+            }
+
+            assertThrows(ClassTooLargeException.class,
+                    () -> corridorService.optimize(new OptimizeRequest(defaultTruck, orders)));
+        }
+
+        @Test
+        @DisplayName("Should return the same answer for repeated mixed-lane solves")
+        void mixedPoolIsDeterministic() {
+            List<Order> orders = new ArrayList<>();
+            for (int i = 0; i < 60; i++) {
+                orders.add(createOrder("ord-" + i, 30000, 4000, 200, "LA", "City-" + (i % 6), false));
+            }
+            OptimizeRequest request = new OptimizeRequest(defaultTruck, orders);
+
+            OptimizeResponse first = service.optimize(request);
+            for (int run = 0; run < 5; run++) {
+                assertEquals(first.getSelectedOrderIds(), service.optimize(request).getSelectedOrderIds());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Fleet Optimization")
+    class FleetOptimization {
+
+        @Test
+        @DisplayName("Should give each truck a disjoint load")
+        void assignsDisjointLoads() {
+            List<Order> orders = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                orders.add(createOrder("ord-" + i, 50000 + i * 1000, 10000, 700, "LA", "Dallas", false));
+            }
+            List<Truck> trucks = List.of(new Truck("truck-1", 44000, 3000), new Truck("truck-2", 44000, 3000));
+
+            FleetOptimizeResponse response = service.optimizeFleet(new FleetOptimizeRequest(trucks, orders));
+
+            Set<String> seen = new HashSet<>();
+            for (OptimizeResponse assignment : response.getAssignments()) {
+                // 4 orders of 10000 lbs fit per truck
+                assertEquals(4, assignment.getSelectedOrderIds().size());
+                for (String id : assignment.getSelectedOrderIds()) {
+                    assertTrue(seen.add(id), "order assigned twice: " + id);
+                }
+            }
+            assertEquals(4, response.getUnassignedOrderIds().size());
+            // the 8 best orders: 50000 + 4000..11000
+            assertEquals(8 * 50000 + (4 + 5 + 6 + 7 + 8 + 9 + 10 + 11) * 1000, response.getTotalPayoutCents());
+        }
+
+        @Test
+        @DisplayName("Should send each truck to the lane that pays best for it")
+        void usesDifferentLanes() {
+            Order dallas = createOrder("dal", 300000, 40000, 2000, "LA", "Dallas", false);
+            Order houston = createOrder("hou", 200000, 40000, 2000, "LA", "Houston", false);
+            Order hazmat = createOrder("haz", 150000, 10000, 500, "LA", "Dallas", true);
+            List<Truck> trucks = List.of(new Truck("small", 20000, 1000), new Truck("big-1", 44000, 3000),
+                    new Truck("big-2", 44000, 3000));
+
+            FleetOptimizeResponse response = service.optimizeFleet(
+                    new FleetOptimizeRequest(trucks, List.of(dallas, houston, hazmat)));
+
+            assertEquals(List.of("haz"), response.getAssignments().get(0).getSelectedOrderIds());
+            assertEquals(List.of("dal"), response.getAssignments().get(1).getSelectedOrderIds());
+            assertEquals(List.of("hou"), response.getAssignments().get(2).getSelectedOrderIds());
+            assertEquals(650000, response.getTotalPayoutCents());
+            assertTrue(response.getUnassignedOrderIds().isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should return empty assignments when nothing fits")
+        void handlesNothingFits() {
+            Order tooHeavy = createOrder("heavy", 100000, 50000, 1000, "LA", "Dallas", false);
+            List<Truck> trucks = List.of(new Truck("truck-1", 44000, 3000));
+
+            FleetOptimizeResponse response = service.optimizeFleet(
+                    new FleetOptimizeRequest(trucks, List.of(tooHeavy)));
+
+            assertEquals(1, response.getAssignments().size());
+            assertTrue(response.getAssignments().get(0).getSelectedOrderIds().isEmpty());
+            assertEquals(List.of("heavy"), response.getUnassignedOrderIds());
+        }
+    }
+
     @Nested
     @DisplayName("Date Validation")
     class DateValidation {
@@ -289,6 +507,102 @@ class LoadOptimizerServiceTest {
             assertFalse(response.getSelectedOrderIds().isEmpty());
         }
 
+        @Test
+        @DisplayName("Should solve a 45-order class optimally within reasonable time")
+        void handles45OrderClassQuickly() {
+            List<Order> orders = new ArrayList<>();
+            for (int i = 0; i < 45; i++) {
+                // weights between 3000 and 7400, only a handful fit at once
+                orders.add(createOrder("ord-" + i, 40000 + (i * 7919) % 30000, 3000 + (i * 37) % 4400,
+                        100 + (i * 13) % 300, "LA", "Dallas", false));
+            }
+            OptimizeRequest request = new OptimizeRequest(defaultTruck, orders);
+
+            long startTime = System.currentTimeMillis();
+            OptimizeResponse response = service.optimize(request);
+            long duration = System.currentTimeMillis() - startTime;
+
+            assertTrue(duration < 2000, "Should complete within 2 seconds, took: " + duration + "ms");
+            assertTrue(response.getTotalWeightLbs() <= 44000);
+            assertTrue(response.getTotalVolumeCuft() <= 3000);
+            assertFalse(response.getSelectedOrderIds().isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should round the DP grid for a big irregular class when rounding is on")
+        void roundsBigIrregularClass() {
+            List<Order> orders = new ArrayList<>();
+            for (int i = 0; i < 45; i++) {
+                // bigger orders pay more, so none dominates another and the class stays at 45
+                orders.add(createOrder("ord-" + i, 20000 + 700L * i + (i * 7919) % 500, 1001 + 37 * i, 51 + 11 * i,
+                        "LA", "Dallas", false));
+            }
+            SolverProperties properties = new SolverProperties();
+            properties.setDpRounding(true);
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            LoadOptimizerService rounding = new LoadOptimizerServiceImpl(
+                    properties, ForkJoinPool.commonPool(), registry, CompatibilityRule.LANE_AND_HAZMAT);
+
+            OptimizeResponse rounded = rounding.optimize(new OptimizeRequest(defaultTruck, orders));
+            OptimizeResponse exact = service.optimize(new OptimizeRequest(defaultTruck, orders));
+
+            assertEquals(DynamicProgrammingEngine.NAME,
+                    registry.get("smartload.solver.search").timer().getId().getTag("engine"));
+            assertFalse(rounded.isOptimal());
+            assertTrue(rounded.getTotalWeightLbs() <= 44000);
+            assertTrue(rounded.getTotalVolumeCuft() <= 3000);
+            assertTrue(rounded.getTotalPayoutCents() <= exact.getTotalPayoutCents());
+            assertTrue(rounded.getUpperBoundCents() >= exact.getTotalPayoutCents());
+        }
+
+        @Test
+        @DisplayName("Should stop at the time budget and report the gap")
+        void stopsAtTimeBudget() {
+            List<Order> orders = new ArrayList<>();
+            for (int i = 0; i < 60; i++) {
+                // irregular sizes keep the DP grid large and the class too big to enumerate quickly
+                orders.add(createOrder("ord-" + i, 40000 + (i * 7919) % 30000, 1000 + (i * 1237) % 4400,
+                        50 + (i * 131) % 300, "LA", "Dallas", false));
+            }
+            OptimizeRequest request = new OptimizeRequest(defaultTruck, orders);
+            request.setTimeBudgetMs(50L);
+
+            long startTime = System.currentTimeMillis();
+            OptimizeResponse response = service.optimize(request);
+            long duration = System.currentTimeMillis() - startTime;
+
+            assertTrue(duration < 1000, "Should stop close to the budget, took: " + duration + "ms");
+            assertFalse(response.getSelectedOrderIds().isEmpty());
+            assertTrue(response.getUpperBoundCents() >= response.getTotalPayoutCents());
+            assertEquals(response.isOptimal(), response.getGapPercent() == 0.0);
+        }
+
+        @Test
+        @DisplayName("Should stop soon after the caller's token is cancelled")
+        void stopsWhenCancelled() throws Exception {
+            List<Order> orders = new ArrayList<>();
+            Random random = new Random(7);
+            for (int i = 0; i < 64; i++) {
+                // payout tracks size closely, which leaves the bounds little to prune
+                int weight = 1000 + random.nextInt(4000);
+                int volume = 50 + random.nextInt(300);
+                orders.add(createOrder("ord-" + i, weight * 10L + volume * 100L + random.nextInt(50), weight, volume,
+                        "LA", "Dallas", false));
+            }
+            OptimizeRequest request = new OptimizeRequest(defaultTruck, orders);
+            CancellationToken token = new CancellationToken();
+
+            CompletableFuture<OptimizeResponse> solve = CompletableFuture.supplyAsync(
+                    () -> CancellationToken.callWith(token, () -> service.optimize(request)));
+            Thread.sleep(100);
+            token.cancel();
+            OptimizeResponse response = solve.get(500, TimeUnit.MILLISECONDS);
+
+            assertFalse(response.isOptimal());
+            assertFalse(response.getSelectedOrderIds().isEmpty());
+            assertTrue(response.getTotalWeightLbs() <= 44000);
+        }
+
         @Test
         @DisplayName("Should handle mixed hazmat and regular orders efficiently")
         void handles22MixedOrdersQuickly() {
@@ -307,10 +621,51 @@ class LoadOptimizerServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Solver Metrics")
+    class SolverMetricsTests {
+
+        @Test
+        @DisplayName("Should publish phase timings and search counters per engine")
+        void publishesSolverMetrics() {
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            LoadOptimizerService instrumented = new LoadOptimizerServiceImpl(
+                    new SolverProperties(), ForkJoinPool.commonPool(), registry, CompatibilityRule.LANE_AND_HAZMAT);
+            List<Order> orders = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                orders.add(createOrder("ord-" + i, 10000 + i * 1000, 6000 + i * 100, 300, "LA", "Dallas", false));
+            }
+
+            instrumented.optimize(new OptimizeRequest(defaultTruck, orders));
+
+            assertEquals(1, registry.get("smartload.solver.filter").tag("orders", "9-16").timer().count());
+            assertEquals(1, registry.get("smartload.solver.sort").timer().count());
+            String engine = registry.get("smartload.solver.search").timer().getId().getTag("engine");
+            assertNotNull(engine);
+            assertTrue(registry.get("smartload.solver.nodes").tag("engine", engine).summary().totalAmount() > 0);
+            assertEquals(5, registry.get("smartload.solver.prunes").tag("engine", engine).counters().size());
+            assertNotNull(registry.get("smartload.solver.improvements").tag("engine", engine).counter());
+        }
+    }
+
     @Nested
     @DisplayName("Response Format Tests")
     class ResponseFormatTests {
 
+        @Test
+        @DisplayName("Should report a proven optimum without a time budget")
+        void reportsOptimalWithoutBudget() {
+            Order ord1 = createOrder("ord-1", 100000, 30000, 500, "LA", "Dallas", false);
+            Order ord2 = createOrder("ord-2", 80000, 20000, 500, "LA", "Dallas", false);
+            OptimizeRequest request = new OptimizeRequest(defaultTruck, List.of(ord1, ord2));
+
+            OptimizeResponse response = service.optimize(request);
+
+            assertTrue(response.isOptimal());
+            assertEquals(response.getTotalPayoutCents(), response.getUpperBoundCents());
+            assertEquals(0.0, response.getGapPercent());
+        }
+
         @Test
         @DisplayName("Should return correct truck ID")
         void returnsTruckId() {
@@ -0,0 +1,232 @@
+package com.teleport.smartload.service;
+
+import com.teleport.smartload.config.JobProperties;
+import com.teleport.smartload.config.SolverProperties;
+import com.teleport.smartload.dto.JobResponse;
+import com.teleport.smartload.dto.JobStatus;
+import com.teleport.smartload.dto.JobSubmitRequest;
+import com.teleport.smartload.dto.OptimizeRequest;
+import com.teleport.smartload.dto.OptimizeResponse;
+import com.teleport.smartload.exception.CallbackNotAllowedException;
+import com.teleport.smartload.exception.JobNotFoundException;
+import com.teleport.smartload.exception.SolverOverloadedException;
+import com.teleport.smartload.model.Order;
+import com.teleport.smartload.model.Truck;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class OptimizationJobServiceTest {
+
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new PriorityBlockingQueue<>());
+    private final List<JobResponse> callbacks = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private OptimizationJobService jobService(LoadOptimizerService optimizer, JobProperties properties) {
+        return new OptimizationJobService(optimizer, executor, (url, job) -> callbacks.add(job), properties,
+                new SolverProperties(), new SimpleMeterRegistry());
+    }
+
+    private OptimizeRequest request(String truckId) {
+        return new OptimizeRequest(new Truck(truckId, 44000, 3000), List.of(new Order("ord-1", 100000, 20000, 1500,
+                "LA", "Dallas", LocalDate.now(), LocalDate.now().plusDays(3), false)));
+    }
+
+    private JobSubmitRequest job(OptimizeRequest request, int priority) {
+        JobSubmitRequest job = JobSubmitRequest.of(request);
+        job.setPriority(priority);
+        return job;
+    }
+
+    private JobResponse await(OptimizationJobService service, String jobId) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            JobResponse job = service.get(jobId);
+            if (job.getStatus().isFinished()) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        fail("Job " + jobId + " didn't finish");
+        return null;
+    }
+
+    // the first job holds the only worker until released, so the rest queue up
+    private LoadOptimizerService blockingOptimizer(CountDownLatch release, List<String> ran) {
+        LoadOptimizerService optimizer = mock(LoadOptimizerService.class);
+        when(optimizer.optimize(any(OptimizeRequest.class))).thenAnswer(invocation -> {
+            OptimizeRequest request = invocation.getArgument(0);
+            ran.add(request.getTruck().getId());
+            release.await();
+            return new OptimizeResponse(request.getTruck().getId(), List.of(), 0, 0, 0, 0.0, 0.0);
+        });
+        return optimizer;
+    }
+
+    @Test
+    @DisplayName("Should return the same result as the synchronous call and call back once")
+    void runsJobAndCallsBack() throws InterruptedException {
+        LoadOptimizerService optimizer = new LoadOptimizerServiceImpl();
+        JobProperties properties = new JobProperties();
+        properties.setCallbackAllowedHosts(List.of("localhost"));
+        OptimizationJobService service = jobService(optimizer, properties);
+        JobSubmitRequest request = JobSubmitRequest.of(request("truck-1"));
+        request.setCallbackUrl("http://localhost/hook");
+
+        JobResponse submitted = service.submit(request);
+        JobResponse finished = await(service, submitted.getJobId());
+
+        assertEquals(JobStatus.SUCCEEDED, finished.getStatus());
+        assertEquals(optimizer.optimize(request("truck-1")).getSelectedOrderIds(),
+                finished.getResult().getSelectedOrderIds());
+        assertNotNull(finished.getFinishedAt());
+        assertEquals(1, callbacks.size());
+        assertEquals(submitted.getJobId(), callbacks.get(0).getJobId());
+    }
+
+    @Test
+    @DisplayName("Should refuse callback URLs outside the allowed hosts")
+    void refusesCallbacksToOtherHosts() {
+        JobProperties properties = new JobProperties();
+        properties.setCallbackAllowedHosts(List.of("Hooks.Example.com"));
+        OptimizationJobService service = jobService(mock(LoadOptimizerService.class), properties);
+
+        for (String url : List.of("http://169.254.169.254/latest/meta-data", "http://localhost:8080/actuator",
+                "https://hooks.example.com@internal.local/hook", "http://hooks.example.com.evil.net/hook",
+                "http://[not a uri")) {
+            JobSubmitRequest request = job(request("truck-1"), 0);
+            request.setCallbackUrl(url);
+            assertThrows(CallbackNotAllowedException.class, () -> service.submit(request), url);
+        }
+        JobSubmitRequest allowed = job(request("truck-1"), 0);
+        allowed.setCallbackUrl("https://hooks.example.com:8443/smartload");
+        assertNotNull(service.submit(allowed).getJobId());
+    }
+
+    @Test
+    @DisplayName("Should run higher priorities first and equal ones in submission order")
+    void runsByPriority() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> ran = new CopyOnWriteArrayList<>();
+        OptimizationJobService service = jobService(blockingOptimizer(release, ran), new JobProperties());
+
+        service.submit(job(request("first"), 0));
+        while (ran.isEmpty()) {
+            Thread.sleep(5);
+        }
+        service.submit(job(request("low"), 1));
+        service.submit(job(request("high-a"), 7));
+        JobResponse last = service.submit(job(request("high-b"), 7));
+        release.countDown();
+        await(service, last.getJobId());
+
+        assertEquals(List.of("first", "high-a", "high-b", "low"), ran.subList(0, 4));
+    }
+
+    @Test
+    @DisplayName("Should never run a cancelled job and leave finished ones alone")
+    void cancelsQueuedJobs() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> ran = new CopyOnWriteArrayList<>();
+        OptimizationJobService service = jobService(blockingOptimizer(release, ran), new JobProperties());
+
+        JobResponse first = service.submit(job(request("first"), 0));
+        JobResponse cancelled = service.submit(job(request("cancelled"), 0));
+        assertEquals(JobStatus.CANCELLED, service.cancel(cancelled.getJobId()).getStatus());
+        release.countDown();
+
+        assertEquals(JobStatus.SUCCEEDED, await(service, first.getJobId()).getStatus());
+        assertEquals(JobStatus.SUCCEEDED, service.cancel(first.getJobId()).getStatus());
+        assertEquals(List.of("first"), ran);
+        assertEquals(JobStatus.CANCELLED, service.get(cancelled.getJobId()).getStatus());
+    }
+
+    @Test
+    @DisplayName("Should refuse jobs past the queue limit and forget results after the TTL")
+    void limitsQueueAndDropsOldResults() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> ran = new CopyOnWriteArrayList<>();
+        JobProperties properties = new JobProperties();
+        properties.setMaxQueued(1);
+        properties.setResultTtl(Duration.ofMillis(100));
+        OptimizationJobService service = jobService(blockingOptimizer(release, ran), properties);
+
+        JobResponse running = service.submit(job(request("running"), 0));
+        while (ran.isEmpty()) {
+            Thread.sleep(5);
+        }
+        JobResponse queued = service.submit(job(request("queued"), 0));
+        assertThrows(SolverOverloadedException.class, () -> service.submit(job(request("refused"), 0)));
+        release.countDown();
+        await(service, queued.getJobId());
+
+        Thread.sleep(300);
+        assertThrows(JobNotFoundException.class, () -> service.get(running.getJobId()));
+        assertThrows(JobNotFoundException.class, () -> service.get(queued.getJobId()));
+    }
+
+    @Test
+    @DisplayName("Should never queue more than the limit when submits race")
+    void holdsQueueLimitUnderConcurrentSubmits() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> ran = new CopyOnWriteArrayList<>();
+        JobProperties properties = new JobProperties();
+        properties.setMaxQueued(10);
+        OptimizationJobService service = jobService(blockingOptimizer(release, ran), properties);
+        service.submit(job(request("running"), 0));
+        while (ran.isEmpty()) {
+            Thread.sleep(5);
+        }
+
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService submitters = Executors.newFixedThreadPool(16);
+        List<Future<?>> submits = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            submits.add(submitters.submit(() -> {
+                start.await();
+                for (int j = 0; j < 50; j++) {
+                    try {
+                        service.submit(job(request("queued"), 0));
+                        accepted.incrementAndGet();
+                    } catch (SolverOverloadedException ex) {
+                        // past the limit
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> submit : submits) {
+            submit.get();
+        }
+        submitters.shutdown();
+
+        assertEquals(10, accepted.get());
+        assertEquals(10, executor.getQueue().size());
+        release.countDown();
+    }
+}
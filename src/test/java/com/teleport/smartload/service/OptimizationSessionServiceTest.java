@@ -0,0 +1,178 @@
+package com.teleport.smartload.service;
+
+import com.teleport.smartload.config.SessionProperties;
+import com.teleport.smartload.config.SolverProperties;
+import com.teleport.smartload.dto.OptimizeRequest;
+import com.teleport.smartload.dto.SessionResponse;
+import com.teleport.smartload.dto.SessionUpdateRequest;
+import com.teleport.smartload.exception.SessionBusyException;
+import com.teleport.smartload.exception.SessionNotFoundException;
+import com.teleport.smartload.model.Order;
+import com.teleport.smartload.model.Truck;
+import com.teleport.smartload.solver.CompatibilityRule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimizationSessionServiceTest {
+
+    private final Truck truck = new Truck("truck-1", 44000, 3000);
+
+    private ValidatorFactory validatorFactory;
+    private SimpleMeterRegistry registry;
+    private LoadOptimizerServiceImpl optimizer;
+
+    @BeforeEach
+    void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        registry = new SimpleMeterRegistry();
+        optimizer = new LoadOptimizerServiceImpl(new SolverProperties(), ForkJoinPool.commonPool(), registry,
+                CompatibilityRule.LANE_AND_HAZMAT);
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    private OptimizationSessionService sessionService(SessionProperties properties) {
+        return new OptimizationSessionService(optimizer, validatorFactory.getValidator(), properties, registry);
+    }
+
+    private Order order(String id, long payout, int weight, int volume, String destination) {
+        return new Order(id, payout, weight, volume, "LA", destination,
+                LocalDate.now(), LocalDate.now().plusDays(3), false);
+    }
+
+    private long searches() {
+        return registry.find("smartload.solver.search").timers().stream().mapToLong(t -> t.count()).sum();
+    }
+
+    @Test
+    @DisplayName("Should match a fresh optimize after every add and remove")
+    void matchesFreshSolves() {
+        Random random = new Random(5);
+        OptimizationSessionService service = sessionService(new SessionProperties());
+        List<Order> pool = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            pool.add(order("ord-" + i, 1000 + random.nextInt(90000), 1000 + random.nextInt(20000),
+                    100 + random.nextInt(1500), random.nextBoolean() ? "Dallas" : "Denver"));
+        }
+        SessionResponse session = service.create(new OptimizeRequest(truck, new ArrayList<>(pool)));
+        LoadOptimizerService fresh = new LoadOptimizerServiceImpl();
+
+        for (int step = 12; step < 60; step++) {
+            SessionUpdateRequest update;
+            if (random.nextInt(3) == 0 && !pool.isEmpty()) {
+                Order cancelled = pool.remove(random.nextInt(pool.size()));
+                update = new SessionUpdateRequest(null, List.of(cancelled.getId()));
+            } else {
+                Order posted = order("ord-" + step, 1000 + random.nextInt(90000), 1000 + random.nextInt(20000),
+                        100 + random.nextInt(1500), random.nextBoolean() ? "Dallas" : "Denver");
+                pool.add(posted);
+                update = new SessionUpdateRequest(List.of(posted), null);
+            }
+
+            SessionResponse updated = service.update(session.getSessionId(), update);
+
+            assertEquals(pool.size(), updated.getOrderCount());
+            assertEquals(fresh.optimize(new OptimizeRequest(truck, new ArrayList<>(pool))).getTotalPayoutCents(),
+                    updated.getResult().getTotalPayoutCents());
+            assertTrue(updated.getResult().isOptimal());
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep the load without a search when an unloaded order is cancelled")
+    void skipsSearchForUnloadedRemoval() {
+        OptimizationSessionService service = sessionService(new SessionProperties());
+        SessionResponse session = service.create(new OptimizeRequest(truck, List.of(
+                order("big", 200000, 40000, 2500, "Dallas"),
+                order("small", 50000, 30000, 1000, "Dallas"),
+                order("other", 90000, 10000, 500, "Denver"))));
+        assertEquals(List.of("big"), session.getResult().getSelectedOrderIds());
+        long searchesBefore = searches();
+
+        SessionResponse updated = service.update(session.getSessionId(),
+                new SessionUpdateRequest(null, List.of("small")));
+
+        assertEquals(List.of("big"), updated.getResult().getSelectedOrderIds());
+        assertTrue(updated.getResult().isOptimal());
+        assertEquals(searchesBefore, searches());
+    }
+
+    @Test
+    @DisplayName("Should reject a change that breaks the pool limits and keep the old pool")
+    void rejectsInvalidChange() {
+        OptimizationSessionService service = sessionService(new SessionProperties());
+        SessionResponse session = service.create(new OptimizeRequest(truck,
+                List.of(order("ord-0", 1000, 1000, 100, "Dallas"))));
+        List<Order> tooMany = new ArrayList<>();
+        for (int i = 1; i <= 45; i++) {
+            tooMany.add(order("ord-" + i, 1000, 1000, 100, "Dallas"));
+        }
+
+        assertThrows(ConstraintViolationException.class,
+                () -> service.update(session.getSessionId(), new SessionUpdateRequest(tooMany, null)));
+        assertEquals(1, service.get(session.getSessionId()).getOrderCount());
+    }
+
+    @Test
+    @DisplayName("Should forget deleted and idle sessions")
+    void dropsDeletedAndIdleSessions() throws InterruptedException {
+        SessionProperties properties = new SessionProperties();
+        properties.setIdleTimeout(Duration.ofMillis(50));
+        OptimizationSessionService service = sessionService(properties);
+        OptimizeRequest request = new OptimizeRequest(truck, List.of(order("ord-1", 1000, 1000, 100, "Dallas")));
+
+        String deleted = service.create(request).getSessionId();
+        service.delete(deleted);
+        assertThrows(SessionNotFoundException.class, () -> service.get(deleted));
+
+        String idle = service.create(request).getSessionId();
+        Thread.sleep(200);
+        assertThrows(SessionNotFoundException.class, () -> service.get(idle));
+        assertThrows(SessionNotFoundException.class, () -> service.delete(idle));
+    }
+
+    @Test
+    @DisplayName("Should refuse a change while the last one is still pending")
+    void refusesConcurrentChange() {
+        OptimizationSessionService service = sessionService(new SessionProperties());
+        SessionResponse session = service.create(new OptimizeRequest(truck,
+                List.of(order("ord-0", 1000, 1000, 100, "Dallas"))));
+        List<Supplier<SessionResponse>> submitted = new ArrayList<>();
+        CompletableFuture<SessionResponse> pending = new CompletableFuture<>();
+
+        service.update(session.getSessionId(),
+                new SessionUpdateRequest(List.of(order("ord-1", 2000, 1000, 100, "Dallas")), null), task -> {
+                    submitted.add(task);
+                    return pending;
+                });
+        assertThrows(SessionBusyException.class, () -> service.update(session.getSessionId(),
+                new SessionUpdateRequest(null, List.of("ord-0")), CompletableFuture::supplyAsync));
+        assertEquals(1, submitted.size());
+
+        pending.complete(submitted.get(0).get());
+        SessionResponse updated = service.update(session.getSessionId(),
+                new SessionUpdateRequest(null, List.of("ord-0")), CompletableFuture::supplyAsync).join();
+        assertEquals(1, updated.getOrderCount());
+        assertEquals(List.of("ord-1"), updated.getResult().getSelectedOrderIds());
+    }
+}
@@ -0,0 +1,257 @@
+package com.teleport.smartload.service;
+
+import com.teleport.smartload.config.OrderBookProperties;
+import com.teleport.smartload.config.SolverProperties;
+import com.teleport.smartload.dto.OptimizeRequest;
+import com.teleport.smartload.dto.OptimizeResponse;
+import com.teleport.smartload.dto.OrderBookUpsertRequest;
+import com.teleport.smartload.dto.TruckOptimizeRequest;
+import com.teleport.smartload.exception.OrderNotFoundException;
+import com.teleport.smartload.model.Order;
+import com.teleport.smartload.model.Truck;
+import com.teleport.smartload.solver.CompatibilityRule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderBookServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 12, 1);
+
+    private final Truck truck = new Truck("truck-1", 44000, 3000);
+    private LoadOptimizerService optimizer;
+    private OrderBookService orderBook;
+
+    @BeforeEach
+    void setUp() {
+        optimizer = new LoadOptimizerServiceImpl();
+        orderBook = new OrderBookService(optimizer, new SimpleMeterRegistry());
+    }
+
+    private Order order(String id, long payout, int weight, String destination, boolean hazmat, int pickupOffset) {
+        return new Order(id, payout, weight, 500, "Los Angeles", destination,
+                DAY.plusDays(pickupOffset), DAY.plusDays(pickupOffset + 3), hazmat);
+    }
+
+    private List<String> selectedIds(TruckOptimizeRequest request) {
+        return orderBook.optimizeTruck(request).getSelectedOrderIds();
+    }
+
+    @Test
+    @DisplayName("Should match an optimize over the lane's orders sent in the request")
+    void matchesOptimizeWithOrdersInline() {
+        Random random = new Random(11);
+        List<Order> lane = new ArrayList<>();
+        List<Order> board = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            String destination = i % 3 == 0 ? "Denver" : "Dallas";
+            Order order = order("ord-" + i, 1000 + random.nextInt(90000), 1000 + random.nextInt(20000),
+                    destination, false, random.nextInt(5));
+            board.add(order);
+            if (destination.equals("Dallas")) {
+                lane.add(order);
+            }
+        }
+        orderBook.upsert(new OrderBookUpsertRequest(board));
+
+        OptimizeResponse byTruck = orderBook.optimizeTruck(new TruckOptimizeRequest(truck, "los angeles", "DALLAS"));
+        OptimizeResponse inline = optimizer.optimize(new OptimizeRequest(truck, lane));
+
+        assertEquals(inline.getTotalPayoutCents(), byTruck.getTotalPayoutCents());
+        assertEquals(inline.getSelectedOrderIds(), byTruck.getSelectedOrderIds());
+    }
+
+    @Test
+    @DisplayName("Should only take orders of the requested hazmat class and pickup window")
+    void filtersByHazmatAndPickupWindow() {
+        orderBook.upsert(new OrderBookUpsertRequest(List.of(
+                order("early", 10000, 1000, "Dallas", false, 0),
+                order("inside", 20000, 1000, "Dallas", false, 2),
+                order("hazmat", 90000, 1000, "Dallas", true, 2),
+                order("late", 30000, 1000, "Dallas", false, 5))));
+        TruckOptimizeRequest request = new TruckOptimizeRequest(truck, "Los Angeles", "Dallas");
+        request.setHazmat(false);
+        request.setPickupFrom(DAY.plusDays(1));
+        request.setPickupTo(DAY.plusDays(4));
+
+        assertEquals(List.of("inside"), selectedIds(request));
+
+        request.setHazmat(true);
+        assertEquals(List.of("hazmat"), selectedIds(request));
+    }
+
+    @Test
+    @DisplayName("Should replace orders by ID and forget removed and expired ones")
+    void upsertsRemovesAndExpires() {
+        orderBook.upsert(new OrderBookUpsertRequest(List.of(
+                order("a", 10000, 1000, "Dallas", false, 0),
+                order("b", 20000, 1000, "Dallas", false, 1),
+                order("c", 30000, 1000, "Dallas", false, 2))));
+        // moved to another lane, the old lane must not see it anymore
+        orderBook.upsert(new OrderBookUpsertRequest(List.of(order("c", 30000, 1000, "Denver", false, 3))));
+        assertEquals(3, orderBook.size());
+
+        orderBook.remove("b");
+        assertThrows(OrderNotFoundException.class, () -> orderBook.remove("b"));
+        assertEquals(List.of("a"), selectedIds(new TruckOptimizeRequest(truck, "Los Angeles", "Dallas")));
+
+        assertEquals(1, orderBook.expire(DAY.plusDays(3)).getChanged());
+        assertEquals(1, orderBook.size());
+        assertEquals(List.of(), selectedIds(new TruckOptimizeRequest(truck, "Los Angeles", "Dallas")));
+        assertEquals(List.of("c"), selectedIds(new TruckOptimizeRequest(truck, "Los Angeles", "Denver")));
+
+        // freed slots are reused without mixing up the indexes
+        orderBook.upsert(new OrderBookUpsertRequest(List.of(order("d", 5000, 1000, "Dallas", false, 4))));
+        assertEquals(List.of("d"), selectedIds(new TruckOptimizeRequest(truck, "Los Angeles", "Dallas")));
+    }
+
+    @Test
+    @DisplayName("Should solve a lane over the per-request limit as a large pool")
+    void solvesBigLanesAsLargePool() {
+        List<Order> board = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            board.add(order("ord-" + i, 10000 + i, 4000, "Dallas", false, 0));
+        }
+        orderBook.upsert(new OrderBookUpsertRequest(board));
+
+        OptimizeResponse response = orderBook.optimizeTruck(new TruckOptimizeRequest(truck, "Los Angeles", "Dallas"));
+
+        assertEquals(6, response.getSelectedOrderIds().size());
+        assertTrue(response.getSelectedOrderIds().contains("ord-199"));
+    }
+
+    @Test
+    @DisplayName("Should size a lane's classes with the optimizer's rule")
+    void sizesClassesWithTheRule() {
+        // hazmat may ride with anything here, so a lane is one class however it splits by flag
+        CompatibilityRule wholeLane = order -> order.getDestination().toLowerCase();
+        LoadOptimizerService laneOptimizer = new LoadOptimizerServiceImpl(new SolverProperties(),
+                ForkJoinPool.commonPool(), new SimpleMeterRegistry(), wholeLane);
+        OrderBookService service = new OrderBookService(laneOptimizer, new OrderBookProperties(),
+                new SimpleMeterRegistry(), wholeLane);
+        List<Order> board = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            board.add(order("ord-" + i, 10000 + i, 4000, "Dallas", i % 2 == 0, 0));
+        }
+        service.upsert(new OrderBookUpsertRequest(board));
+
+        OptimizeResponse response = service.optimizeTruck(new TruckOptimizeRequest(truck, "Los Angeles", "Dallas"));
+
+        assertEquals(6, response.getSelectedOrderIds().size());
+        assertTrue(response.getSelectedOrderIds().contains("ord-59"));
+    }
+
+    private OrderBookService journaled(Path directory, DataSize journalSize) {
+        OrderBookProperties properties = new OrderBookProperties();
+        properties.setJournalDir(directory);
+        properties.setJournalSize(journalSize);
+        return new OrderBookService(optimizer, properties, new SimpleMeterRegistry(),
+                CompatibilityRule.LANE_AND_HAZMAT);
+    }
+
+    // a truck that takes everything, so the load is the whole lane
+    private List<String> lane(OrderBookService service, String destination) {
+        Truck unlimited = new Truck("unlimited", Integer.MAX_VALUE, Integer.MAX_VALUE);
+        List<String> ids = new ArrayList<>(service.optimizeTruck(
+                new TruckOptimizeRequest(unlimited, "Los Angeles", destination)).getSelectedOrderIds());
+        ids.sort(null);
+        return ids;
+    }
+
+    @Test
+    @DisplayName("Should rebuild the board from the journal after a restart")
+    void recoversFromJournal(@TempDir Path directory) {
+        try (OrderBookService service = journaled(directory, DataSize.ofMegabytes(1))) {
+            service.upsert(new OrderBookUpsertRequest(List.of(
+                    order("a", 10000, 1000, "Dallas", false, 0),
+                    order("b", 20000, 1000, "Dallas", false, 2),
+                    order("c", 30000, 1000, "Denver", false, 2))));
+            service.upsert(new OrderBookUpsertRequest(List.of(order("a", 15000, 1000, "Denver", false, 4))));
+            service.remove("b");
+            service.upsert(new OrderBookUpsertRequest(List.of(order("d", 5000, 1000, "Dallas", false, 0))));
+            service.expire(DAY.plusDays(1));
+        }
+
+        try (OrderBookService restarted = journaled(directory, DataSize.ofMegabytes(1))) {
+            assertEquals(2, restarted.size());
+            assertEquals(List.of(), lane(restarted, "Dallas"));
+            assertEquals(List.of("a", "c"), lane(restarted, "Denver"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should snapshot when the log fills up and recover from snapshot plus log")
+    void compactsIntoSnapshot(@TempDir Path directory) {
+        Random random = new Random(3);
+        List<String> expected = new ArrayList<>();
+        // a few kilobytes of log forces several compactions
+        try (OrderBookService service = journaled(directory, DataSize.ofKilobytes(4))) {
+            for (int i = 0; i < 500; i++) {
+                service.upsert(new OrderBookUpsertRequest(List.of(
+                        order("ord-" + random.nextInt(100), 1000 + i, 1000, "Dallas", false, 0))));
+                if (i % 7 == 0) {
+                    try {
+                        service.remove("ord-" + random.nextInt(100));
+                    } catch (OrderNotFoundException ignored) {
+                        // already gone
+                    }
+                }
+            }
+            expected.addAll(lane(service, "Dallas"));
+        }
+
+        try (OrderBookService restarted = journaled(directory, DataSize.ofKilobytes(4))) {
+            assertEquals(expected, lane(restarted, "Dallas"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep every complete record when the last one was cut short")
+    void ignoresTornTail(@TempDir Path directory) throws IOException {
+        try (OrderBookService service = journaled(directory, DataSize.ofKilobytes(64))) {
+            service.upsert(new OrderBookUpsertRequest(List.of(
+                    order("a", 10000, 1000, "Dallas", false, 0),
+                    order("b", 20000, 1000, "Dallas", false, 0))));
+        }
+        // garbage where the next record would start, as if the process died mid-append
+        try (FileChannel log = FileChannel.open(directory.resolve(OrderBookJournal.LOG_FILE),
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(4);
+            long end = 12;
+            while (true) {
+                header.clear();
+                log.read(header, end);
+                int length = header.flip().getInt();
+                if (length == 0) {
+                    break;
+                }
+                end += 8 + length;
+            }
+            log.write(ByteBuffer.wrap(new byte[] {0, 0, 0, 40, 1, 2, 3, 4, 1}), end);
+        }
+
+        try (OrderBookService restarted = journaled(directory, DataSize.ofKilobytes(64))) {
+            assertEquals(List.of("a", "b"), lane(restarted, "Dallas"));
+            restarted.upsert(new OrderBookUpsertRequest(List.of(order("c", 1000, 1000, "Dallas", false, 0))));
+        }
+        try (OrderBookService again = journaled(directory, DataSize.ofKilobytes(64))) {
+            assertEquals(List.of("a", "b", "c"), lane(again, "Dallas"));
+        }
+    }
+}
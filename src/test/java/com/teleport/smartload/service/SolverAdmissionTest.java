@@ -0,0 +1,97 @@
+package com.teleport.smartload.service;
+
+import com.teleport.smartload.config.SolverProperties;
+import com.teleport.smartload.solver.CancellationToken;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolverAdmissionTest {
+
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(4));
+    private final SolverAdmission admission = new SolverAdmission(executor, new SolverProperties());
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final AtomicBoolean release = new AtomicBoolean();
+    private final CompletableFuture<String> outcome = new CompletableFuture<>();
+
+    @AfterEach
+    void tearDown() {
+        release.set(true);
+        executor.shutdownNow();
+    }
+
+    // stands in for a search, polling its token like an engine polls its budget
+    private final Supplier<String> search = () -> {
+        started.countDown();
+        CancellationToken token = CancellationToken.current();
+        while (!release.get() && !token.isCancelled()) {
+            Thread.onSpinWait();
+        }
+        String result = token.isCancelled() ? "cancelled" : "finished";
+        outcome.complete(result);
+        return result;
+    };
+
+    @Test
+    @DisplayName("Should cancel the solve once its only caller lets go")
+    void cancelsAbandonedSolve() throws Exception {
+        CompletableFuture<String> caller = admission.submit(null, search);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        caller.cancel(false);
+
+        assertEquals("cancelled", outcome.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should keep a shared solve running while another caller waits for it")
+    void keepsSharedSolveForRemainingCaller() throws Exception {
+        CompletableFuture<String> first = admission.submit("key", search);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> retry = admission.submit("key", search);
+
+        first.cancel(false);
+        Thread.sleep(50);
+        assertFalse(outcome.isDone());
+        release.set(true);
+
+        assertEquals("finished", retry.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should not start a queued solve nobody waits for, nor let new callers join it")
+    void dropsAbandonedQueuedSolve() throws Exception {
+        CountDownLatch busy = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                busy.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        AtomicBoolean ran = new AtomicBoolean();
+        CompletableFuture<String> abandoned = admission.submit("key", () -> {
+            ran.set(true);
+            return "abandoned";
+        });
+
+        abandoned.cancel(false);
+        CompletableFuture<String> next = admission.submit("key", () -> "fresh");
+        busy.countDown();
+
+        assertEquals("fresh", next.get(5, TimeUnit.SECONDS));
+        assertFalse(ran.get());
+    }
+}
@@ -0,0 +1,578 @@
+package com.teleport.smartload.solver;
+
+import com.teleport.smartload.model.Order;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks every engine against a brute-force enumeration on small random pools
+ */
+class SolverEngineTest {
+
+    static Stream<SolverEngine> engines() {
+        return Stream.of(new BranchAndBoundEngine(), new ParallelBranchAndBoundEngine(ForkJoinPool.commonPool()),
+                new MeetInTheMiddleEngine(),
+                new DynamicProgrammingEngine(1L << 20, false));
+    }
+
+    private static OrderPool randomPool(Random random, int size, int lanes) {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            // round sizes, like real loads, keep the GCD-reduced DP grid small
+            orders.add(new Order("ord-" + i, 1000 + random.nextInt(50000),
+                    500 + 100 * random.nextInt(150), 50 + 10 * random.nextInt(100),
+                    "LA", "City-" + random.nextInt(lanes),
+                    LocalDate.now(), LocalDate.now().plusDays(3), random.nextInt(4) == 0));
+        }
+        return OrderPool.of(orders);
+    }
+
+    private static long bruteForce(OrderPool pool, int maxWeight, int maxVolume) {
+        long best = 0;
+        for (long mask = 1; mask < (1L << pool.size()); mask++) {
+            long payout = 0;
+            int weight = 0;
+            int volume = 0;
+            boolean ok = true;
+            for (long m = mask; m != 0 && ok; m &= m - 1) {
+                int i = Long.numberOfTrailingZeros(m);
+                payout += pool.payouts()[i];
+                weight += pool.weights()[i];
+                volume += pool.volumes()[i];
+                ok = (pool.compatibility()[i] & mask) == mask;
+            }
+            if (ok && weight <= maxWeight && volume <= maxVolume) {
+                best = Math.max(best, payout);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Payouts of every load no other order could join, best first
+     */
+    private static List<Long> maximalLoadPayouts(OrderPool pool, int maxWeight, int maxVolume) {
+        List<Long> payouts = new ArrayList<>();
+        for (long mask = 0; mask < (1L << pool.size()); mask++) {
+            if (fits(pool, mask, maxWeight, maxVolume)) {
+                boolean maximal = true;
+                for (int i = 0; i < pool.size() && maximal; i++) {
+                    maximal = (mask & (1L << i)) != 0 || !fits(pool, mask | (1L << i), maxWeight, maxVolume);
+                }
+                if (maximal) {
+                    payouts.add(pool.payoutOf(mask));
+                }
+            }
+        }
+        payouts.sort(Comparator.reverseOrder());
+        return payouts;
+    }
+
+    private static boolean fits(OrderPool pool, long mask, int maxWeight, int maxVolume) {
+        int weight = 0;
+        int volume = 0;
+        for (long m = mask; m != 0; m &= m - 1) {
+            int i = Long.numberOfTrailingZeros(m);
+            if ((pool.compatibility()[i] & mask) != mask) {
+                return false;
+            }
+            weight += pool.weights()[i];
+            volume += pool.volumes()[i];
+        }
+        return weight <= maxWeight && volume <= maxVolume;
+    }
+
+    private static void assertFeasible(OrderPool pool, Solution solution, int maxWeight, int maxVolume) {
+        long payout = 0;
+        int weight = 0;
+        int volume = 0;
+        for (long m = solution.mask(); m != 0; m &= m - 1) {
+            int i = Long.numberOfTrailingZeros(m);
+            payout += pool.payouts()[i];
+            weight += pool.weights()[i];
+            volume += pool.volumes()[i];
+        }
+        assertEquals(solution.payout(), payout, "payout must match the selected orders");
+        assertTrue(weight <= maxWeight, "weight over capacity");
+        assertTrue(volume <= maxVolume, "volume over capacity");
+    }
+
+    @ParameterizedTest
+    @MethodSource("engines")
+    @DisplayName("Should match brute force on random mixed pools")
+    void matchesBruteForce(SolverEngine engine) {
+        Random random = new Random(42);
+        for (int round = 0; round < 40; round++) {
+            OrderPool pool = randomPool(random, 6 + random.nextInt(10), 1 + random.nextInt(3));
+            int maxWeight = 10000 + random.nextInt(40000);
+            int maxVolume = 1000 + random.nextInt(3000);
+
+            Solution solution = engine.solve(pool, maxWeight, maxVolume);
+
+            assertEquals(bruteForce(pool, maxWeight, maxVolume), solution.payout(), engine.name());
+            assertTrue(solution.isOptimal(), engine.name());
+            assertFeasible(pool, solution, maxWeight, maxVolume);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("engines")
+    @DisplayName("Should return a feasible load and a valid upper bound when out of time")
+    void respectsSpentBudget(SolverEngine engine) {
+        Random random = new Random(5);
+        for (int round = 0; round < 20; round++) {
+            OrderPool pool = randomPool(random, 6 + random.nextInt(10), 1 + random.nextInt(3));
+            int maxWeight = 10000 + random.nextInt(40000);
+            int maxVolume = 1000 + random.nextInt(3000);
+            long optimum = bruteForce(pool, maxWeight, maxVolume);
+
+            Solution solution = engine.solve(pool, maxWeight, maxVolume, SolveBudget.ofMillis(0));
+
+            assertTrue(solution.payout() <= optimum, engine.name());
+            assertTrue(solution.upperBound() >= optimum, engine.name());
+            assertFeasible(pool, solution, maxWeight, maxVolume);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("engines")
+    @DisplayName("Should never return less than the warm start")
+    void keepsWarmStart(SolverEngine engine) {
+        Random random = new Random(11);
+        for (int round = 0; round < 20; round++) {
+            OrderPool pool = randomPool(random, 6 + random.nextInt(10), 1 + random.nextInt(3));
+            int maxWeight = 10000 + random.nextInt(40000);
+            int maxVolume = 1000 + random.nextInt(3000);
+            Solution optimum = engine.solve(pool, maxWeight, maxVolume);
+
+            Solution spent = engine.solve(pool, maxWeight, maxVolume, SolveBudget.ofMillis(0), new SolveStats(),
+                    optimum.mask());
+            Solution full = engine.solve(pool, maxWeight, maxVolume, SolveBudget.UNLIMITED, new SolveStats(),
+                    optimum.mask());
+
+            assertEquals(optimum.payout(), spent.payout(), engine.name());
+            assertEquals(optimum.payout(), full.payout(), engine.name());
+            assertTrue(full.isOptimal(), engine.name());
+            assertFeasible(pool, spent, maxWeight, maxVolume);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("engines")
+    @DisplayName("Should count search work into the stats")
+    void countsSearchWork(SolverEngine engine) {
+        OrderPool pool = randomPool(new Random(17), 14, 2);
+        SolveStats stats = new SolveStats();
+
+        engine.solve(pool, 30000, 2000, SolveBudget.UNLIMITED, stats);
+
+        assertTrue(stats.getNodes() > 0, engine.name());
+        // the greedy seed may already be optimal, then all the work shows up as prunes
+        assertTrue(stats.getBoundPrunes() + stats.getCapacityPrunes() + stats.getImprovements() > 0,
+                engine.name());
+    }
+
+    /**
+     * Few distinct sizes and payouts that follow size, like shippers' standard loads
+     */
+    private static OrderPool correlatedPool(Random random, int size) {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            int units = 1 + random.nextInt(6);
+            orders.add(new Order("ord-" + i, units * 10000L + random.nextInt(3) * 500,
+                    units * 4000, units * 250, "LA", "Dallas",
+                    LocalDate.now(), LocalDate.now().plusDays(3), false));
+        }
+        return OrderPool.of(orders);
+    }
+
+    @Test
+    @DisplayName("Dominance reduction should drop orders without changing the optimum")
+    void dominanceKeepsOptimum() {
+        Random random = new Random(13);
+        int dropped = 0;
+        for (int round = 0; round < 30; round++) {
+            OrderPool pool = random.nextBoolean()
+                    ? correlatedPool(random, 6 + random.nextInt(10))
+                    : randomPool(random, 6 + random.nextInt(10), 1 + random.nextInt(3));
+            int maxWeight = 10000 + random.nextInt(40000);
+            int maxVolume = 1000 + random.nextInt(3000);
+
+            OrderPool reduced = Dominance.reduce(pool, maxWeight, maxVolume);
+
+            assertEquals(bruteForce(pool, maxWeight, maxVolume), bruteForce(reduced, maxWeight, maxVolume));
+            dropped += pool.size() - reduced.size();
+        }
+        assertTrue(dropped > 0);
+    }
+
+    @Test
+    @DisplayName("Backtracking should prune dominated orders and repeated states on correlated pools")
+    void backtrackingPrunesRepeatedWork() {
+        Random random = new Random(19);
+        SolverEngine branchAndBound = new BranchAndBoundEngine();
+        SolveStats stats = new SolveStats();
+        for (int round = 0; round < 20; round++) {
+            OrderPool pool = correlatedPool(random, 10 + random.nextInt(8));
+            int maxWeight = 30000 + random.nextInt(30000);
+            int maxVolume = 2000 + random.nextInt(2000);
+
+            Solution solution = branchAndBound.solve(pool, maxWeight, maxVolume, SolveBudget.UNLIMITED, stats);
+
+            assertEquals(bruteForce(pool, maxWeight, maxVolume), solution.payout());
+            assertFeasible(pool, solution, maxWeight, maxVolume);
+        }
+        assertTrue(stats.getDominancePrunes() > 0);
+        assertTrue(stats.getTranspositionPrunes() > 0);
+    }
+
+    @Test
+    @DisplayName("Dominance and transposition prunes together should match brute force on random pools")
+    void dominanceAndTranspositionMatchBruteForce() {
+        Random random = new Random(29);
+        SolverEngine branchAndBound = new BranchAndBoundEngine();
+        SolverEngine parallel = new ParallelBranchAndBoundEngine(ForkJoinPool.commonPool());
+        SolveStats stats = new SolveStats();
+        for (int round = 0; round < 3000; round++) {
+            int size = 6 + random.nextInt(9);
+            // few weight and volume steps, so equal loads, near twins and repeated states are common
+            int sizes = 1 + random.nextInt(3);
+            List<Order> orders = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                int weightUnits = 1 + random.nextInt(sizes + 1);
+                int volumeUnits = 1 + random.nextInt(sizes + 1);
+                orders.add(new Order("ord-" + i, (weightUnits + volumeUnits) * 5000L + random.nextInt(5000),
+                        weightUnits * 4000, volumeUnits * 250, "LA", "Dallas",
+                        LocalDate.now(), LocalDate.now().plusDays(3), false));
+            }
+            // some pairs can't ride together, which decides whether a dominator may stand in
+            Set<String> apart = new HashSet<>();
+            for (int i = 0; i < size; i++) {
+                for (int j = i + 1; j < size; j++) {
+                    if (random.nextInt(3) == 0) {
+                        apart.add("ord-" + i + "|ord-" + j);
+                        apart.add("ord-" + j + "|ord-" + i);
+                    }
+                }
+            }
+            CompatibilityRule rule = new CompatibilityRule() {
+                @Override
+                public Object groupKey(Order order) {
+                    return "all";
+                }
+
+                @Override
+                public boolean compatible(Order a, Order b) {
+                    return !apart.contains(a.getId() + "|" + b.getId());
+                }
+            };
+            OrderPool pool = OrderPool.of(orders, rule);
+            int maxWeight = 8000 + random.nextInt(40000);
+            int maxVolume = 500 + random.nextInt(3000);
+            long expected = bruteForce(pool, maxWeight, maxVolume);
+
+            Solution solution = branchAndBound.solve(pool, maxWeight, maxVolume, SolveBudget.UNLIMITED, stats);
+
+            assertEquals(expected, solution.payout(), "round " + round);
+            assertFeasible(pool, solution, maxWeight, maxVolume);
+            assertEquals(expected, parallel.solve(pool, maxWeight, maxVolume).payout(), "round " + round);
+        }
+        assertTrue(stats.getDominancePrunes() > 0);
+        assertTrue(stats.getTranspositionPrunes() > 0);
+    }
+
+    @Test
+    @DisplayName("Ranked search should return the k best maximal loads")
+    void rankedSearchMatchesEnumeration() {
+        Random random = new Random(29);
+        BranchAndBoundEngine branchAndBound = new BranchAndBoundEngine();
+        for (int round = 0; round < 30; round++) {
+            OrderPool pool = random.nextBoolean()
+                    ? correlatedPool(random, 6 + random.nextInt(8))
+                    : randomPool(random, 6 + random.nextInt(8), 1 + random.nextInt(3));
+            int maxWeight = 10000 + random.nextInt(40000);
+            int maxVolume = 1000 + random.nextInt(3000);
+            int k = 1 + random.nextInt(6);
+            List<Long> expected = maximalLoadPayouts(pool, maxWeight, maxVolume);
+
+            List<Solution> loads = branchAndBound.solveRanked(pool, maxWeight, maxVolume, k,
+                    SolveBudget.UNLIMITED, new SolveStats());
+
+            assertEquals(expected.subList(0, Math.min(k, expected.size())),
+                    loads.stream().map(Solution::payout).toList());
+            assertEquals(loads.size(), loads.stream().map(Solution::mask).distinct().count());
+            for (Solution load : loads) {
+                assertFeasible(pool, load, maxWeight, maxVolume);
+            }
+        }
+    }
+
+    private static List<Order> boardOrders(Random random, int size) {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            orders.add(new Order("ord-" + i, 1000 + random.nextInt(100000), 500 + random.nextInt(15000),
+                    50 + random.nextInt(1000), "LA", "Dallas",
+                    LocalDate.now(), LocalDate.now().plusDays(3), false));
+        }
+        return orders;
+    }
+
+    private static long selectedMask(LocalSearchEngine.Result result) {
+        long mask = 0;
+        for (int i : result.selected()) {
+            mask |= 1L << i;
+        }
+        return mask;
+    }
+
+    @Test
+    @DisplayName("Local search should return a feasible load between the optimum's bounds")
+    void localSearchStaysWithinBounds() {
+        Random random = new Random(31);
+        LocalSearchEngine localSearch = new LocalSearchEngine();
+        for (int round = 0; round < 30; round++) {
+            List<Order> orders = boardOrders(random, 6 + random.nextInt(10));
+            OrderPool pool = OrderPool.of(orders);
+            int maxWeight = 10000 + random.nextInt(40000);
+            int maxVolume = 1000 + random.nextInt(3000);
+            long optimum = bruteForce(pool, maxWeight, maxVolume);
+
+            LocalSearchEngine.Result result = localSearch.solve(orders, CompatibilityRule.LANE_AND_HAZMAT,
+                    maxWeight, maxVolume, SolveBudget.UNLIMITED, new SolveStats());
+
+            Solution load = Solution.exact(selectedMask(result), result.payout());
+            assertFeasible(pool, load, maxWeight, maxVolume);
+            assertEquals(pool.payoutOf(load.mask()), result.payout());
+            assertTrue(result.payout() <= optimum);
+            assertTrue(result.upperBound() >= optimum);
+        }
+    }
+
+    @Test
+    @DisplayName("Local search should load thousands of orders close to the bound")
+    void localSearchHandlesLargeBoards() {
+        List<Order> orders = boardOrders(new Random(37), 5000);
+        SolveStats stats = new SolveStats();
+
+        LocalSearchEngine.Result result = new LocalSearchEngine().solve(orders, CompatibilityRule.LANE_AND_HAZMAT,
+                44000, 3000, SolveBudget.UNLIMITED, stats);
+
+        long weight = 0;
+        long volume = 0;
+        for (int i : result.selected()) {
+            weight += orders.get(i).getWeightLbs();
+            volume += orders.get(i).getVolumeCuft();
+        }
+        assertTrue(weight <= 44000 && volume <= 3000);
+        assertTrue(result.payout() > 0);
+        // within 5% of the LP bound, so within 5% of the optimum
+        assertTrue(result.payout() >= result.upperBound() * 0.95, result.payout() + " vs " + result.upperBound());
+        assertTrue(stats.getNodes() > 0);
+    }
+
+    @Test
+    @DisplayName("Backtracking should respect a non-transitive compatibility rule")
+    void backtrackingRespectsPairwiseRule() {
+        // corridor stops: an order can share a truck with orders one stop either side of it
+        CompatibilityRule corridor = new CompatibilityRule() {
+            @Override
+            public Object groupKey(Order order) {
+                return order.isHazmat();
+            }
+
+            @Override
+            public boolean compatible(Order a, Order b) {
+                return Math.abs(stop(a) - stop(b)) <= 1;
+            }
+
+            private int stop(Order order) {
+                return Integer.parseInt(order.getDestination().substring("City-".length()));
+            }
+        };
+        Random random = new Random(23);
+        SolverEngine branchAndBound = new BranchAndBoundEngine();
+        SolverEngine parallel = new ParallelBranchAndBoundEngine(ForkJoinPool.commonPool());
+        for (int round = 0; round < 30; round++) {
+            List<Order> orders = new ArrayList<>();
+            for (int i = 0; i < 6 + random.nextInt(10); i++) {
+                orders.add(new Order("ord-" + i, 1000 + random.nextInt(50000), 500 + 100 * random.nextInt(150),
+                        50 + 10 * random.nextInt(100), "LA", "City-" + random.nextInt(4),
+                        LocalDate.now(), LocalDate.now().plusDays(3), random.nextInt(4) == 0));
+            }
+            OrderPool pool = OrderPool.of(orders, corridor);
+            int maxWeight = 10000 + random.nextInt(40000);
+            int maxVolume = 1000 + random.nextInt(3000);
+            long expected = bruteForce(pool, maxWeight, maxVolume);
+
+            assertEquals(expected, branchAndBound.solve(pool, maxWeight, maxVolume).payout());
+            assertEquals(expected, parallel.solve(pool, maxWeight, maxVolume).payout());
+            assertFeasible(pool, branchAndBound.solve(pool, maxWeight, maxVolume), maxWeight, maxVolume);
+        }
+    }
+
+    @Test
+    @DisplayName("Pool should split a mixed pool into one class per lane and hazmat flag")
+    void poolGroupsClassesByRule() {
+        List<Order> orders = List.of(
+                new Order("a", 1, 1, 1, "LA", "Dallas", null, null, false),
+                new Order("b", 1, 1, 1, "LA", "Denver", null, null, false),
+                new Order("c", 1, 1, 1, "la", "DALLAS", null, null, false),
+                new Order("d", 1, 1, 1, "LA", "Dallas", null, null, true));
+
+        OrderPool pool = OrderPool.of(orders);
+
+        assertArrayEquals(new int[][] {{0, 2}, {1}, {3}}, pool.compatibilityClasses());
+        assertTrue(pool.classesAreCliques());
+        assertEquals(0b0101L, pool.compatibility()[0]);
+    }
+
+    @Test
+    @DisplayName("Relaxation should bracket the optimum between the greedy load and the LP bound")
+    void relaxationBracketsOptimum() {
+        Random random = new Random(13);
+        for (int round = 0; round < 40; round++) {
+            OrderPool pool = randomPool(random, 6 + random.nextInt(10), 1 + random.nextInt(3));
+            int maxWeight = 10000 + random.nextInt(40000);
+            int maxVolume = 1000 + random.nextInt(3000);
+            long optimum = bruteForce(pool, maxWeight, maxVolume);
+
+            Solution estimate = Relaxation.estimate(pool, maxWeight, maxVolume);
+
+            assertTrue(estimate.payout() > 0);
+            assertTrue(estimate.payout() <= optimum);
+            assertTrue(estimate.upperBound() >= optimum);
+            assertFeasible(pool, estimate, maxWeight, maxVolume);
+        }
+    }
+
+    @Test
+    @DisplayName("Meet-in-the-middle should agree with backtracking on a 40-order class")
+    void meetInTheMiddleMatchesBacktrackingOnLargeClass() {
+        Random random = new Random(7);
+        OrderPool pool = randomPool(random, 40, 1);
+        // tight truck keeps the backtracker fast enough to act as the oracle
+        int maxWeight = 20000;
+        int maxVolume = 1500;
+
+        Solution expected = new BranchAndBoundEngine().solve(pool, maxWeight, maxVolume);
+        Solution actual = new MeetInTheMiddleEngine().solve(pool, maxWeight, maxVolume);
+
+        assertEquals(expected.payout(), actual.payout());
+        assertFeasible(pool, actual, maxWeight, maxVolume);
+    }
+
+    @Test
+    @DisplayName("Branch and bound should prune a 45-order class with room for many orders")
+    void branchAndBoundPrunesLooseClass() {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 45; i++) {
+            orders.add(new Order("ord-" + i, 40000 + (i * 7919) % 30000, 3000 + (i * 37) % 4400,
+                    100 + (i * 13) % 300, "LA", "Dallas", LocalDate.now(), LocalDate.now(), false));
+        }
+        OrderPool pool = OrderPool.of(orders);
+
+        long startTime = System.currentTimeMillis();
+        Solution solution = new BranchAndBoundEngine().solve(pool, 44000, 3000);
+        long duration = System.currentTimeMillis() - startTime;
+
+        // the payout-only bound needed minutes here
+        assertTrue(duration < 5000, "Should complete within 5 seconds, took: " + duration + "ms");
+        assertEquals(new MeetInTheMiddleEngine().solve(pool, 44000, 3000).payout(), solution.payout());
+        assertFeasible(pool, solution, 44000, 3000);
+    }
+
+    @Test
+    @DisplayName("Parallel branch and bound should return the sequential answer every time")
+    void parallelBranchAndBoundIsDeterministic() {
+        // lots of equal payouts, so many different loads are optimal
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 36; i++) {
+            orders.add(new Order("ord-" + i, 20000 + 5000 * (i % 3), 4000 + 1000 * (i % 4), 200 + 50 * (i % 5),
+                    "LA", "Dallas", LocalDate.now(), LocalDate.now(), false));
+        }
+        OrderPool pool = OrderPool.of(orders);
+        Solution expected = new BranchAndBoundEngine().solve(pool, 44000, 3000);
+
+        ForkJoinPool forkJoinPool = new ForkJoinPool(8);
+        try {
+            ParallelBranchAndBoundEngine engine = new ParallelBranchAndBoundEngine(forkJoinPool);
+            for (int run = 0; run < 10; run++) {
+                assertEquals(expected, engine.solve(pool, 44000, 3000));
+            }
+        } finally {
+            forkJoinPool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Rounded DP should return a feasible load no better than the optimum")
+    void roundedDynamicProgrammingStaysFeasible() {
+        Random random = new Random(11);
+        for (int round = 0; round < 20; round++) {
+            OrderPool pool = randomPool(random, 12, 1);
+            int maxWeight = 20000 + random.nextInt(20000);
+            int maxVolume = 1000 + random.nextInt(2000);
+
+            Solution rounded = new DynamicProgrammingEngine(500, true).solve(pool, maxWeight, maxVolume);
+
+            assertTrue(rounded.payout() <= bruteForce(pool, maxWeight, maxVolume));
+            assertFeasible(pool, rounded, maxWeight, maxVolume);
+        }
+    }
+
+    @Test
+    @DisplayName("Exact DP should refuse a grid over its cell limit")
+    void exactDynamicProgrammingRejectsLargeGrid() {
+        OrderPool pool = randomPool(new Random(3), 12, 1);
+        DynamicProgrammingEngine engine = new DynamicProgrammingEngine(500, false);
+
+        assertThrows(IllegalStateException.class, () -> engine.solve(pool, 44000, 3000));
+    }
+
+    @Test
+    @DisplayName("Selector should pick the cheapest engine for the pool shape")
+    void selectorPicksCheapestEngine() {
+        SolverEngine branchAndBound = new BranchAndBoundEngine();
+        SolverEngine meetInTheMiddle = new MeetInTheMiddleEngine();
+        DynamicProgrammingEngine dynamicProgramming = new DynamicProgrammingEngine(1L << 20, false);
+        EngineSelector selector = new EngineSelector(branchAndBound,
+                new ParallelBranchAndBoundEngine(ForkJoinPool.commonPool()), meetInTheMiddle, dynamicProgramming);
+
+        List<Order> coarse = new ArrayList<>();
+        List<Order> irregular = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            coarse.add(new Order("c-" + i, 10000 + i, 1000 * (1 + i % 5), 100 * (1 + i % 3), "LA", "Dallas",
+                    LocalDate.now(), LocalDate.now(), false));
+            irregular.add(new Order("i-" + i, 10000 + i, 1001 + 37 * i, 101 + 7 * i, "LA", "Dallas",
+                    LocalDate.now(), LocalDate.now(), false));
+        }
+
+        assertSame(branchAndBound, selector.select(OrderPool.of(irregular.subList(0, 4)), 44000, 3000));
+        assertSame(meetInTheMiddle, selector.select(OrderPool.of(irregular), 44000, 3000));
+        assertSame(dynamicProgramming, selector.select(OrderPool.of(coarse), 44000, 3000));
+    }
+
+    @ParameterizedTest
+    @MethodSource("engines")
+    @DisplayName("Should return an empty selection for an empty pool")
+    void handlesEmptyPool(SolverEngine engine) {
+        Solution solution = engine.solve(OrderPool.EMPTY, 44000, 3000);
+
+        assertEquals(0L, solution.mask());
+        assertEquals(0L, solution.payout());
+    }
+}
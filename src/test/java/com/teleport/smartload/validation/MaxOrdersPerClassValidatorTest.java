@@ -0,0 +1,97 @@
+package com.teleport.smartload.validation;
+
+import com.teleport.smartload.dto.OptimizeRequest;
+import com.teleport.smartload.model.Order;
+import com.teleport.smartload.model.Truck;
+import com.teleport.smartload.solver.CompatibilityRule;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MaxOrdersPerClassValidatorTest {
+
+    private static ValidatorFactory factory;
+    private static Validator validator;
+
+    @BeforeAll
+    static void setUp() {
+        factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        factory.close();
+    }
+
+    private Order createOrder(String id, String destination, boolean isHazmat) {
+        return new Order(id, 10000, 1000, 100, "LA", destination,
+                LocalDate.now(), LocalDate.now().plusDays(3), isHazmat);
+    }
+
+    private Set<ConstraintViolation<OptimizeRequest>> validate(List<Order> orders) {
+        return validator.validate(new OptimizeRequest(new Truck("truck-1", 44000, 3000), orders));
+    }
+
+    @Test
+    @DisplayName("Should accept large pools spread over many classes")
+    void acceptsLargeMixedPool() {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            orders.add(createOrder("ord-" + i, "City-" + (i % 6), i % 2 == 0));
+        }
+
+        assertTrue(validate(orders).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject a single class over the limit")
+    void rejectsOversizedClass() {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 46; i++) {
+            orders.add(createOrder("ord-" + i, "Dallas", false));
+        }
+
+        Set<ConstraintViolation<OptimizeRequest>> violations = validate(orders);
+
+        assertEquals(1, violations.size());
+        assertEquals("orders", violations.iterator().next().getPropertyPath().toString());
+    }
+
+    @Test
+    @DisplayName("Should count lanes case-insensitively")
+    void countsLanesCaseInsensitively() {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 46; i++) {
+            orders.add(createOrder("ord-" + i, i % 2 == 0 ? "Dallas" : "DALLAS", false));
+        }
+
+        assertFalse(validate(orders).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should count classes with the configured rule")
+    void countsClassesWithRule() throws NoSuchFieldException {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 46; i++) {
+            orders.add(createOrder("ord-" + i, "City-" + (i % 2), false));
+        }
+        MaxOrdersPerClassValidator byHazmat = new MaxOrdersPerClassValidator((CompatibilityRule) Order::isHazmat);
+        byHazmat.initialize(OptimizeRequest.class.getDeclaredField("orders").getAnnotation(MaxOrdersPerClass.class));
+
+        assertTrue(validate(orders).isEmpty());
+        assertFalse(byHazmat.isValid(orders, null));
+    }
+}